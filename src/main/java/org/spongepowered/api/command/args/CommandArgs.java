@@ -26,7 +26,6 @@
 
 import static org.spongepowered.api.util.SpongeApiTranslationHelper.t;
 
-import com.google.common.collect.ImmutableList;
 import org.spongepowered.api.command.args.parsing.SingleArg;
 import org.spongepowered.api.text.Text;
 
@@ -42,7 +41,10 @@
  */
 public final class CommandArgs {
     private final String rawInput;
+    // Snapshots share the list instead of copying it, it is only copied
+    // before the first modification after a snapshot was taken
     private List<SingleArg> args;
+    private boolean shared;
     private int index = -1;
 
     /**
@@ -171,7 +173,7 @@ public String getRaw() {
      */
     public void insertArg(String value) {
         int index = this.index < 0 ? 0 : this.args.get(this.index).getEndIdx();
-        this.args.add(this.index + 1, new SingleArg(value, index, index));
+        modifiableArgs().add(this.index + 1, new SingleArg(value, index, index));
     }
 
     /**
@@ -209,9 +211,15 @@ private void removeArgs(int startIdx, int endIdx) {
                 this.index -= (endIdx - startIdx) + 1;
             }
         }
-        for (int i = startIdx; i <= endIdx; ++i) {
-            this.args.remove(startIdx);
+        modifiableArgs().subList(startIdx, endIdx + 1).clear();
+    }
+
+    private List<SingleArg> modifiableArgs() {
+        if (this.shared) {
+            this.args = new ArrayList<>(this.args);
+            this.shared = false;
         }
+        return this.args;
     }
 
     /**
@@ -240,6 +248,7 @@ public int getRawPosition() {
      *      {@link CommandArgs}
      */
     public Snapshot getSnapshot() {
+        this.shared = true;
         return new Snapshot(this.index, this.args);
     }
 
@@ -268,8 +277,8 @@ public void applySnapshot(Snapshot snapshot) {
     public void applySnapshot(Snapshot snapshot, boolean resetArgs) {
         this.index = snapshot.index;
         if (resetArgs) {
-            this.args.clear();
-            this.args.addAll(snapshot.args);
+            this.args = snapshot.args;
+            this.shared = true;
         }
     }
 
@@ -279,11 +288,11 @@ public void applySnapshot(Snapshot snapshot, boolean resetArgs) {
      */
     public final class Snapshot {
         final int index;
-        final ImmutableList<SingleArg> args;
+        final List<SingleArg> args;
 
         Snapshot(int index, List<SingleArg> args) {
             this.index = index;
-            this.args = ImmutableList.copyOf(args);
+            this.args = args;
         }
 
         @Override
@@ -27,15 +27,17 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.spongepowered.api.util.SpongeApiTranslationHelper.t;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import org.spongepowered.api.command.CommandException;
 import org.spongepowered.api.command.CommandSource;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.world.Location;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -56,13 +58,18 @@ public final class CommandContext {
      */
     public static final String TAB_COMPLETION = "tab-complete-50456"; // Random junk afterwards so we don't accidentally conflict with other args
 
-    private final Multimap<String, Object> parsedArgs;
+    private static final int INITIAL_CAPACITY = 8;
+
+    // The parsed arguments are the first size entries of the store, in the
+    // order they were put. Snapshots share the store instead of copying it.
+    private Store parsedArgs;
+    private int size;
 
     /**
      * Create a new empty CommandContext.
      */
     public CommandContext() {
-        this.parsedArgs = ArrayListMultimap.create();
+        this.parsedArgs = new Store(INITIAL_CAPACITY);
     }
 
     /**
@@ -75,7 +82,22 @@ public CommandContext() {
      */
     @SuppressWarnings("unchecked")
     public <T> Collection<T> getAll(String key) {
-        return Collections.unmodifiableCollection((Collection<T>) this.parsedArgs.get(key));
+        final Store store = this.parsedArgs;
+        final int last = store.last(key, this.size);
+        if (last < 0) {
+            return Collections.emptyList();
+        } else if (store.previous[last] < 0) {
+            return Collections.singletonList((T) store.values[last]);
+        }
+        int count = 0;
+        for (int i = last; i >= 0; i = store.previous[i]) {
+            count++;
+        }
+        final Object[] values = new Object[count];
+        for (int i = last; i >= 0; i = store.previous[i]) {
+            values[--count] = store.values[i];
+        }
+        return Collections.unmodifiableList((List<T>) Arrays.asList(values));
     }
 
     /**
@@ -103,11 +125,8 @@ public <T> Collection<T> getAll(Text key) {
      */
     @SuppressWarnings("unchecked")
     public <T> Optional<T> getOne(String key) {
-        Collection<Object> values = this.parsedArgs.get(key);
-        if (values.size() != 1) {
-            return Optional.empty();
-        }
-        return Optional.ofNullable((T) values.iterator().next());
+        final int index = indexOfOnly(key);
+        return index < 0 ? Optional.empty() : Optional.ofNullable((T) this.parsedArgs.values[index]);
     }
 
     /**
@@ -143,10 +162,10 @@ public <T> Optional<T> getOne(Text key) {
     @SuppressWarnings("unchecked")
     public <T> T requireOne(String key)
             throws NoSuchElementException, IllegalArgumentException, ClassCastException {
-        Collection<Object> values = this.parsedArgs.get(key);
-        if (values.size() == 1) {
-            return (T) values.iterator().next();
-        } else if (values.isEmpty()) {
+        final int index = indexOfOnly(key);
+        if (index >= 0) {
+            return (T) this.parsedArgs.values[index];
+        } else if (index == -1) {
             throw new NoSuchElementException();
         }
 
@@ -180,7 +199,16 @@ public <T> T requireOne(Text key)
      */
     public void putArg(String key, Object value) {
         checkNotNull(value, "value");
-        this.parsedArgs.put(key, value);
+        Store store = this.parsedArgs;
+        if (this.size == store.keys.length || (this.size < store.written && store.shared)) {
+            // never overwrite entries a snapshot may still see
+            store = store.copy(this.size, this.size == store.keys.length ? this.size * 2 : store.keys.length);
+            this.parsedArgs = store;
+        } else if (this.size < store.written) {
+            store.truncate(this.size);
+        }
+        store.add(key, value);
+        this.size++;
     }
 
     /**
@@ -214,7 +242,7 @@ public void checkPermission(CommandSource commander, String permission) throws C
      * @return whether there are any values present
      */
     public boolean hasAny(String key) {
-        return this.parsedArgs.containsKey(key);
+        return this.parsedArgs.last(key, this.size) >= 0;
     }
 
     /**
@@ -227,6 +255,20 @@ public boolean hasAny(Text key) {
         return hasAny(ArgUtils.textToArgKey(key));
     }
 
+    /**
+     * Gets the index of the only value for the given key.
+     *
+     * @param key The key
+     * @return The index, -1 if there is no value, or -2 if there are multiple
+     */
+    private int indexOfOnly(String key) {
+        final int last = this.parsedArgs.last(key, this.size);
+        if (last >= 0 && this.parsedArgs.previous[last] >= 0) {
+            return -2;
+        }
+        return last;
+    }
+
     /**
      * Gets a snapshot of the data inside this context to allow it to be
      * restored later.
@@ -240,7 +282,8 @@ public boolean hasAny(Text key) {
      *      {@link CommandContext}
      */
     public Snapshot createSnapshot() {
-        return new Snapshot(this.parsedArgs);
+        this.parsedArgs.shared = true;
+        return new Snapshot(this.parsedArgs, this.size);
     }
 
     /**
@@ -250,8 +293,8 @@ public Snapshot createSnapshot() {
      * @param snapshot The {@link Snapshot} to restore this context with
      */
     public void applySnapshot(Snapshot snapshot) {
-        this.parsedArgs.clear();
-        this.parsedArgs.putAll(snapshot.args);
+        this.parsedArgs = snapshot.args;
+        this.size = snapshot.size;
     }
 
     /**
@@ -260,10 +303,96 @@ public void applySnapshot(Snapshot snapshot) {
      */
     public final class Snapshot {
 
-        final Multimap<String, Object> args;
+        final Store args;
+        final int size;
+
+        Snapshot(Store args, int size) {
+            this.args = args;
+            this.size = size;
+        }
+
+    }
+
+    /**
+     * The backing arrays of the parsed arguments. Entries below
+     * {@link #written} are never overwritten once a snapshot shares the
+     * store, so restoring a snapshot is an index reset.
+     *
+     * <p>The entries of each key are chained from the last one written, so
+     * looking up a key only visits its own entries.</p>
+     */
+    private static final class Store {
+
+        final String[] keys;
+        final Object[] values;
+        // The index of the previous entry with the same key, or -1
+        final int[] previous;
+        // The index of the last entry written for each key
+        final Map<String, Integer> lastIndices = new HashMap<>();
+        int written;
+        boolean shared;
+
+        Store(int capacity) {
+            this.keys = new String[capacity];
+            this.values = new Object[capacity];
+            this.previous = new int[capacity];
+        }
+
+        /**
+         * Gets the index of the last entry for the given key below the given
+         * size.
+         *
+         * @param key The key
+         * @param size The number of visible entries
+         * @return The index, or -1 if there is no such entry
+         */
+        int last(String key, int size) {
+            final Integer last = this.lastIndices.get(key);
+            int index = last == null ? -1 : last;
+            while (index >= size) {
+                index = this.previous[index];
+            }
+            return index;
+        }
+
+        void add(String key, Object value) {
+            final int index = this.written++;
+            final Integer previous = this.lastIndices.put(key, index);
+            this.keys[index] = key;
+            this.values[index] = value;
+            this.previous[index] = previous == null ? -1 : previous;
+        }
+
+        /**
+         * Removes all entries starting at the given size, which is only
+         * allowed if no snapshot shares this store.
+         *
+         * @param size The number of entries to keep
+         */
+        void truncate(int size) {
+            for (int i = this.written - 1; i >= size; i--) {
+                // unlink the entry, which is the last one of its key
+                if (this.previous[i] < 0) {
+                    this.lastIndices.remove(this.keys[i]);
+                } else {
+                    this.lastIndices.put(this.keys[i], this.previous[i]);
+                }
+                this.keys[i] = null;
+                this.values[i] = null;
+            }
+            this.written = size;
+        }
 
-        Snapshot(Multimap<String, Object> args) {
-            this.args = ArrayListMultimap.create(args);
+        Store copy(int size, int capacity) {
+            final Store copy = new Store(capacity);
+            System.arraycopy(this.keys, 0, copy.keys, 0, size);
+            System.arraycopy(this.values, 0, copy.values, 0, size);
+            System.arraycopy(this.previous, 0, copy.previous, 0, size);
+            for (int i = 0; i < size; i++) {
+                copy.lastIndices.put(copy.keys[i], i);
+            }
+            copy.written = size;
+            return copy;
         }
 
     }
@@ -0,0 +1,375 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.command.args;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.game.GameRegistryEvent;
+import org.spongepowered.api.event.network.ClientConnectionEvent;
+import org.spongepowered.api.event.world.ConstructWorldPropertiesEvent;
+import org.spongepowered.api.event.world.LoadWorldEvent;
+import org.spongepowered.api.event.world.UnloadWorldEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A shared index of the tab completion choices of the {@link GenericArguments}
+ * elements for users, players, worlds, plugins, catalog types and enums.
+ *
+ * <p>The choices of every source are kept sorted by their lower case form in
+ * {@link Locale#ROOT},
+ * so completing a prefix is a binary search followed by at most
+ * {@link #MAX_COMPLETIONS} results, however many choices there are. Choices
+ * are rebuilt on first use after the listeners of this index invalidated
+ * them, and after {@link #MAX_AGE_SECONDS} at the latest. Joining and
+ * leaving players are added to and removed from the indexed choices instead,
+ * and leaving players are left out of rebuilt choices while they are still
+ * reported as online.
+ * The listeners are registered by the implementation.</p>
+ *
+ * <p>Every source has a generation, which is incremented whenever its
+ * choices change. Choices built while the generation of their source changed
+ * are used for that completion, but never published to the index.</p>
+ */
+public final class CompletionIndex {
+
+    /**
+     * The maximum number of completions returned for a prefix.
+     */
+    public static final int MAX_COMPLETIONS = 256;
+
+    /**
+     * The maximum time in seconds choices are cached for, even if no event
+     * invalidated them.
+     */
+    public static final long MAX_AGE_SECONDS = 30;
+
+    static final Object USERS = "users";
+    static final Object PLAYERS = "players";
+    static final Object WORLDS = "worlds";
+    static final Object PLUGINS = "plugins";
+
+    private static final CompletionIndex INSTANCE = new CompletionIndex();
+    private static final long MAX_AGE = TimeUnit.SECONDS.toNanos(MAX_AGE_SECONDS);
+
+    /**
+     * Gets the shared completion index.
+     *
+     * @return The completion index
+     */
+    public static CompletionIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private final ConcurrentMap<Object, Choices> sources = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Players which disconnected, but may still be reported as online
+    private final Set<String> leaving = ConcurrentHashMap.newKeySet();
+
+    CompletionIndex() {
+    }
+
+    /**
+     * Gets the choices of a source starting with the given prefix, ignoring
+     * case.
+     *
+     * @param source The key of the source
+     * @param choices Supplies the choices if they are not indexed yet
+     * @param prefix The prefix
+     * @return The matching choices, in case-insensitive order
+     */
+    List<String> complete(Object source, Supplier<? extends Iterable<String>> choices, String prefix) {
+        final long now = System.nanoTime();
+        Choices indexed = this.sources.get(source);
+        if (indexed == null || now - indexed.created > MAX_AGE) {
+            final AtomicLong generation = generation(source);
+            final long expected = generation.get();
+            final Iterable<String> supplied = choices.get();
+            final Choices built = new Choices(source == PLAYERS ? withoutLeaving(supplied) : supplied, now);
+            // an invalidation increments the generation before it changes the
+            // choices, so this never overwrites newer choices
+            this.sources.compute(source, (key, current) -> generation.get() == expected ? built : current);
+            indexed = built;
+        }
+        return indexed.startingWith(prefix);
+    }
+
+    private List<String> withoutLeaving(Iterable<String> players) {
+        final Set<String> left = new HashSet<>(this.leaving);
+        final List<String> online = new ArrayList<>();
+        for (String player : players) {
+            if (!this.leaving.contains(player)) {
+                online.add(player);
+            }
+            left.remove(player);
+        }
+        // players which are no longer reported as online have left
+        this.leaving.removeAll(left);
+        return online;
+    }
+
+    private AtomicLong generation(Object source) {
+        return this.generations.computeIfAbsent(source, key -> new AtomicLong());
+    }
+
+    private void invalidate(Object source) {
+        generation(source).incrementAndGet();
+        this.sources.remove(source);
+    }
+
+    private void update(Object source, UnaryOperator<Choices> update) {
+        generation(source).incrementAndGet();
+        this.sources.computeIfPresent(source, (key, choices) -> update.apply(choices));
+    }
+
+    /**
+     * Invalidates all indexed choices.
+     */
+    public void invalidateAll() {
+        for (AtomicLong generation : this.generations.values()) {
+            generation.incrementAndGet();
+        }
+        this.sources.clear();
+    }
+
+    /**
+     * Adds a joining player to the online players and users.
+     *
+     * @param event The event
+     */
+    @Listener(order = Order.POST)
+    public void onJoin(ClientConnectionEvent.Join event) {
+        final String name = event.getTargetEntity().getName();
+        this.leaving.remove(name);
+        update(PLAYERS, choices -> choices.with(name));
+        // the first join of a player creates a user
+        update(USERS, choices -> choices.with(name));
+    }
+
+    /**
+     * Removes a leaving player from the online players.
+     *
+     * @param event The event
+     */
+    @Listener(order = Order.POST)
+    public void onDisconnect(ClientConnectionEvent.Disconnect event) {
+        // the player is still online while the event is handled, so the name
+        // is also excluded from rebuilds until it is no longer reported online
+        final String name = event.getTargetEntity().getName();
+        this.leaving.add(name);
+        update(PLAYERS, choices -> choices.without(name));
+    }
+
+    /**
+     * Invalidates the worlds when new world properties are created.
+     *
+     * @param event The event
+     */
+    @Listener(order = Order.POST)
+    public void onConstructWorldProperties(ConstructWorldPropertiesEvent event) {
+        invalidate(WORLDS);
+    }
+
+    /**
+     * Invalidates the worlds when a world is loaded.
+     *
+     * @param event The event
+     */
+    @Listener(order = Order.POST)
+    public void onLoadWorld(LoadWorldEvent event) {
+        invalidate(WORLDS);
+    }
+
+    /**
+     * Invalidates the worlds when a world is unloaded.
+     *
+     * @param event The event
+     */
+    @Listener(order = Order.POST)
+    public void onUnloadWorld(UnloadWorldEvent event) {
+        invalidate(WORLDS);
+    }
+
+    /**
+     * Invalidates the catalog types of a registry when types are
+     * registered to it.
+     *
+     * @param event The event
+     */
+    @Listener(order = Order.POST)
+    public void onRegister(GameRegistryEvent.Register<?> event) {
+        invalidate(event.getCatalogType());
+    }
+
+    /**
+     * Immutable choices, sorted by their lower case form.
+     */
+    static final class Choices {
+
+        private final String[] choices;
+        private final String[] folded;
+        final long created;
+
+        private Choices(String[] choices, String[] folded, long created) {
+            this.choices = choices;
+            this.folded = folded;
+            this.created = created;
+        }
+
+        Choices(Iterable<String> choices) {
+            this(choices, System.nanoTime());
+        }
+
+        Choices(Iterable<String> choices, long created) {
+            final List<String> sorted = new ArrayList<>();
+            for (String choice : choices) {
+                if (choice != null) {
+                    sorted.add(choice);
+                }
+            }
+            sorted.sort(Comparator.comparing((String choice) -> choice.toLowerCase(Locale.ROOT)));
+            this.choices = sorted.toArray(new String[sorted.size()]);
+            this.folded = new String[this.choices.length];
+            for (int i = 0; i < this.folded.length; i++) {
+                this.folded[i] = this.choices[i].toLowerCase(Locale.ROOT);
+            }
+            this.created = created;
+        }
+
+        /**
+         * Gets the index of the first choice whose lower case form is not
+         * less than the given one.
+         *
+         * @param folded The lower case form
+         * @return The index
+         */
+        private int first(String folded) {
+            int index = Arrays.binarySearch(this.folded, folded);
+            if (index < 0) {
+                return -index - 1;
+            }
+            // equal choices may precede the one found
+            while (index > 0 && this.folded[index - 1].equals(folded)) {
+                index--;
+            }
+            return index;
+        }
+
+        /**
+         * Gets the index of the given choice.
+         *
+         * @param choice The choice
+         * @param folded The lower case form of the choice
+         * @return The index, or -1 if the choice is not contained
+         */
+        private int indexOf(String choice, String folded) {
+            for (int i = first(folded); i < this.folded.length && this.folded[i].equals(folded); i++) {
+                if (this.choices[i].equals(choice)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Gets these choices with the given choice added, unless it is
+         * already contained.
+         *
+         * @param choice The choice to add
+         * @return The choices
+         */
+        Choices with(String choice) {
+            final String folded = checkNotNull(choice, "choice").toLowerCase(Locale.ROOT);
+            if (indexOf(choice, folded) >= 0) {
+                return this;
+            }
+            final int index = first(folded);
+            return new Choices(insert(this.choices, index, choice), insert(this.folded, index, folded), this.created);
+        }
+
+        /**
+         * Gets these choices without the given choice.
+         *
+         * @param choice The choice to remove
+         * @return The choices
+         */
+        Choices without(String choice) {
+            final int index = indexOf(checkNotNull(choice, "choice"), choice.toLowerCase(Locale.ROOT));
+            if (index < 0) {
+                return this;
+            }
+            return new Choices(remove(this.choices, index), remove(this.folded, index), this.created);
+        }
+
+        private static String[] insert(String[] array, int index, String element) {
+            final String[] result = new String[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = element;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+
+        private static String[] remove(String[] array, int index) {
+            final String[] result = new String[array.length - 1];
+            System.arraycopy(array, 0, result, 0, index);
+            System.arraycopy(array, index + 1, result, index, result.length - index);
+            return result;
+        }
+
+        /**
+         * Gets the choices starting with the given prefix, ignoring case.
+         *
+         * @param prefix The prefix
+         * @return The matching choices, at most {@link #MAX_COMPLETIONS}
+         */
+        List<String> startingWith(String prefix) {
+            final String folded = checkNotNull(prefix, "prefix").toLowerCase(Locale.ROOT);
+            final int index = first(folded);
+            final ImmutableList.Builder<String> builder = ImmutableList.builder();
+            final int end = Math.min(this.folded.length, index + MAX_COMPLETIONS);
+            for (int i = index; i < end && this.folded[i].startsWith(folded); i++) {
+                builder.add(this.choices[i]);
+            }
+            return builder.build();
+        }
+
+    }
+
+}
@@ -360,6 +360,12 @@ protected PluginCommandElement(@Nullable Text key) {
             super(key);
         }
 
+        @Nullable
+        @Override
+        Object getCompletionSource() {
+            return CompletionIndex.PLUGINS;
+        }
+
         @Override
         protected Iterable<String> getChoices(CommandSource source) {
             return Sponge.getPluginManager().getPlugins().stream().map(PluginContainer::getId).collect(Collectors.toList());
@@ -578,10 +584,12 @@ public static CommandElement choices(Text key, Map<String, ?> choices, boolean c
         if (!caseSensitive) {
             Map<String, Object> immChoices = choices.entrySet().stream()
                     .collect(ImmutableMap.toImmutableMap(x -> x.getKey().toLowerCase(), Map.Entry::getValue));
-            return choices(key, immChoices::keySet, selection -> immChoices.get(selection.toLowerCase()), choicesInUsage);
+            return new ChoicesCommandElement(key, immChoices::keySet, selection -> immChoices.get(selection.toLowerCase()),
+                    choicesInUsage ? Tristate.TRUE : Tristate.FALSE, new CompletionIndex.Choices(immChoices.keySet()));
         }
         Map<String, Object> immChoices = ImmutableMap.copyOf(choices);
-        return choices(key, immChoices::keySet, immChoices::get, choicesInUsage);
+        return new ChoicesCommandElement(key, immChoices::keySet, immChoices::get, choicesInUsage ? Tristate.TRUE : Tristate.FALSE,
+                new CompletionIndex.Choices(immChoices.keySet()));
     }
 
     /**
@@ -603,7 +611,7 @@ public static CommandElement choices(Text key, Map<String, ?> choices, boolean c
      * @return the element to match the input
      */
     public static CommandElement choices(Text key, Supplier<Collection<String>> keys, Function<String, ?> values) {
-        return new ChoicesCommandElement(key, keys, values, Tristate.UNDEFINED);
+        return new ChoicesCommandElement(key, keys, values, Tristate.UNDEFINED, null);
     }
 
     /**
@@ -622,7 +630,7 @@ public static CommandElement choices(Text key, Supplier<Collection<String>> keys
      * @return the element to match the input
      */
     public static CommandElement choices(Text key, Supplier<Collection<String>> keys, Function<String, ?> values, boolean choicesInUsage) {
-        return new ChoicesCommandElement(key, keys, values, choicesInUsage ? Tristate.TRUE : Tristate.FALSE);
+        return new ChoicesCommandElement(key, keys, values, choicesInUsage ? Tristate.TRUE : Tristate.FALSE, null);
     }
 
     private static class ChoicesCommandElement extends CommandElement {
@@ -630,12 +638,16 @@ private static class ChoicesCommandElement extends CommandElement {
         private final Supplier<Collection<String>> keySupplier;
         private final Function<String, ?> valueSupplier;
         private final Tristate choicesInUsage;
+        // only present if the keys never change
+        @Nullable private final CompletionIndex.Choices completions;
 
-        ChoicesCommandElement(Text key, Supplier<Collection<String>> keySupplier, Function<String, ?> valueSupplier, Tristate choicesInUsage) {
+        ChoicesCommandElement(Text key, Supplier<Collection<String>> keySupplier, Function<String, ?> valueSupplier, Tristate choicesInUsage,
+                @Nullable CompletionIndex.Choices completions) {
             super(key);
             this.keySupplier = keySupplier;
             this.valueSupplier = valueSupplier;
             this.choicesInUsage = choicesInUsage;
+            this.completions = completions;
         }
 
         @Override
@@ -650,6 +662,9 @@ public Object parseValue(CommandSource source, CommandArgs args) throws Argument
         @Override
         public List<String> complete(CommandSource src, CommandArgs args, CommandContext context) {
             final String prefix = args.nextIfPresent().orElse("");
+            if (this.completions != null) {
+                return this.completions.startingWith(prefix);
+            }
             return this.keySupplier.get().stream().filter(new StartsWithPredicate(prefix)).collect(ImmutableList.toImmutableList());
         }
 
@@ -1167,6 +1182,12 @@ public static <T extends Enum<T>> CommandElement enumValue(Text key, Class<T> ty
                 ));
         }
 
+        @Nullable
+        @Override
+        Object getCompletionSource() {
+            return this.type;
+        }
+
         @Override
         protected Iterable<String> getChoices(CommandSource source) {
             return this.values.keySet();
@@ -1348,6 +1369,12 @@ protected Object parseValue(CommandSource source, CommandArgs args) throws Argum
             }
         }
 
+        @Nullable
+        @Override
+        Object getCompletionSource() {
+            return CompletionIndex.USERS;
+        }
+
         @Override
         protected Iterable<String> getChoices(CommandSource source) {
             return Sponge.getGame().getServiceManager().provideUnchecked(UserStorageService.class).getAll().stream()
@@ -1432,6 +1459,12 @@ protected Object parseValue(CommandSource source, CommandArgs args) throws Argum
             }
         }
 
+        @Nullable
+        @Override
+        Object getCompletionSource() {
+            return CompletionIndex.PLAYERS;
+        }
+
         @Override
         protected Iterable<String> getChoices(CommandSource source) {
             return Sponge.getGame().getServer().getOnlinePlayers().stream()
@@ -1516,16 +1549,13 @@ public Object parseValue(CommandSource source, CommandArgs args) throws Argument
             return super.parseValue(source, args);
         }
 
+        @Nullable
         @Override
-        public List<String> complete(CommandSource src, CommandArgs args, CommandContext context) {
-            Iterable<String> choices = getCompletionChoices(src);
-            final Optional<String> nextArg = args.nextIfPresent();
-            if (nextArg.isPresent()) {
-                choices = Iterables.filter(choices, input -> getFormattedPattern(nextArg.get()).matcher(input).find());
-            }
-            return ImmutableList.copyOf(choices);
+        Object getCompletionSource() {
+            return CompletionIndex.WORLDS;
         }
 
+        @Override
         protected Iterable<String> getCompletionChoices(CommandSource source) {
             return Iterables.concat(getChoices(source), ImmutableSet.of("#first", "#me"),
                     Iterables.transform(Sponge.getGame().getRegistry()
@@ -1733,6 +1763,12 @@ protected CatalogedTypeCommandElement(Text key, Class<T> catalogType) {
             this.catalogType = catalogType;
         }
 
+        @Nullable
+        @Override
+        Object getCompletionSource() {
+            return this.catalogType;
+        }
+
         @Override
         protected Iterable<String> getChoices(CommandSource source) {
             return Sponge.getGame().getRegistry().getAllOf(this.catalogType).stream()
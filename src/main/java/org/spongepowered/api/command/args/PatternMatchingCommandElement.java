@@ -43,6 +43,7 @@
  */
 public abstract class PatternMatchingCommandElement extends CommandElement {
     private static final Text nullKeyArg = t("argument");
+    private static final Pattern REGEX_CHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
 
     protected PatternMatchingCommandElement(@Nullable Text key) {
         super(key);
@@ -74,14 +75,43 @@ protected Object parseValue(CommandSource source, CommandArgs args) throws Argum
 
     @Override
     public List<String> complete(CommandSource src, CommandArgs args, CommandContext context) {
-        Iterable<String> choices = getChoices(src);
         final Optional<String> nextArg = args.nextIfPresent();
+        final Object completionSource = getCompletionSource();
+        if (completionSource != null && (!nextArg.isPresent() || !REGEX_CHARACTERS.matcher(nextArg.get()).find())) {
+            // A plain prefix, look it up in the shared index
+            return CompletionIndex.getInstance().complete(completionSource, () -> getCompletionChoices(src), nextArg.orElse(""));
+        }
+        Iterable<String> choices = getCompletionChoices(src);
         if (nextArg.isPresent()) {
-            choices = Iterables.filter(choices, input -> getFormattedPattern(nextArg.get()).matcher(input).find());
+            final Pattern pattern = getFormattedPattern(nextArg.get());
+            choices = Iterables.filter(choices, input -> pattern.matcher(input).find());
         }
         return ImmutableList.copyOf(choices);
     }
 
+    /**
+     * Gets the key under which the {@link CompletionIndex} shares the
+     * completion choices of this element. Only elements whose choices are the
+     * same for every {@link CommandSource} may have one.
+     *
+     * @return The key, or {@code null} to not use the index
+     */
+    @Nullable
+    Object getCompletionSource() {
+        return null;
+    }
+
+    /**
+     * Gets the choices to complete from, by default the
+     * {@link #getChoices(CommandSource) choices} of this element.
+     *
+     * @param source The source requesting choices
+     * @return The possible completions
+     */
+    Iterable<String> getCompletionChoices(CommandSource source) {
+        return getChoices(source);
+    }
+
     Pattern getFormattedPattern(String input) {
         if (!input.startsWith("^")) { // Anchor matches to the beginning -- this lets us use find()
             input = "^" + input;
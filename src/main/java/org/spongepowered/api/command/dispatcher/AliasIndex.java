@@ -0,0 +1,357 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.command.dispatcher;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import org.spongepowered.api.command.CommandMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable radix trie from case-folded aliases to the
+ * {@link CommandMapping}s registered for them.
+ *
+ * <p>Modifications return a new index that shares all untouched nodes with
+ * this one, so a dispatcher can publish it through a volatile field and read
+ * it without locking. Prefix enumeration only visits the nodes below the
+ * prefix, which are at most twice as many as the matching aliases.</p>
+ */
+final class AliasIndex {
+
+    static final AliasIndex EMPTY = new AliasIndex(Node.ROOT, 0);
+
+    private final Node root;
+    private final int size;
+
+    private AliasIndex(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Folds the case of an alias the way it is stored in the index.
+     *
+     * @param alias The alias
+     * @return The folded alias
+     */
+    static String fold(String alias) {
+        return alias.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the number of alias to mapping entries.
+     *
+     * @return The number of entries
+     */
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    List<CommandMapping> get(String alias) {
+        final String key = fold(alias);
+        Node node = this.root;
+        int offset = 0;
+        while (offset < key.length()) {
+            node = node.child(key.charAt(offset));
+            if (node == null || !key.startsWith(node.label, offset)) {
+                return ImmutableList.of();
+            }
+            offset += node.label.length();
+        }
+        return node.mappings;
+    }
+
+    boolean containsKey(String alias) {
+        return !get(alias).isEmpty();
+    }
+
+    AliasIndex put(String alias, CommandMapping mapping) {
+        return new AliasIndex(insert(this.root, fold(alias), 0, mapping), this.size + 1);
+    }
+
+    AliasIndex remove(String alias) {
+        final String key = fold(alias);
+        final int removed = get(key).size();
+        if (removed == 0) {
+            return this;
+        }
+        return new AliasIndex(delete(this.root, key, 0, true), this.size - removed);
+    }
+
+    /**
+     * Returns an index containing only the mappings accepted by the given
+     * predicate, or this index if all mappings are accepted.
+     *
+     * @param filter The predicate for mappings to keep
+     * @return The filtered index
+     */
+    AliasIndex filter(Predicate<? super CommandMapping> filter) {
+        final int[] size = new int[1];
+        final Node root = retain(this.root, filter, true, size);
+        return root == this.root ? this : new AliasIndex(root, size[0]);
+    }
+
+    /**
+     * Gets all mappings in alias order. A mapping registered for several
+     * aliases is contained once for each of them.
+     *
+     * @return The mappings
+     */
+    List<CommandMapping> values() {
+        final List<CommandMapping> values = new ArrayList<>(this.size);
+        collectValues(this.root, values);
+        return values;
+    }
+
+    /**
+     * Gets all aliases starting with the given prefix, in alias order, for
+     * which the registered mappings are accepted by the given predicate.
+     *
+     * @param prefix The prefix, case is ignored
+     * @param filter The predicate the mappings of an alias must match
+     * @return The matching aliases
+     */
+    List<String> keysWithPrefix(String prefix, Predicate<? super List<CommandMapping>> filter) {
+        final String key = fold(prefix);
+        Node node = this.root;
+        int offset = 0;
+        while (offset < key.length()) {
+            node = node.child(key.charAt(offset));
+            if (node == null) {
+                return ImmutableList.of();
+            }
+            final int remaining = key.length() - offset;
+            if (remaining <= node.label.length()) {
+                if (!node.label.startsWith(key.substring(offset))) {
+                    return ImmutableList.of();
+                }
+            } else if (!key.startsWith(node.label, offset)) {
+                return ImmutableList.of();
+            }
+            offset += node.label.length();
+        }
+        final List<String> keys = new ArrayList<>();
+        collectKeys(node, new StringBuilder(key.substring(0, offset - node.label.length())), filter, keys);
+        return keys;
+    }
+
+    ImmutableListMultimap<String, CommandMapping> toMultimap() {
+        final ImmutableListMultimap.Builder<String, CommandMapping> builder = ImmutableListMultimap.builder();
+        collectEntries(this.root, new StringBuilder(), builder);
+        return builder.build();
+    }
+
+    private static Node insert(Node node, String key, int offset, CommandMapping mapping) {
+        if (offset == key.length()) {
+            return node.withMappings(ImmutableList.<CommandMapping>builder().addAll(node.mappings).add(mapping).build());
+        }
+        final int index = node.indexOf(key.charAt(offset));
+        if (index < 0) {
+            return node.withChild(-index - 1, new Node(key.substring(offset), Node.NO_CHILDREN, ImmutableList.of(mapping)), true);
+        }
+        final Node child = node.children[index];
+        final int common = commonPrefix(child.label, key, offset);
+        if (common == child.label.length()) {
+            return node.withChild(index, insert(child, key, offset + common, mapping), false);
+        }
+        // split the edge of the child at the end of the common prefix
+        final Node tail = new Node(child.label.substring(common), child.children, child.mappings);
+        Node split = new Node(child.label.substring(0, common), new Node[] {tail}, ImmutableList.of());
+        split = insert(split, key, offset + common, mapping);
+        return node.withChild(index, split, false);
+    }
+
+    @Nullable
+    private static Node delete(Node node, String key, int offset, boolean root) {
+        if (offset == key.length()) {
+            return compact(node.withMappings(ImmutableList.of()), root);
+        }
+        final int index = node.indexOf(key.charAt(offset));
+        final Node child = node.children[index];
+        final Node removed = delete(child, key, offset + child.label.length(), false);
+        return compact(removed == null ? node.withoutChild(index) : node.withChild(index, removed, false), root);
+    }
+
+    @Nullable
+    private static Node retain(Node node, Predicate<? super CommandMapping> filter, boolean root, int[] size) {
+        boolean changed = false;
+        ImmutableList<CommandMapping> mappings = node.mappings;
+        if (!mappings.isEmpty()) {
+            final ImmutableList.Builder<CommandMapping> builder = ImmutableList.builder();
+            int kept = 0;
+            for (CommandMapping mapping : mappings) {
+                if (filter.test(mapping)) {
+                    builder.add(mapping);
+                    kept++;
+                }
+            }
+            if (kept != mappings.size()) {
+                mappings = builder.build();
+                changed = true;
+            }
+            size[0] += kept;
+        }
+        final List<Node> children = new ArrayList<>(node.children.length);
+        for (Node child : node.children) {
+            final Node filtered = retain(child, filter, false, size);
+            changed |= filtered != child;
+            if (filtered != null) {
+                children.add(filtered);
+            }
+        }
+        if (!changed) {
+            return node;
+        }
+        return compact(new Node(node.label, children.toArray(new Node[children.size()]), mappings), root);
+    }
+
+    @Nullable
+    private static Node compact(Node node, boolean root) {
+        if (root || !node.mappings.isEmpty() || node.children.length > 1) {
+            return node;
+        }
+        if (node.children.length == 0) {
+            return null;
+        }
+        // merge a node without mappings into its only child
+        final Node child = node.children[0];
+        return new Node(node.label + child.label, child.children, child.mappings);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        final int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void collectValues(Node node, List<CommandMapping> values) {
+        values.addAll(node.mappings);
+        for (Node child : node.children) {
+            collectValues(child, values);
+        }
+    }
+
+    private static void collectKeys(Node node, StringBuilder path, Predicate<? super List<CommandMapping>> filter, List<String> keys) {
+        final int length = path.length();
+        path.append(node.label);
+        if (!node.mappings.isEmpty() && filter.test(node.mappings)) {
+            keys.add(path.toString());
+        }
+        for (Node child : node.children) {
+            collectKeys(child, path, filter, keys);
+        }
+        path.setLength(length);
+    }
+
+    private static void collectEntries(Node node, StringBuilder path, ImmutableListMultimap.Builder<String, CommandMapping> builder) {
+        final int length = path.length();
+        path.append(node.label);
+        if (!node.mappings.isEmpty()) {
+            builder.putAll(path.toString(), node.mappings);
+        }
+        for (Node child : node.children) {
+            collectEntries(child, path, builder);
+        }
+        path.setLength(length);
+    }
+
+    private static final class Node {
+
+        static final Node[] NO_CHILDREN = new Node[0];
+        static final Node ROOT = new Node("", NO_CHILDREN, ImmutableList.of());
+
+        final String label;
+        final Node[] children; // sorted by the first char of their label
+        final ImmutableList<CommandMapping> mappings;
+
+        Node(String label, Node[] children, ImmutableList<CommandMapping> mappings) {
+            this.label = label;
+            this.children = children;
+            this.mappings = mappings;
+        }
+
+        int indexOf(char first) {
+            int low = 0;
+            int high = this.children.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char c = this.children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        @Nullable
+        Node child(char first) {
+            final int index = indexOf(first);
+            return index < 0 ? null : this.children[index];
+        }
+
+        Node withMappings(ImmutableList<CommandMapping> mappings) {
+            return new Node(this.label, this.children, mappings);
+        }
+
+        Node withChild(int index, Node child, boolean insert) {
+            final Node[] children;
+            if (insert) {
+                children = new Node[this.children.length + 1];
+                System.arraycopy(this.children, 0, children, 0, index);
+                System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+            } else {
+                children = this.children.clone();
+            }
+            children[index] = child;
+            return new Node(this.label, children, this.mappings);
+        }
+
+        Node withoutChild(int index) {
+            final Node[] children = new Node[this.children.length - 1];
+            System.arraycopy(this.children, 0, children, 0, index);
+            System.arraycopy(this.children, index + 1, children, index, children.length - index);
+            return new Node(this.label, children, this.mappings);
+        }
+
+    }
+
+}
@@ -28,13 +28,9 @@
 import static org.spongepowered.api.command.CommandMessageFormatting.SPACE_TEXT;
 import static org.spongepowered.api.util.SpongeApiTranslationHelper.t;
 
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.CommandCallable;
 import org.spongepowered.api.command.CommandException;
@@ -83,7 +79,8 @@ public final class SimpleDispatcher implements Dispatcher {
     };
 
     private final Disambiguator disambiguatorFunc;
-    private final ListMultimap<String, CommandMapping> commands = ArrayListMultimap.create();
+    // Replaced on every modification, so reads never need to lock
+    private volatile AliasIndex commands = AliasIndex.EMPTY;
 
     /**
      * Creates a basic new dispatcher.
@@ -179,9 +176,11 @@ public synchronized Optional<CommandMapping> register(CommandCallable callable,
         List<String> secondary = aliases.subList(1, aliases.size());
         CommandMapping mapping = new ImmutableCommandMapping(callable, primary, secondary);
 
+        AliasIndex commands = this.commands;
         for (String alias : aliases) {
-            this.commands.put(alias.toLowerCase(), mapping);
+            commands = commands.put(alias, mapping);
         }
+        this.commands = commands;
 
         return Optional.of(mapping);
     }
@@ -193,7 +192,10 @@ public synchronized Optional<CommandMapping> register(CommandCallable callable,
      * @return The previous mapping associated with the alias, if one was found
      */
     public synchronized Collection<CommandMapping> remove(String alias) {
-        return this.commands.removeAll(alias.toLowerCase());
+        final AliasIndex commands = this.commands;
+        final List<CommandMapping> removed = commands.get(alias);
+        this.commands = commands.remove(alias);
+        return removed;
     }
 
     /**
@@ -205,15 +207,14 @@ public synchronized Collection<CommandMapping> remove(String alias) {
     public synchronized boolean removeAll(Collection<?> aliases) {
         checkNotNull(aliases, "aliases");
 
-        boolean found = false;
-
+        final AliasIndex original = this.commands;
+        AliasIndex commands = original;
         for (Object alias : aliases) {
-            if (!this.commands.removeAll(alias.toString().toLowerCase()).isEmpty()) {
-                found = true;
-            }
+            commands = commands.remove(alias.toString());
         }
+        this.commands = commands;
 
-        return found;
+        return commands != original;
     }
 
     /**
@@ -225,18 +226,13 @@ public synchronized boolean removeAll(Collection<?> aliases) {
     public synchronized Optional<CommandMapping> removeMapping(CommandMapping mapping) {
         checkNotNull(mapping, "mapping");
 
-        CommandMapping found = null;
-
-        Iterator<CommandMapping> it = this.commands.values().iterator();
-        while (it.hasNext()) {
-            CommandMapping current = it.next();
-            if (current.equals(mapping)) {
-                it.remove();
-                found = current;
-            }
+        final AliasIndex commands = this.commands;
+        final Optional<CommandMapping> found = commands.values().stream().filter(mapping::equals).findFirst();
+        if (found.isPresent()) {
+            this.commands = commands.filter(current -> !current.equals(mapping));
         }
 
-        return Optional.ofNullable(found);
+        return found;
     }
 
     /**
@@ -248,26 +244,19 @@ public synchronized Optional<CommandMapping> removeMapping(CommandMapping mappin
     public synchronized boolean removeMappings(Collection<?> mappings) {
         checkNotNull(mappings, "mappings");
 
-        boolean found = false;
+        final AliasIndex commands = this.commands;
+        this.commands = commands.filter(current -> !mappings.contains(current));
 
-        Iterator<CommandMapping> it = this.commands.values().iterator();
-        while (it.hasNext()) {
-            if (mappings.contains(it.next())) {
-                it.remove();
-                found = true;
-            }
-        }
-
-        return found;
+        return this.commands != commands;
     }
 
     @Override
-    public synchronized Set<CommandMapping> getCommands() {
+    public Set<CommandMapping> getCommands() {
         return ImmutableSet.copyOf(this.commands.values());
     }
 
     @Override
-    public synchronized Set<String> getPrimaryAliases() {
+    public Set<String> getPrimaryAliases() {
         Set<String> aliases = new HashSet<>();
 
         for (CommandMapping mapping : this.commands.values()) {
@@ -278,7 +267,7 @@ public synchronized Set<String> getPrimaryAliases() {
     }
 
     @Override
-    public synchronized Set<String> getAliases() {
+    public Set<String> getAliases() {
         Set<String> aliases = new HashSet<>();
 
         for (CommandMapping mapping : this.commands.values()) {
@@ -294,8 +283,8 @@ public Optional<CommandMapping> get(String alias) {
     }
 
     @Override
-    public synchronized Optional<CommandMapping> get(String alias, @Nullable CommandSource source) {
-        List<CommandMapping> results = this.commands.get(alias.toLowerCase());
+    public Optional<CommandMapping> get(String alias, @Nullable CommandSource source) {
+        List<CommandMapping> results = this.commands.get(alias);
         if (results.size() == 1) {
             return Optional.of(results.get(0));
         } else if (results.size() == 0) {
@@ -306,8 +295,8 @@ public synchronized Optional<CommandMapping> get(String alias, @Nullable Command
     }
 
     @Override
-    public synchronized boolean containsAlias(String alias) {
-        return this.commands.containsKey(alias.toLowerCase());
+    public boolean containsAlias(String alias) {
+        return this.commands.containsKey(alias);
     }
 
     @Override
@@ -401,15 +390,20 @@ public Optional<Text> getHelp(CommandSource source) {
         return Optional.of(build.build());
     }
 
-    private Set<String> filterCommands(final CommandSource src) {
-        return Multimaps.filterValues(this.commands, input -> input.getCallable().testPermission(src)).keys().elementSet();
+    private List<String> filterCommands(final CommandSource src) {
+        return filterCommands(src, "");
     }
 
     // Filter out commands by String first
-    private Set<String> filterCommands(final CommandSource src, String start) {
-        ListMultimap<String, CommandMapping> map = Multimaps.filterKeys(this.commands,
-            input -> input != null && input.toLowerCase().startsWith(start.toLowerCase()));
-        return Multimaps.filterValues(map, input -> input.getCallable().testPermission(src)).keys().elementSet();
+    private List<String> filterCommands(final CommandSource src, String start) {
+        return this.commands.keysWithPrefix(start, mappings -> {
+            for (CommandMapping mapping : mappings) {
+                if (mapping.getCallable().testPermission(src)) {
+                    return true;
+                }
+            }
+            return false;
+        });
     }
 
     /**
@@ -417,7 +411,7 @@ private Set<String> filterCommands(final CommandSource src, String start) {
      *
      * @return The number of aliases
      */
-    public synchronized int size() {
+    public int size() {
         return this.commands.size();
     }
 
@@ -444,12 +438,12 @@ public Text getUsage(final CommandSource source) {
     }
 
     @Override
-    public synchronized Set<CommandMapping> getAll(String alias) {
+    public Set<CommandMapping> getAll(String alias) {
         return ImmutableSet.copyOf(this.commands.get(alias));
     }
 
     @Override
     public Multimap<String, CommandMapping> getAll() {
-        return ImmutableMultimap.copyOf(this.commands);
+        return this.commands.toMultimap();
     }
 }
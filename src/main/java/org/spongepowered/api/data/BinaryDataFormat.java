@@ -0,0 +1,684 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import org.spongepowered.api.data.persistence.DataFormat;
+import org.spongepowered.api.data.persistence.InvalidDataException;
+import org.spongepowered.api.data.persistence.InvalidDataFormatException;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A {@link DataFormat} which reads and writes data in the binary NBT layout.
+ *
+ * <p>Data is written as it is traversed, without building an intermediate
+ * tree. Reading from a {@link ByteBuffer}, such as a {@link MappedByteBuffer}
+ * of a region file, does not copy or parse the buffer up front. Instead the
+ * returned {@link FlatDataContainer} reads a level of the data the first
+ * time it is accessed, while arrays and lists are only read from the buffer
+ * when they are requested. Strings and arrays are prefixed with their
+ * length, so reading a level steps over them in constant time. The layout
+ * stores no length for compounds and lists though, so stepping over those
+ * walks the tags of their entries, without decoding the values, and costs
+ * time proportional to the size of their contents.</p>
+ *
+ * <p>Data can also be read and written as a stream of events, through
+ * {@link #readFrom(InputStream, DataViewVisitor)} and
+ * {@link #createWriter(OutputStream)}. Piping one into the other, through a
+ * visitor which changes the data on the way, transforms data of any size in
+ * constant memory.</p>
+ *
+ * <p>The supported values are {@link DataView}s and {@link Map}s,
+ * {@link Boolean}s (which are read back as {@link Byte}s), {@link Byte}s,
+ * {@link Short}s, {@link Integer}s, {@link Long}s, {@link Float}s,
+ * {@link Double}s, {@link String}s, {@code byte[]}, {@code int[]} and
+ * {@code long[]} arrays, and lists or other arrays of values of a single
+ * type.</p>
+ */
+public final class BinaryDataFormat implements DataFormat {
+
+    /**
+     * The instance of the binary format.
+     */
+    public static final BinaryDataFormat INSTANCE = new BinaryDataFormat();
+
+    private static final byte TAG_END = 0;
+    private static final byte TAG_BYTE = 1;
+    private static final byte TAG_SHORT = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_BYTE_ARRAY = 7;
+    private static final byte TAG_STRING = 8;
+    private static final byte TAG_LIST = 9;
+    private static final byte TAG_COMPOUND = 10;
+    private static final byte TAG_INT_ARRAY = 11;
+    private static final byte TAG_LONG_ARRAY = 12;
+
+    private BinaryDataFormat() {
+    }
+
+    @Override
+    public String getId() {
+        return "sponge:binary";
+    }
+
+    @Override
+    public String getName() {
+        return "Binary";
+    }
+
+    @Override
+    public FlatDataContainer readFrom(InputStream input) throws InvalidDataFormatException, IOException {
+        return readFrom(ByteBuffer.wrap(ByteStreams.toByteArray(checkNotNull(input, "input"))));
+    }
+
+    @Override
+    public void readFrom(InputStream input, DataViewVisitor visitor) throws InvalidDataFormatException, IOException {
+        checkNotNull(input, "input");
+        checkNotNull(visitor, "visitor");
+        final DataInputStream in = new DataInputStream(input);
+        if (in.readByte() != TAG_COMPOUND) {
+            throw new InvalidDataFormatException("The data does not start with a compound");
+        }
+        visitor.startView(in.readUTF());
+        visitCompound(in, visitor);
+    }
+
+    /**
+     * Creates a new {@link DataContainer} which lazily reads the remaining
+     * contents of the given {@link ByteBuffer}.
+     *
+     * <p>The buffer is not copied, its contents must not be changed for as
+     * long as the container or any view of it is in use. The position of the
+     * buffer is not changed.</p>
+     *
+     * @param buffer The buffer to read from
+     * @return A data container representing the contents of the buffer
+     * @throws InvalidDataFormatException If the buffer does not start with
+     *     data in the binary format
+     */
+    public FlatDataContainer readFrom(ByteBuffer buffer) throws InvalidDataFormatException {
+        // The slice is big endian and starts at the current position
+        final ByteBuffer source = checkNotNull(buffer, "buffer").slice();
+        if (source.remaining() < 3 || source.get(0) != TAG_COMPOUND) {
+            throw new InvalidDataFormatException("The data does not start with a compound");
+        }
+        final int offset = 3 + (source.getShort(1) & 0xFFFF);
+        return new FlatDataContainer(DataView.SafetyMode.ALL_DATA_CLONED, new FlatDataView.Compound(source, offset));
+    }
+
+    @Override
+    public void writeTo(OutputStream output, DataView data) throws IOException {
+        checkNotNull(output, "output");
+        checkNotNull(data, "data");
+        final DataOutputStream out = new DataOutputStream(output);
+        out.writeByte(TAG_COMPOUND);
+        out.writeUTF("");
+        writeCompound(out, data);
+        out.flush();
+    }
+
+    /**
+     * Creates a {@link DataViewVisitor} which writes the view it is given to
+     * the given {@link OutputStream} as it is visited.
+     *
+     * <p>The output is flushed once the view ends. An {@link IOException}
+     * which occurs while writing is rethrown as an
+     * {@link UncheckedIOException}.</p>
+     *
+     * @param output The output stream to write the data to
+     * @return The visitor
+     */
+    public DataViewVisitor createWriter(OutputStream output) {
+        final DataOutputStream out = new DataOutputStream(checkNotNull(output, "output"));
+        return new DataViewVisitor() {
+
+            private int depth;
+
+            @Override
+            public void startView(String name) {
+                try {
+                    writeHeader(out, TAG_COMPOUND, name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                this.depth++;
+            }
+
+            @Override
+            public void value(String key, Object value) {
+                checkState(this.depth > 0, "No view was started");
+                try {
+                    writeEntry(out, key, tagOf(value), value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void endView() {
+                checkState(this.depth > 0, "No view was started");
+                try {
+                    out.writeByte(TAG_END);
+                    if (--this.depth == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static void visitCompound(DataInput in, DataViewVisitor visitor) throws IOException {
+        byte tag;
+        while ((tag = in.readByte()) != TAG_END) {
+            final String key = in.readUTF();
+            if (tag == TAG_COMPOUND) {
+                visitor.startView(key);
+                visitCompound(in, visitor);
+            } else {
+                visitor.value(key, readStreamedValue(in, tag));
+            }
+        }
+        visitor.endView();
+    }
+
+    private static Object readStreamedValue(DataInput in, byte tag) throws IOException {
+        switch (tag) {
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_INT:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BYTE_ARRAY: {
+                final byte[] array = new byte[readStreamedLength(in)];
+                in.readFully(array);
+                return array;
+            }
+            case TAG_STRING:
+                return in.readUTF();
+            case TAG_LIST: {
+                final byte elementTag = in.readByte();
+                final int length = readStreamedLength(in);
+                final ImmutableList.Builder<Object> builder = ImmutableList.builder();
+                for (int i = 0; i < length; i++) {
+                    builder.add(readStreamedValue(in, elementTag));
+                }
+                return builder.build();
+            }
+            case TAG_COMPOUND: {
+                final ContainerBuilder builder = new ContainerBuilder();
+                builder.startView("");
+                visitCompound(in, builder);
+                return builder.container;
+            }
+            case TAG_INT_ARRAY: {
+                final int[] array = new int[readStreamedLength(in)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = in.readInt();
+                }
+                return array;
+            }
+            case TAG_LONG_ARRAY: {
+                final long[] array = new long[readStreamedLength(in)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = in.readLong();
+                }
+                return array;
+            }
+            default:
+                throw new InvalidDataException("Unknown tag type " + tag);
+        }
+    }
+
+    private static int readStreamedLength(DataInput in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new InvalidDataException("Negative length " + length);
+        }
+        return length;
+    }
+
+    static void readCompound(FlatDataView.Compound compound, ByteBuffer source, int offset) {
+        try {
+            int position = offset;
+            byte tag;
+            while ((tag = source.get(position++)) != TAG_END) {
+                final int length = source.getShort(position) & 0xFFFF;
+                final String key = readString(source, position + 2, length);
+                position += 2 + length;
+                switch (tag) {
+                    case TAG_INT:
+                        compound.putPrimitive(key, FlatDataView.Compound.INT, source.getInt(position));
+                        break;
+                    case TAG_LONG:
+                        compound.putPrimitive(key, FlatDataView.Compound.LONG, source.getLong(position));
+                        break;
+                    case TAG_DOUBLE:
+                        compound.putPrimitive(key, FlatDataView.Compound.DOUBLE, source.getLong(position));
+                        break;
+                    case TAG_BYTE:
+                    case TAG_SHORT:
+                    case TAG_FLOAT:
+                    case TAG_STRING:
+                        compound.putObject(key, FlatDataView.Compound.OBJECT, readValue(source, tag, position));
+                        break;
+                    case TAG_COMPOUND:
+                        compound.putObject(key, FlatDataView.Compound.COMPOUND, new FlatDataView.Compound(source, position));
+                        break;
+                    default:
+                        compound.putLazy(key, source, (long) tag << 32 | position);
+                }
+                position = skip(source, tag, position);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new InvalidDataException("The data ended unexpectedly", e);
+        }
+    }
+
+    static Object readLazy(ByteBuffer source, long tagAndOffset) {
+        try {
+            return readValue(source, (byte) (tagAndOffset >>> 32), (int) tagAndOffset);
+        } catch (IndexOutOfBoundsException e) {
+            throw new InvalidDataException("The data ended unexpectedly", e);
+        }
+    }
+
+    private static Object readValue(ByteBuffer source, byte tag, int position) {
+        switch (tag) {
+            case TAG_BYTE:
+                return source.get(position);
+            case TAG_SHORT:
+                return source.getShort(position);
+            case TAG_INT:
+                return source.getInt(position);
+            case TAG_LONG:
+                return source.getLong(position);
+            case TAG_FLOAT:
+                return source.getFloat(position);
+            case TAG_DOUBLE:
+                return source.getDouble(position);
+            case TAG_BYTE_ARRAY: {
+                final byte[] array = new byte[readLength(source, position)];
+                at(source, position + 4).get(array);
+                return array;
+            }
+            case TAG_STRING:
+                return readString(source, position + 2, source.getShort(position) & 0xFFFF);
+            case TAG_LIST: {
+                final byte elementTag = source.get(position);
+                final int length = readLength(source, position + 1);
+                final ImmutableList.Builder<Object> builder = ImmutableList.builder();
+                int elementPosition = position + 5;
+                for (int i = 0; i < length; i++) {
+                    builder.add(readValue(source, elementTag, elementPosition));
+                    elementPosition = skip(source, elementTag, elementPosition);
+                }
+                return builder.build();
+            }
+            case TAG_COMPOUND:
+                return new FlatDataContainer(DataView.SafetyMode.ALL_DATA_CLONED, new FlatDataView.Compound(source, position));
+            case TAG_INT_ARRAY: {
+                final int[] array = new int[readLength(source, position)];
+                at(source, position + 4).asIntBuffer().get(array);
+                return array;
+            }
+            case TAG_LONG_ARRAY: {
+                final long[] array = new long[readLength(source, position)];
+                at(source, position + 4).asLongBuffer().get(array);
+                return array;
+            }
+            default:
+                throw new InvalidDataException("Unknown tag type " + tag + " at " + position);
+        }
+    }
+
+    // Compounds and lists carry no byte length in the layout, so they are
+    // skipped by walking their entries
+    private static int skip(ByteBuffer source, byte tag, int position) {
+        switch (tag) {
+            case TAG_BYTE:
+                return position + 1;
+            case TAG_SHORT:
+                return position + 2;
+            case TAG_INT:
+            case TAG_FLOAT:
+                return position + 4;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return position + 8;
+            case TAG_BYTE_ARRAY:
+                return position + 4 + readLength(source, position);
+            case TAG_STRING:
+                return position + 2 + (source.getShort(position) & 0xFFFF);
+            case TAG_LIST: {
+                final byte elementTag = source.get(position);
+                final int length = readLength(source, position + 1);
+                int next = position + 5;
+                for (int i = 0; i < length; i++) {
+                    next = skip(source, elementTag, next);
+                }
+                return next;
+            }
+            case TAG_COMPOUND: {
+                int next = position;
+                byte entryTag;
+                while ((entryTag = source.get(next++)) != TAG_END) {
+                    next = skip(source, entryTag, next + 2 + (source.getShort(next) & 0xFFFF));
+                }
+                return next;
+            }
+            case TAG_INT_ARRAY:
+                return position + 4 + 4 * readLength(source, position);
+            case TAG_LONG_ARRAY:
+                return position + 4 + 8 * readLength(source, position);
+            default:
+                throw new InvalidDataException("Unknown tag type " + tag + " at " + position);
+        }
+    }
+
+    private static int readLength(ByteBuffer source, int position) {
+        final int length = source.getInt(position);
+        if (length < 0) {
+            throw new InvalidDataException("Negative length " + length + " at " + position);
+        }
+        return length;
+    }
+
+    private static ByteBuffer at(ByteBuffer source, int position) {
+        final ByteBuffer buffer = source.duplicate();
+        buffer.position(position);
+        return buffer;
+    }
+
+    private static String readString(ByteBuffer source, int position, int length) {
+        // Strings are stored in the modified UTF-8 of DataOutput#writeUTF
+        final char[] chars = new char[length];
+        final int end = position + length;
+        int count = 0;
+        int index = position;
+        while (index < end) {
+            final int first = source.get(index++) & 0xFF;
+            if (first < 0x80) {
+                chars[count++] = (char) first;
+            } else if ((first & 0xE0) == 0xC0) {
+                chars[count++] = (char) ((first & 0x1F) << 6 | source.get(index++) & 0x3F);
+            } else if ((first & 0xF0) == 0xE0) {
+                chars[count++] = (char) ((first & 0x0F) << 12 | (source.get(index++) & 0x3F) << 6 | source.get(index++) & 0x3F);
+            } else {
+                throw new InvalidDataException("Malformed string at " + position);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private static void writeCompound(DataOutputStream out, DataView view) throws IOException {
+        if (view instanceof FlatDataView) {
+            writeCompound(out, ((FlatDataView) view).compound());
+            return;
+        }
+        for (DataQuery key : view.getKeys(false)) {
+            final Object value = view.get(key).get();
+            writeEntry(out, key.asString('.'), tagOf(value), value);
+        }
+        out.writeByte(TAG_END);
+    }
+
+    private static void writeCompound(DataOutputStream out, FlatDataView.Compound compound) throws IOException {
+        // Levels and values which were read lazily and never loaded are
+        // copied over from their source as they are
+        final ByteBuffer source = compound.source;
+        if (source != null) {
+            writeRaw(out, source, compound.offset, skip(source, TAG_COMPOUND, compound.offset));
+            return;
+        }
+        for (int i = 0; i < compound.size; i++) {
+            final String key = compound.keys[i];
+            switch (compound.types[i]) {
+                case FlatDataView.Compound.INT:
+                    writeHeader(out, TAG_INT, key);
+                    out.writeInt((int) compound.primitives[i]);
+                    break;
+                case FlatDataView.Compound.LONG:
+                    writeHeader(out, TAG_LONG, key);
+                    out.writeLong(compound.primitives[i]);
+                    break;
+                case FlatDataView.Compound.DOUBLE:
+                    writeHeader(out, TAG_DOUBLE, key);
+                    out.writeLong(compound.primitives[i]);
+                    break;
+                case FlatDataView.Compound.COMPOUND:
+                    writeHeader(out, TAG_COMPOUND, key);
+                    writeCompound(out, (FlatDataView.Compound) compound.objects[i]);
+                    break;
+                case FlatDataView.Compound.LAZY: {
+                    final ByteBuffer lazySource = (ByteBuffer) compound.objects[i];
+                    final byte tag = (byte) (compound.primitives[i] >>> 32);
+                    final int position = (int) compound.primitives[i];
+                    writeHeader(out, tag, key);
+                    writeRaw(out, lazySource, position, skip(lazySource, tag, position));
+                    break;
+                }
+                default: {
+                    final Object value = compound.objects[i];
+                    writeEntry(out, key, tagOf(value), value);
+                }
+            }
+        }
+        out.writeByte(TAG_END);
+    }
+
+    private static void writeRaw(DataOutputStream out, ByteBuffer source, int from, int to) throws IOException {
+        if (source.hasArray()) {
+            out.write(source.array(), source.arrayOffset() + from, to - from);
+            return;
+        }
+        final ByteBuffer buffer = at(source, from);
+        final byte[] chunk = new byte[Math.min(8192, to - from)];
+        for (int remaining = to - from; remaining > 0; remaining -= chunk.length) {
+            final int length = Math.min(chunk.length, remaining);
+            buffer.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, byte tag, String key) throws IOException {
+        out.writeByte(tag);
+        out.writeUTF(key);
+    }
+
+    private static void writeEntry(DataOutputStream out, String key, byte tag, Object value) throws IOException {
+        writeHeader(out, tag, key);
+        writeValue(out, tag, value);
+    }
+
+    private static void writeValue(DataOutputStream out, byte tag, Object value) throws IOException {
+        switch (tag) {
+            case TAG_BYTE:
+                out.writeByte(value instanceof Boolean ? ((Boolean) value ? 1 : 0) : (Byte) value);
+                break;
+            case TAG_SHORT:
+                out.writeShort((Short) value);
+                break;
+            case TAG_INT:
+                out.writeInt((Integer) value);
+                break;
+            case TAG_LONG:
+                out.writeLong((Long) value);
+                break;
+            case TAG_FLOAT:
+                out.writeFloat((Float) value);
+                break;
+            case TAG_DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+            case TAG_BYTE_ARRAY:
+                out.writeInt(((byte[]) value).length);
+                out.write((byte[]) value);
+                break;
+            case TAG_STRING:
+                out.writeUTF(value.toString());
+                break;
+            case TAG_LIST:
+                writeList(out, value instanceof Collection ? (Collection<?>) value : asList(value));
+                break;
+            case TAG_COMPOUND:
+                if (value instanceof DataView) {
+                    writeCompound(out, (DataView) value);
+                } else {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        writeEntry(out, entry.getKey().toString(), tagOf(entry.getValue()), entry.getValue());
+                    }
+                    out.writeByte(TAG_END);
+                }
+                break;
+            case TAG_INT_ARRAY:
+                out.writeInt(((int[]) value).length);
+                for (int element : (int[]) value) {
+                    out.writeInt(element);
+                }
+                break;
+            case TAG_LONG_ARRAY:
+                out.writeInt(((long[]) value).length);
+                for (long element : (long[]) value) {
+                    out.writeLong(element);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown tag type " + tag);
+        }
+    }
+
+    private static void writeList(DataOutputStream out, Collection<?> list) throws IOException {
+        final Iterator<?> iterator = list.iterator();
+        final byte elementTag = iterator.hasNext() ? tagOf(iterator.next()) : TAG_END;
+        out.writeByte(elementTag);
+        out.writeInt(list.size());
+        for (Object element : list) {
+            final byte tag = tagOf(element);
+            if (tag != elementTag) {
+                throw new InvalidDataException("The elements of a list must all be of the same type: " + list);
+            }
+            writeValue(out, tag, element);
+        }
+    }
+
+    private static Collection<?> asList(Object array) {
+        if (array instanceof Object[]) {
+            return Arrays.asList((Object[]) array);
+        }
+        final Object[] elements = new Object[Array.getLength(array)];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = Array.get(array, i);
+        }
+        return Arrays.asList(elements);
+    }
+
+    private static byte tagOf(Object value) {
+        checkNotNull(value, "value");
+        if (value instanceof DataView || value instanceof Map) {
+            return TAG_COMPOUND;
+        } else if (value instanceof Byte || value instanceof Boolean) {
+            return TAG_BYTE;
+        } else if (value instanceof Short) {
+            return TAG_SHORT;
+        } else if (value instanceof Integer) {
+            return TAG_INT;
+        } else if (value instanceof Long) {
+            return TAG_LONG;
+        } else if (value instanceof Float) {
+            return TAG_FLOAT;
+        } else if (value instanceof Double) {
+            return TAG_DOUBLE;
+        } else if (value instanceof String || value instanceof Character) {
+            return TAG_STRING;
+        } else if (value instanceof byte[]) {
+            return TAG_BYTE_ARRAY;
+        } else if (value instanceof int[]) {
+            return TAG_INT_ARRAY;
+        } else if (value instanceof long[]) {
+            return TAG_LONG_ARRAY;
+        } else if (value instanceof Collection || value.getClass().isArray()) {
+            return TAG_LIST;
+        }
+        throw new InvalidDataException("Values of type " + value.getClass().getName() + " cannot be written in the binary format");
+    }
+
+    /**
+     * Builds the views which are part of lists while reading from a stream.
+     */
+    private static final class ContainerBuilder implements DataViewVisitor {
+
+        final FlatDataContainer container = new FlatDataContainer();
+        private final Deque<DataView> views = new ArrayDeque<>();
+
+        @Override
+        public void startView(String name) {
+            this.views.push(this.views.isEmpty() ? this.container : this.views.peek().createView(DataQuery.of(name)));
+        }
+
+        @Override
+        public void value(String key, Object value) {
+            this.views.peek().set(DataQuery.of(key), value);
+        }
+
+        @Override
+        public void endView() {
+            this.views.pop();
+        }
+
+    }
+
+}
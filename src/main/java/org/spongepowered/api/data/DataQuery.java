@@ -24,58 +24,48 @@
  */
 package org.spongepowered.api.data;
 
+import static com.google.common.base.Preconditions.checkElementIndex;
+
 import com.google.common.base.Joiner;
-import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents a query that can be done on views. Queries do not depend on
  * their separator, it is just a way to construct them.
+ *
+ * <p>The parts of a query are held in a segment array, which is shared with
+ * the queries derived from it by {@link #pop()} and {@link #popFirst()}, as
+ * these only narrow the range of the array they view. Together with the
+ * cached hash code and the {@link #getPart(int)} accessor, this allows paths
+ * to be walked without allocating.</p>
  */
 public final class DataQuery {
 
-    private static final DataQuery EMPTY = new DataQuery();
+    private static final String[] NO_PARTS = new String[0];
+    private static final DataQuery EMPTY = new DataQuery(NO_PARTS, 0, 0);
 
     /**
-     * The parts that make up this query.
+     * The segments holding the parts that make up this query, this query
+     * views the range starting at {@link #offset} of {@link #size} parts.
      */
-    private final ImmutableList<String> parts;
+    private final String[] segments;
+    private final int offset;
+    private final int size;
 
-    private ImmutableList<DataQuery> queryParts; //lazy loaded
+    private int hash; // lazy loaded
+    @Nullable private ImmutableList<String> parts; // lazy loaded
+    @Nullable private ImmutableList<DataQuery> queryParts; //lazy loaded
 
-    /**
-     * Constructs a query using the given separator character and path.
-     *
-     * <p>As an example, {@code new DataQuery('/', "a/b/c")} and
-     * {@code new DataQuery('.', "a.b.c")} represent the same path but are
-     * constructed using different separators.</p>
-     *
-     * @param separator The separator
-     * @param path The path
-     */
-    private DataQuery(char separator, String path) {
-        this(path.split(Pattern.quote(String.valueOf(separator))));
-    }
-
-    /**
-     * Constructs a query using the given parts.
-     *
-     * @param parts The parts
-     */
-    private DataQuery(String... parts) {
-        this.parts = ImmutableList.copyOf(parts);
-    }
-
-    /**
-     * Constructs a query using the given parts.
-     *
-     * @param parts The parts
-     */
-    private DataQuery(List<String> parts) {
-        this.parts = ImmutableList.copyOf(parts);
+    private DataQuery(String[] segments, int offset, int size) {
+        this.segments = segments;
+        this.offset = offset;
+        this.size = size;
     }
 
     /**
@@ -101,7 +91,7 @@ public static DataQuery of() {
      * @return The newly constructed {@link DataQuery}
      */
     public static DataQuery of(char separator, String path) {
-        return new DataQuery(separator, path);
+        return of(path.split(Pattern.quote(String.valueOf(separator))));
     }
 
     /**
@@ -114,7 +104,11 @@ public static DataQuery of(String... parts) {
         if (parts.length == 0) {
             return DataQuery.EMPTY;
         }
-        return new DataQuery(parts);
+        final String[] segments = parts.clone();
+        for (String part : segments) {
+            checkPart(part);
+        }
+        return new DataQuery(segments, 0, segments.length);
     }
 
     /**
@@ -127,7 +121,13 @@ public static DataQuery of(List<String> parts) {
         if (parts.isEmpty()) {
             return DataQuery.EMPTY;
         }
-        return new DataQuery(parts);
+        return of(parts.toArray(new String[parts.size()]));
+    }
+
+    private static void checkPart(@Nullable String part) {
+        if (part == null) {
+            throw new NullPointerException("Query parts cannot be null!");
+        }
     }
 
     /**
@@ -136,9 +136,35 @@ public static DataQuery of(List<String> parts) {
      * @return The parts of this query
      */
     public List<String> getParts() {
+        if (this.parts == null) {
+            this.parts = ImmutableList.copyOf(Arrays.asList(this.segments).subList(this.offset, this.offset + this.size));
+        }
         return this.parts;
     }
 
+    /**
+     * Gets the number of parts that make up this query.
+     *
+     * @return The number of parts
+     */
+    public int getPartCount() {
+        return this.size;
+    }
+
+    /**
+     * Gets the part of this query at the given index, without creating the
+     * list of {@link #getParts()}.
+     *
+     * @param index The index of the part
+     * @return The part
+     * @throws IndexOutOfBoundsException If the index is not within the parts
+     *     of this query
+     */
+    public String getPart(int index) {
+        checkElementIndex(index, this.size);
+        return this.segments[this.offset + index];
+    }
+
     /**
      * Returns a new query that is made up of this query's parts followed by the
      * given query's parts.
@@ -147,13 +173,16 @@ public List<String> getParts() {
      * @return The constructed query
      */
     public DataQuery then(DataQuery that) {
-        ImmutableList.Builder<String> builder =
-            new ImmutableList.Builder<>();
-
-        builder.addAll(this.parts);
-        builder.addAll(that.parts);
-
-        return new DataQuery(builder.build());
+        if (that.size == 0) {
+            return this;
+        }
+        if (this.size == 0) {
+            return that;
+        }
+        final String[] segments = new String[this.size + that.size];
+        System.arraycopy(this.segments, this.offset, segments, 0, this.size);
+        System.arraycopy(that.segments, that.offset, segments, this.size, that.size);
+        return new DataQuery(segments, 0, segments.length);
     }
 
     /**
@@ -164,13 +193,11 @@ public DataQuery then(DataQuery that) {
      * @return The constructed query
      */
     public DataQuery then(String that) {
-        ImmutableList.Builder<String> builder =
-            new ImmutableList.Builder<>();
-
-        builder.addAll(this.parts);
-        builder.add(that);
-
-        return new DataQuery(builder.build());
+        checkPart(that);
+        final String[] segments = new String[this.size + 1];
+        System.arraycopy(this.segments, this.offset, segments, 0, this.size);
+        segments[this.size] = that;
+        return new DataQuery(segments, 0, segments.length);
     }
 
     /**
@@ -182,8 +209,8 @@ public DataQuery then(String that) {
     public List<DataQuery> getQueryParts() {
         if (this.queryParts == null) {
             ImmutableList.Builder<DataQuery> builder = ImmutableList.builder();
-            for (String part : getParts()) {
-                builder.add(new DataQuery(part));
+            for (int i = 0; i < this.size; i++) {
+                builder.add(new DataQuery(this.segments, this.offset + i, 1));
             }
             this.queryParts = builder.build();
         }
@@ -198,14 +225,10 @@ public List<DataQuery> getQueryParts() {
      * @return The next level query
      */
     public DataQuery pop() {
-        if (this.parts.size() <= 1) {
+        if (this.size <= 1) {
             return of();
         }
-        ImmutableList.Builder<String> builder = ImmutableList.builder();
-        for (int i = 0; i < this.parts.size() - 1; i++) {
-            builder.add(this.parts.get(i));
-        }
-        return new DataQuery(builder.build());
+        return new DataQuery(this.segments, this.offset, this.size - 1);
     }
 
     /**
@@ -216,14 +239,10 @@ public DataQuery pop() {
      * @return The next level query
      */
     public DataQuery popFirst() {
-        if (this.parts.size() <= 1) {
+        if (this.size <= 1) {
             return of();
         }
-        ImmutableList.Builder<String> builder = ImmutableList.builder();
-        for (int i = 1; i < this.parts.size(); i++) {
-            builder.add(this.parts.get(i));
-        }
-        return new DataQuery(builder.build());
+        return new DataQuery(this.segments, this.offset + 1, this.size - 1);
     }
 
     /**
@@ -233,10 +252,10 @@ public DataQuery popFirst() {
      * @return The last entry as a data query, if not already last
      */
     public DataQuery last() {
-        if (this.parts.size() <= 1) {
+        if (this.size <= 1) {
             return this;
         }
-        return new DataQuery(this.parts.get(this.parts.size() - 1));
+        return new DataQuery(this.segments, this.offset + this.size - 1, 1);
     }
 
     /**
@@ -246,7 +265,7 @@ public DataQuery last() {
      * @return This query as a string
      */
     public String asString(String separator) {
-        return Joiner.on(separator).join(this.parts);
+        return Joiner.on(separator).join(getParts());
     }
 
     /**
@@ -266,11 +285,20 @@ public String toString() {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(this.parts);
+        int hash = this.hash;
+        if (hash == 0) {
+            // Same as the hash code of the list of parts
+            hash = 1;
+            for (int i = this.offset; i < this.offset + this.size; i++) {
+                hash = 31 * hash + this.segments[i].hashCode();
+            }
+            this.hash = hash;
+        }
+        return hash;
     }
 
     @Override
-    public boolean equals(Object obj) {
+    public boolean equals(@Nullable Object obj) {
         if (this == obj) {
             return true;
         }
@@ -278,6 +306,14 @@ public boolean equals(Object obj) {
             return false;
         }
         final DataQuery other = (DataQuery) obj;
-        return Objects.equal(this.parts, other.parts);
+        if (this.size != other.size || this.hash != 0 && other.hash != 0 && this.hash != other.hash) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if (!this.segments[this.offset + i].equals(other.segments[other.offset + i])) {
+                return false;
+            }
+        }
+        return true;
     }
 }
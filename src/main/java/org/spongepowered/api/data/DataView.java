@@ -624,6 +624,29 @@ default boolean contains(Key<?> key, Key<?>... keys) {
      */
     DataContainer copy(SafetyMode safety);
 
+    /**
+     * Reports the contents of this {@link DataView} to the given
+     * {@link DataViewVisitor}, in the order of {@link #getKeys(boolean)}.
+     *
+     * <p>Unlike {@link #getValues(boolean)}, this does not build a copy of
+     * the contents. The view must not be modified while it is visited.</p>
+     *
+     * @param visitor The visitor
+     */
+    default void accept(DataViewVisitor visitor) {
+        checkNotNull(visitor, "visitor");
+        visitor.startView(getName());
+        for (DataQuery key : getKeys(false)) {
+            final Object value = get(key).get();
+            if (value instanceof DataView) {
+                ((DataView) value).accept(visitor);
+            } else {
+                visitor.value(key.asString('.'), value);
+            }
+        }
+        visitor.endView();
+    }
+
     /**
      * Gets if this view contains no data.
      *
@@ -0,0 +1,70 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import org.spongepowered.api.data.persistence.DataFormat;
+
+import java.io.InputStream;
+
+/**
+ * Receives the contents of a {@link DataView} as a sequence of events,
+ * without the whole view having to be built or held in memory.
+ *
+ * <p>A view is reported by a call to {@link #startView(String)}, followed by
+ * its values and nested views in order and a matching call to
+ * {@link #endView()}. The first event is always the start of the view being
+ * visited.</p>
+ *
+ * @see DataView#accept(DataViewVisitor)
+ * @see DataFormat#readFrom(InputStream, DataViewVisitor)
+ */
+public interface DataViewVisitor {
+
+    /**
+     * Called when a view starts.
+     *
+     * @param name The name of the view, empty for the top level view of
+     *     a {@link DataContainer}
+     */
+    void startView(String name);
+
+    /**
+     * Called for each value of the current view.
+     *
+     * <p>The value is never a {@link DataView} or a {@link java.util.Map},
+     * these are reported as nested views instead. Lists may contain
+     * {@link DataView}s however.</p>
+     *
+     * @param key The key of the value within the current view
+     * @param value The value
+     */
+    void value(String key, Object value);
+
+    /**
+     * Called when the current view ends.
+     */
+    void endView();
+
+}
@@ -0,0 +1,1205 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.lang3.ArrayUtils;
+import org.spongepowered.api.CatalogType;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.persistence.DataTranslator;
+import org.spongepowered.api.data.value.BaseValue;
+import org.spongepowered.api.util.Coerce;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link DataView} which stores its data in flat arrays rather than maps.
+ *
+ * <p>Every level of the view keeps its keys in a compact array, next to
+ * a parallel array of values. {@code int}, {@code long} and {@code double}
+ * values are stored unboxed and {@code byte[]} values are stored in a slot of
+ * their own. Nested views are not materialized until they are requested,
+ * the data of a nested view is held by its parent level instead. This makes
+ * the view cheap to build and to traverse for the small, deeply nested
+ * shapes which are typical for serialized entities and chunks.</p>
+ *
+ * <p>Primitive values can be read and written without boxing through
+ * {@link #getInt(DataQuery, int)}, {@link #setInt(DataQuery, int)} and their
+ * {@code long} and {@code double} counterparts.</p>
+ *
+ * <p>Copies are copy-on-write. {@link #copy()} shares the levels of this
+ * view with the copy instead of cloning them, and a level is only cloned
+ * once either side first writes to it. Arrays are shared in the same way,
+ * with the {@link org.spongepowered.api.data.DataView.SafetyMode} deciding
+ * whether a shared array is cloned before it is handed out. Taking a copy
+ * of a large view, such as to save it asynchronously, is therefore cheap,
+ * the cost is paid by the first writes to the original afterwards.</p>
+ *
+ * @see FlatDataContainer
+ */
+public class FlatDataView implements DataView {
+
+    private final DataContainer container;
+    @Nullable private final FlatDataView parent;
+    private final String name;
+    private final DataView.SafetyMode safety;
+    private final Tree tree;
+    private Compound compound;
+    private int stamp;
+    @Nullable private DataQuery path; // lazy loaded
+
+    FlatDataView(DataView.SafetyMode safety, Compound compound) {
+        checkArgument(this instanceof DataContainer, "Cannot construct a root FlatDataView without a container!");
+        this.container = (DataContainer) this;
+        this.parent = null;
+        this.name = "";
+        this.path = of();
+        this.safety = checkNotNull(safety, "Safety mode");
+        this.tree = new Tree();
+        this.compound = compound;
+    }
+
+    private FlatDataView(FlatDataView parent, String name, Compound compound) {
+        this.container = parent.container;
+        this.parent = parent;
+        this.name = name;
+        this.safety = parent.safety;
+        this.tree = parent.tree;
+        this.compound = compound;
+        this.stamp = this.tree.stamp;
+    }
+
+    @Override
+    public DataContainer getContainer() {
+        return this.container;
+    }
+
+    @Override
+    public DataQuery getCurrentPath() {
+        if (this.path == null) {
+            checkNotNull(this.parent, "parent");
+            this.path = this.parent.getCurrentPath().then(this.name);
+        }
+        return this.path;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Optional<DataView> getParent() {
+        return Optional.ofNullable(this.parent);
+    }
+
+    @Override
+    public Set<DataQuery> getKeys(boolean deep) {
+        final ImmutableSet.Builder<DataQuery> builder = ImmutableSet.builder();
+        final Compound compound = compound();
+        for (int i = 0; i < compound.size; i++) {
+            builder.add(of(compound.keys[i]));
+        }
+        if (deep) {
+            for (int i = 0; i < compound.size; i++) {
+                if (compound.types[i] == Compound.COMPOUND) {
+                    final DataQuery key = of(compound.keys[i]);
+                    for (DataQuery query : childView(i).getKeys(true)) {
+                        builder.add(key.then(query));
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Map<DataQuery, Object> getValues(boolean deep) {
+        final ImmutableMap.Builder<DataQuery, Object> builder = ImmutableMap.builder();
+        for (DataQuery query : getKeys(deep)) {
+            final Object value = get(query).get();
+            if (value instanceof DataView) {
+                builder.put(query, ((DataView) value).getValues(deep));
+            } else {
+                builder.put(query, value);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean contains(DataQuery path) {
+        checkNotNull(path, "path");
+        final int last = path.getPartCount() - 1;
+        final Compound compound = last == -1 ? null : findCompound(path, last);
+        return compound != null && compound.indexOf(path.getPart(last)) != -1;
+    }
+
+    @Override
+    public boolean contains(DataQuery path, DataQuery... paths) {
+        checkNotNull(path, "DataQuery cannot be null!");
+        checkNotNull(paths, "DataQuery varargs cannot be null!");
+        if (!contains(path)) {
+            return false;
+        }
+        for (DataQuery query : paths) {
+            if (!contains(checkNotNull(query, "No null queries!"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<Object> get(DataQuery path) {
+        checkNotNull(path, "path");
+        final int last = path.getPartCount() - 1;
+        if (last == -1) {
+            return Optional.of(this);
+        }
+        final Compound compound = findCompound(path, last);
+        final int index = compound == null ? -1 : compound.indexOf(path.getPart(last));
+        if (index == -1) {
+            return Optional.empty();
+        }
+        if (compound.types[index] == Compound.COMPOUND) {
+            // Only materialize the views along the path once one is requested
+            FlatDataView view = this;
+            for (int i = 0; i < last; i++) {
+                view = view.childView(view.compound().indexOf(path.getPart(i)));
+            }
+            return Optional.of(view.childView(index));
+        }
+        return Optional.of(safeValue(compound, index));
+    }
+
+    private Object safeValue(Compound compound, int index) {
+        final Object value = compound.getBoxed(index);
+        // Lazily read values are decoded into a new object on every read
+        if (compound.types[index] != Compound.LAZY && value.getClass().isArray() && (this.safety == SafetyMode.ALL_DATA_CLONED
+                || this.safety == SafetyMode.CLONED_ON_SET && compound.mayShareArrays(this.tree))) {
+            // Arrays which may be shared with a copy are never handed out
+            // unless the safety mode explicitly allows it
+            return cloneArray(value);
+        }
+        return value;
+    }
+
+    /**
+     * Gets the {@code byte[]} value at the given path.
+     *
+     * @param path The path of the value
+     * @return The value, if available
+     */
+    public Optional<byte[]> getByteArray(DataQuery path) {
+        return get(path).filter(value -> value instanceof byte[]).map(value -> (byte[]) value);
+    }
+
+    /**
+     * Sets the given {@code int} value at the given path without boxing it.
+     *
+     * @param path The path of the value
+     * @param value The value
+     * @return This view, for chaining
+     */
+    public FlatDataView setInt(DataQuery path, int value) {
+        checkNotNull(path, "path");
+        createCompound(path, path.getPartCount() - 1).putPrimitive(path.getPart(path.getPartCount() - 1), Compound.INT, value);
+        return this;
+    }
+
+    /**
+     * Sets the given {@code long} value at the given path without boxing it.
+     *
+     * @param path The path of the value
+     * @param value The value
+     * @return This view, for chaining
+     */
+    public FlatDataView setLong(DataQuery path, long value) {
+        checkNotNull(path, "path");
+        createCompound(path, path.getPartCount() - 1).putPrimitive(path.getPart(path.getPartCount() - 1), Compound.LONG, value);
+        return this;
+    }
+
+    /**
+     * Sets the given {@code double} value at the given path without boxing
+     * it.
+     *
+     * @param path The path of the value
+     * @param value The value
+     * @return This view, for chaining
+     */
+    public FlatDataView setDouble(DataQuery path, double value) {
+        checkNotNull(path, "path");
+        createCompound(path, path.getPartCount() - 1).putPrimitive(path.getPart(path.getPartCount() - 1), Compound.DOUBLE,
+                Double.doubleToRawLongBits(value));
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public DataView set(DataQuery path, Object value) {
+        checkNotNull(path, "path");
+        checkNotNull(value, "value");
+        checkArgument(path.getPartCount() != 0, "The size of the query must be at least 1");
+        final Compound compound = createCompound(path, path.getPartCount() - 1);
+        final String key = path.getPart(path.getPartCount() - 1);
+
+        if (value instanceof Integer) {
+            compound.putPrimitive(key, Compound.INT, (Integer) value);
+        } else if (value instanceof Long) {
+            compound.putPrimitive(key, Compound.LONG, (Long) value);
+        } else if (value instanceof Double) {
+            compound.putPrimitive(key, Compound.DOUBLE, Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof String || value instanceof Boolean || value instanceof Number) {
+            compound.putObject(key, Compound.OBJECT, value);
+        } else if (value instanceof DataView) {
+            checkArgument(value != this, "Cannot set a DataView to itself.");
+            // always have to copy a data view to avoid overwriting existing
+            // views and to set the interior path correctly.
+            compound.putObject(key, Compound.COMPOUND, copyOf((DataView) value));
+        } else if (value instanceof DataSerializable) {
+            final DataContainer valueContainer = ((DataSerializable) value).toContainer();
+            checkArgument(!valueContainer.equals(this), "Cannot insert self-referencing DataSerializable");
+            compound.putObject(key, Compound.COMPOUND, copyOf(valueContainer));
+        } else if (value instanceof CatalogType) {
+            compound.putObject(key, Compound.OBJECT, ((CatalogType) value).getId());
+        } else if (getTranslator(value).isPresent()) {
+            final DataTranslator serializer = getTranslator(value).get();
+            final DataContainer valueContainer = serializer.translate(value);
+            checkArgument(!valueContainer.equals(this), "Cannot insert self-referencing Objects!");
+            compound.putObject(key, Compound.COMPOUND, copyOf(valueContainer));
+        } else if (value instanceof Collection) {
+            compound.putObject(key, Compound.OBJECT, ensureSerialization((Collection) value));
+        } else if (value instanceof Map) {
+            final Compound mapCompound = new Compound(((Map) value).size(), this.tree.edit);
+            compound.putObject(key, Compound.COMPOUND, mapCompound);
+            final FlatDataView view = new FlatDataView(this, key, mapCompound);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                view.set(of(entry.getKey().toString()), entry.getValue());
+            }
+        } else if (value.getClass().isArray()) {
+            final Object array = this.safety == SafetyMode.NO_DATA_CLONED ? value : cloneArray(value);
+            compound.putObject(key, array instanceof byte[] ? Compound.BYTES : Compound.OBJECT, array);
+        } else {
+            compound.putObject(key, Compound.OBJECT, value);
+        }
+        return this;
+    }
+
+    @Override
+    public <E> DataView set(Key<? extends BaseValue<E>> key, E value) {
+        return set(checkNotNull(key, "Key was null!").getQuery(), value);
+    }
+
+    private static Optional<? extends DataTranslator<?>> getTranslator(Object value) {
+        final DataManager manager;
+        try {
+            manager = Sponge.getDataManager();
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+        return manager.getTranslator(value.getClass());
+    }
+
+    private Compound copyOf(DataView view) {
+        if (view instanceof FlatDataView) {
+            return ((FlatDataView) view).share();
+        }
+        final FlatDataContainer copy = new FlatDataContainer(this.safety);
+        for (DataQuery key : view.getKeys(false)) {
+            view.get(key).ifPresent(value -> copy.set(key, value));
+        }
+        return copy.compound();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ImmutableList<Object> ensureSerialization(Collection<?> collection) {
+        final ImmutableList.Builder<Object> builder = ImmutableList.builder();
+        for (Object object : collection) {
+            if (object instanceof DataSerializable) {
+                builder.add(((DataSerializable) object).toContainer());
+            } else if (object instanceof DataView) {
+                if (this.safety == SafetyMode.ALL_DATA_CLONED || this.safety == SafetyMode.CLONED_ON_SET) {
+                    builder.add(((DataView) object).copy(this.safety));
+                } else {
+                    builder.add(object);
+                }
+            } else if (object instanceof CatalogType) {
+                builder.add(((CatalogType) object).getId());
+            } else if (object instanceof Map) {
+                builder.add(ensureSerialization((Map) object));
+            } else if (object instanceof Collection) {
+                builder.add(ensureSerialization((Collection) object));
+            } else if (getTranslator(object).isPresent()) {
+                final DataTranslator translator = getTranslator(object).get();
+                final DataContainer valueContainer = translator.translate(object);
+                checkArgument(!valueContainer.equals(this), "Cannot insert self-referencing Objects!");
+                builder.add(valueContainer);
+            } else {
+                builder.add(object);
+            }
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ImmutableMap<?, ?> ensureSerialization(Map<?, ?> map) {
+        final ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() instanceof Map) {
+                builder.put(entry.getKey(), ensureSerialization((Map) entry.getValue()));
+            } else if (entry.getValue() instanceof DataSerializable) {
+                builder.put(entry.getKey(), ((DataSerializable) entry.getValue()).toContainer());
+            } else if (entry.getValue() instanceof Collection) {
+                builder.put(entry.getKey(), ensureSerialization((Collection) entry.getValue()));
+            } else {
+                builder.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public DataView remove(DataQuery path) {
+        checkNotNull(path, "path");
+        final int last = path.getPartCount() - 1;
+        if (contains(path)) {
+            createCompound(path, last).remove(path.getPart(last));
+        }
+        return this;
+    }
+
+    @Override
+    public DataView createView(DataQuery path) {
+        checkNotNull(path, "path");
+        checkArgument(path.getPartCount() != 0, "The size of the query must be at least 1");
+        FlatDataView view = this;
+        for (int i = 0; i < path.getPartCount() - 1; i++) {
+            view = view.getOrCreateChild(path.getPart(i));
+        }
+        final String key = path.getPart(path.getPartCount() - 1);
+        final Compound compound = new Compound(8, this.tree.edit);
+        view.editableCompound().putObject(key, Compound.COMPOUND, compound);
+        return new FlatDataView(view, key, compound);
+    }
+
+    @Override
+    public DataView createView(DataQuery path, Map<?, ?> map) {
+        checkNotNull(path, "path");
+        final DataView section = createView(path);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() instanceof Map) {
+                section.createView(of('.', entry.getKey().toString()), (Map<?, ?>) entry.getValue());
+            } else {
+                section.set(of('.', entry.getKey().toString()), entry.getValue());
+            }
+        }
+        return section;
+    }
+
+    @Override
+    public Optional<DataView> getView(DataQuery path) {
+        return get(path).filter(obj -> obj instanceof DataView).map(obj -> (DataView) obj);
+    }
+
+    @Override
+    public Optional<? extends Map<?, ?>> getMap(DataQuery path) {
+        final Optional<Object> val = get(path);
+        if (val.isPresent()) {
+            if (val.get() instanceof DataView || val.get() instanceof Map) {
+                return Optional.of((Map<?, ?>) ensureMappingOf(val.get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Object ensureMappingOf(Object object) {
+        if (object instanceof DataView) {
+            final ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+            for (Map.Entry<DataQuery, Object> entry : ((DataView) object).getValues(false).entrySet()) {
+                builder.put(entry.getKey().asString('.'), ensureMappingOf(entry.getValue()));
+            }
+            return builder.build();
+        } else if (object instanceof Map) {
+            final ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                builder.put(entry.getKey().toString(), ensureMappingOf(entry.getValue()));
+            }
+            return builder.build();
+        } else if (object instanceof Collection) {
+            final ImmutableList.Builder<Object> builder = ImmutableList.builder();
+            for (Object entry : (Collection) object) {
+                builder.add(ensureMappingOf(entry));
+            }
+            return builder.build();
+        }
+        return object;
+    }
+
+    @Override
+    public Optional<Boolean> getBoolean(DataQuery path) {
+        return get(path).flatMap(Coerce::asBoolean);
+    }
+
+    @Override
+    public Optional<Byte> getByte(DataQuery path) {
+        return get(path).flatMap(Coerce::asByte);
+    }
+
+    @Override
+    public Optional<Short> getShort(DataQuery path) {
+        return get(path).flatMap(Coerce::asShort);
+    }
+
+    @Override
+    public Optional<Integer> getInt(DataQuery path) {
+        return get(path).flatMap(Coerce::asInteger);
+    }
+
+    /**
+     * Gets the {@code int} value at the given path without boxing it.
+     *
+     * @param path The path of the value
+     * @param defaultValue The value to return if no number is present at the
+     *     given path
+     * @return The value
+     */
+    public int getInt(DataQuery path, int defaultValue) {
+        checkNotNull(path, "path");
+        final int last = path.getPartCount() - 1;
+        final Compound compound = last == -1 ? null : findCompound(path, last);
+        final int index = compound == null ? -1 : compound.indexOf(path.getPart(last));
+        if (index == -1) {
+            return defaultValue;
+        }
+        switch (compound.types[index]) {
+            case Compound.INT:
+            case Compound.LONG:
+                return (int) compound.primitives[index];
+            case Compound.DOUBLE:
+                return (int) Double.longBitsToDouble(compound.primitives[index]);
+            default:
+                return Coerce.asInteger(compound.getBoxed(index)).orElse(defaultValue);
+        }
+    }
+
+    @Override
+    public Optional<Long> getLong(DataQuery path) {
+        return get(path).flatMap(Coerce::asLong);
+    }
+
+    /**
+     * Gets the {@code long} value at the given path without boxing it.
+     *
+     * @param path The path of the value
+     * @param defaultValue The value to return if no number is present at the
+     *     given path
+     * @return The value
+     */
+    public long getLong(DataQuery path, long defaultValue) {
+        checkNotNull(path, "path");
+        final int last = path.getPartCount() - 1;
+        final Compound compound = last == -1 ? null : findCompound(path, last);
+        final int index = compound == null ? -1 : compound.indexOf(path.getPart(last));
+        if (index == -1) {
+            return defaultValue;
+        }
+        switch (compound.types[index]) {
+            case Compound.INT:
+            case Compound.LONG:
+                return compound.primitives[index];
+            case Compound.DOUBLE:
+                return (long) Double.longBitsToDouble(compound.primitives[index]);
+            default:
+                return Coerce.asLong(compound.getBoxed(index)).orElse(defaultValue);
+        }
+    }
+
+    @Override
+    public Optional<Float> getFloat(DataQuery path) {
+        return get(path).flatMap(Coerce::asFloat);
+    }
+
+    @Override
+    public Optional<Double> getDouble(DataQuery path) {
+        return get(path).flatMap(Coerce::asDouble);
+    }
+
+    /**
+     * Gets the {@code double} value at the given path without boxing it.
+     *
+     * @param path The path of the value
+     * @param defaultValue The value to return if no number is present at the
+     *     given path
+     * @return The value
+     */
+    public double getDouble(DataQuery path, double defaultValue) {
+        checkNotNull(path, "path");
+        final int last = path.getPartCount() - 1;
+        final Compound compound = last == -1 ? null : findCompound(path, last);
+        final int index = compound == null ? -1 : compound.indexOf(path.getPart(last));
+        if (index == -1) {
+            return defaultValue;
+        }
+        switch (compound.types[index]) {
+            case Compound.INT:
+            case Compound.LONG:
+                return compound.primitives[index];
+            case Compound.DOUBLE:
+                return Double.longBitsToDouble(compound.primitives[index]);
+            default:
+                return Coerce.asDouble(compound.getBoxed(index)).orElse(defaultValue);
+        }
+    }
+
+    @Override
+    public Optional<String> getString(DataQuery path) {
+        return get(path).flatMap(Coerce::asString);
+    }
+
+    @Override
+    public Optional<List<?>> getList(DataQuery path) {
+        return getUnsafeList(path).map(Lists::newArrayList);
+    }
+
+    private Optional<List<?>> getUnsafeList(DataQuery path) {
+        return get(path)
+                .filter(obj -> obj instanceof List<?> || obj instanceof Object[])
+                .map(obj -> obj instanceof List<?> ? (List<?>) obj : Arrays.asList((Object[]) obj));
+    }
+
+    private <T> Optional<List<T>> getCoercedList(DataQuery path, Function<Object, Optional<T>> coercion) {
+        return getUnsafeList(path).map(list ->
+                list.stream()
+                        .map(coercion)
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .collect(Collectors.toList())
+        );
+    }
+
+    @Override
+    public Optional<List<String>> getStringList(DataQuery path) {
+        return getCoercedList(path, Coerce::asString);
+    }
+
+    @Override
+    public Optional<List<Character>> getCharacterList(DataQuery path) {
+        return getCoercedList(path, Coerce::asChar);
+    }
+
+    @Override
+    public Optional<List<Boolean>> getBooleanList(DataQuery path) {
+        return getCoercedList(path, Coerce::asBoolean);
+    }
+
+    @Override
+    public Optional<List<Byte>> getByteList(DataQuery path) {
+        return getCoercedList(path, Coerce::asByte);
+    }
+
+    @Override
+    public Optional<List<Short>> getShortList(DataQuery path) {
+        return getCoercedList(path, Coerce::asShort);
+    }
+
+    @Override
+    public Optional<List<Integer>> getIntegerList(DataQuery path) {
+        return getCoercedList(path, Coerce::asInteger);
+    }
+
+    @Override
+    public Optional<List<Long>> getLongList(DataQuery path) {
+        return getCoercedList(path, Coerce::asLong);
+    }
+
+    @Override
+    public Optional<List<Float>> getFloatList(DataQuery path) {
+        return getCoercedList(path, Coerce::asFloat);
+    }
+
+    @Override
+    public Optional<List<Double>> getDoubleList(DataQuery path) {
+        return getCoercedList(path, Coerce::asDouble);
+    }
+
+    @Override
+    public Optional<List<Map<?, ?>>> getMapList(DataQuery path) {
+        return getCoercedList(path, obj -> obj instanceof Map<?, ?> ? Optional.of((Map<?, ?>) obj) : Optional.empty());
+    }
+
+    @Override
+    public Optional<List<DataView>> getViewList(DataQuery path) {
+        return getCoercedList(path, obj -> obj instanceof DataView ? Optional.of((DataView) obj) : Optional.empty());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends DataSerializable> Optional<T> getSerializable(DataQuery path, Class<T> clazz) {
+        checkNotNull(path, "path");
+        checkNotNull(clazz, "clazz");
+        if (clazz.isAssignableFrom(CatalogType.class)) {
+            final Optional<T> catalog = (Optional<T>) getCatalogType(path, ((Class<? extends CatalogType>) clazz));
+            if (catalog.isPresent()) {
+                return catalog;
+            }
+        }
+        return getView(path).flatMap(view -> Sponge.getDataManager().getBuilder(clazz)
+                .flatMap(builder -> builder.build(view))
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends DataSerializable> Optional<List<T>> getSerializableList(DataQuery path, Class<T> clazz) {
+        checkNotNull(path, "path");
+        checkNotNull(clazz, "clazz");
+        if (clazz.isAssignableFrom(CatalogType.class)) {
+            final Optional<List<T>> catalogs = (Optional<List<T>>) (Optional<?>) getCatalogTypeList(path,
+                    (Class<? extends CatalogType>) clazz);
+            if (catalogs.isPresent()) {
+                return catalogs;
+            }
+        }
+        return getViewList(path).flatMap(list ->
+                Sponge.getDataManager().getBuilder(clazz).map(builder ->
+                        list.stream()
+                                .map(builder::build)
+                                .filter(Optional::isPresent)
+                                .map(Optional::get)
+                                .collect(Collectors.toList())
+                )
+        );
+    }
+
+    @Override
+    public <T extends CatalogType> Optional<T> getCatalogType(DataQuery path, Class<T> catalogType) {
+        checkNotNull(path, "path");
+        checkNotNull(catalogType, "dummy type");
+        return getString(path).flatMap(string -> Sponge.getRegistry().getType(catalogType, string));
+    }
+
+    @Override
+    public <T extends CatalogType> Optional<List<T>> getCatalogTypeList(DataQuery path, Class<T> catalogType) {
+        checkNotNull(path, "path");
+        checkNotNull(catalogType, "catalogType");
+        return getStringList(path).map(list ->
+                list.stream()
+                        .map(string -> Sponge.getRegistry().getType(catalogType, string))
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .collect(Collectors.toList())
+        );
+    }
+
+    @Override
+    public <T> Optional<T> getObject(DataQuery path, Class<T> objectClass) {
+        return getView(path).flatMap(view ->
+                Sponge.getDataManager().getTranslator(objectClass)
+                        .map(serializer -> serializer.translate(view))
+        );
+    }
+
+    @Override
+    public <T> Optional<List<T>> getObjectList(DataQuery path, Class<T> objectClass) {
+        return getViewList(path).flatMap(viewList ->
+                Sponge.getDataManager().getTranslator(objectClass).map(serializer ->
+                        viewList.stream()
+                                .map(serializer::translate)
+                                .collect(Collectors.toList())
+                )
+        );
+    }
+
+    @Override
+    public DataContainer copy() {
+        return copy(this.safety);
+    }
+
+    @Override
+    public DataContainer copy(SafetyMode safety) {
+        return new FlatDataContainer(safety, share());
+    }
+
+    @Override
+    public void accept(DataViewVisitor visitor) {
+        checkNotNull(visitor, "visitor");
+        accept(visitor, this.name, compound());
+    }
+
+    private void accept(DataViewVisitor visitor, String name, Compound compound) {
+        visitor.startView(name);
+        for (int i = 0; i < compound.size; i++) {
+            if (compound.types[i] == Compound.COMPOUND) {
+                accept(visitor, compound.keys[i], ((Compound) compound.objects[i]).load());
+            } else {
+                visitor.value(compound.keys[i], safeValue(compound, i));
+            }
+        }
+        visitor.endView();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return compound().size == 0;
+    }
+
+    @Override
+    public SafetyMode getSafetyMode() {
+        return this.safety;
+    }
+
+    /**
+     * Walks down the compounds of the first {@code count} parts of the
+     * given path, without materializing any views.
+     */
+    @Nullable
+    private Compound findCompound(DataQuery path, int count) {
+        Compound compound = compound();
+        for (int i = 0; i < count; i++) {
+            final int index = compound.indexOf(path.getPart(i));
+            if (index == -1 || compound.types[index] != Compound.COMPOUND) {
+                return null;
+            }
+            compound = ((Compound) compound.objects[index]).load();
+        }
+        return compound;
+    }
+
+    /**
+     * Walks down the compounds of the first {@code count} parts of the
+     * given path, creating or replacing any missing compounds.
+     */
+    private Compound createCompound(DataQuery path, int count) {
+        Compound compound = editableCompound();
+        for (int i = 0; i < count; i++) {
+            compound = compound.getOrCreateCompound(this.tree, path.getPart(i));
+        }
+        return compound;
+    }
+
+    private FlatDataView getOrCreateChild(String key) {
+        return new FlatDataView(this, key, editableCompound().getOrCreateCompound(this.tree, key));
+    }
+
+    private FlatDataView childView(int index) {
+        final Compound compound = compound();
+        return new FlatDataView(this, compound.keys[index], (Compound) compound.objects[index]);
+    }
+
+    /**
+     * Gets the level backing this view for reading.
+     *
+     * <p>The level is looked up again through the parent if a level along
+     * the path was replaced by an editable copy since it was last read.</p>
+     *
+     * @return The level
+     */
+    Compound compound() {
+        if (this.parent != null && this.stamp != this.tree.stamp) {
+            final Compound parent = this.parent.compound();
+            final int index = parent.indexOf(this.name);
+            // A level which was replaced or removed in the meantime is no
+            // longer the same level, this view is detached from it
+            if (index != -1 && parent.types[index] == Compound.COMPOUND
+                    && ((Compound) parent.objects[index]).identity == this.compound.identity) {
+                this.compound = (Compound) parent.objects[index];
+            }
+            this.stamp = this.tree.stamp;
+        }
+        return this.compound.load();
+    }
+
+    /**
+     * Gets the level backing this view for writing, cloning it and the
+     * levels above it if they are shared with a copy.
+     *
+     * @return The level
+     */
+    private Compound editableCompound() {
+        Compound compound = compound();
+        if (compound.edit == this.tree.edit) {
+            return compound;
+        }
+        if (this.parent != null) {
+            final Compound parent = this.parent.editableCompound();
+            final int index = parent.indexOf(this.name);
+            if (index != -1 && parent.objects[index] == compound) {
+                compound = parent.editableChild(this.tree, index);
+            } else {
+                compound = compound.editableCopy(this.tree);
+            }
+        } else {
+            compound = compound.editableCopy(this.tree);
+        }
+        this.compound = compound;
+        this.stamp = this.tree.stamp;
+        return compound;
+    }
+
+    /**
+     * Gets the level backing this view so that it can be shared with a
+     * copy. Neither side may write to any level which existed before this
+     * call from then on.
+     *
+     * @return The level
+     */
+    private Compound share() {
+        this.tree.edit = new Object();
+        return compound();
+    }
+
+    private static Object cloneArray(Object array) {
+        if (array instanceof byte[]) {
+            return ArrayUtils.clone((byte[]) array);
+        } else if (array instanceof short[]) {
+            return ArrayUtils.clone((short[]) array);
+        } else if (array instanceof int[]) {
+            return ArrayUtils.clone((int[]) array);
+        } else if (array instanceof long[]) {
+            return ArrayUtils.clone((long[]) array);
+        } else if (array instanceof float[]) {
+            return ArrayUtils.clone((float[]) array);
+        } else if (array instanceof double[]) {
+            return ArrayUtils.clone((double[]) array);
+        } else if (array instanceof boolean[]) {
+            return ArrayUtils.clone((boolean[]) array);
+        } else if (array instanceof char[]) {
+            return ArrayUtils.clone((char[]) array);
+        }
+        return ArrayUtils.clone((Object[]) array);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * compound().contentHashCode() + getCurrentPath().hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final FlatDataView other = (FlatDataView) obj;
+        return compound().contentEquals(other.compound()) && getCurrentPath().equals(other.getCurrentPath());
+    }
+
+    @Override
+    public String toString() {
+        final MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this);
+        if (!getCurrentPath().toString().isEmpty()) {
+            helper.add("path", getCurrentPath());
+        }
+        helper.add("safety", this.safety.name());
+        return helper.add("map", compound()).toString();
+    }
+
+    /**
+     * The state shared by all views of one container.
+     */
+    private static final class Tree {
+
+        // The levels which may be written to in place are the ones which
+        // carry this token, a new token is created whenever the levels are
+        // shared with a copy
+        Object edit = new Object();
+        // Incremented whenever a level is replaced by an editable copy
+        int stamp;
+
+    }
+
+    /**
+     * The data of one level of a {@link FlatDataView}, stored in parallel
+     * arrays in insertion order.
+     */
+    static final class Compound {
+
+        static final Compound EMPTY = new Compound(0, null);
+
+        static final byte OBJECT = 0;
+        static final byte INT = 1;
+        static final byte LONG = 2;
+        static final byte DOUBLE = 3;
+        static final byte BYTES = 4;
+        static final byte COMPOUND = 5;
+        // A value which is read from the source buffer whenever it is
+        // requested, the tag and offset are packed into the primitive slot
+        static final byte LAZY = 6;
+
+        // Shared by all copies of this level
+        final Object identity;
+        @Nullable final Object edit;
+        String[] keys;
+        byte[] types;
+        long[] primitives;
+        Object[] objects;
+        int size;
+        // Whether arrays may still be shared with the level this was copied
+        // from
+        boolean sharesArrays;
+        // The buffer this level still has to be read from, if any
+        @Nullable volatile ByteBuffer source;
+        int offset;
+
+        Compound(int capacity, @Nullable Object edit) {
+            this.identity = new Object();
+            this.edit = edit;
+            this.keys = new String[capacity];
+            this.types = new byte[capacity];
+            this.primitives = new long[capacity];
+            this.objects = new Object[capacity];
+        }
+
+        Compound(ByteBuffer source, int offset) {
+            this(0, null);
+            this.offset = offset;
+            this.source = source;
+        }
+
+        private Compound(Compound original, Tree tree) {
+            this.identity = original.identity;
+            this.edit = tree.edit;
+            final int capacity = Math.max(4, original.size);
+            this.keys = Arrays.copyOf(original.keys, capacity);
+            this.types = Arrays.copyOf(original.types, capacity);
+            this.primitives = Arrays.copyOf(original.primitives, capacity);
+            this.objects = Arrays.copyOf(original.objects, capacity);
+            this.size = original.size;
+            for (int i = 0; i < this.size && !this.sharesArrays; i++) {
+                this.sharesArrays = this.objects[i] != null && this.objects[i].getClass().isArray();
+            }
+        }
+
+        Compound load() {
+            if (this.source != null) {
+                synchronized (this) {
+                    final ByteBuffer source = this.source;
+                    if (source != null) {
+                        BinaryDataFormat.readCompound(this, source, this.offset);
+                        this.source = null;
+                    }
+                }
+            }
+            return this;
+        }
+
+        int indexOf(String key) {
+            final int hash = key.hashCode();
+            final String[] keys = this.keys;
+            for (int i = 0; i < this.size; i++) {
+                final String other = keys[i];
+                if (other == key || other.hashCode() == hash && other.equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Object getBoxed(int index) {
+            switch (this.types[index]) {
+                case INT:
+                    return (int) this.primitives[index];
+                case LONG:
+                    return this.primitives[index];
+                case DOUBLE:
+                    return Double.longBitsToDouble(this.primitives[index]);
+                case LAZY:
+                    return BinaryDataFormat.readLazy((ByteBuffer) this.objects[index], this.primitives[index]);
+                default:
+                    return this.objects[index];
+            }
+        }
+
+        boolean mayShareArrays(Tree tree) {
+            return this.sharesArrays || this.edit != tree.edit;
+        }
+
+        Compound editableCopy(Tree tree) {
+            load();
+            tree.stamp++;
+            return new Compound(this, tree);
+        }
+
+        Compound editableChild(Tree tree, int index) {
+            Compound child = (Compound) this.objects[index];
+            if (child.edit != tree.edit) {
+                child = child.editableCopy(tree);
+                this.objects[index] = child;
+            }
+            return child;
+        }
+
+        Compound getOrCreateCompound(Tree tree, String key) {
+            final int index = indexOf(key);
+            if (index != -1 && this.types[index] == COMPOUND) {
+                return editableChild(tree, index);
+            }
+            final Compound compound = new Compound(8, tree.edit);
+            putObject(key, COMPOUND, compound);
+            return compound;
+        }
+
+        void putPrimitive(String key, byte type, long value) {
+            final int index = slotFor(key);
+            this.types[index] = type;
+            this.primitives[index] = value;
+            this.objects[index] = null;
+        }
+
+        void putLazy(String key, ByteBuffer source, long tagAndOffset) {
+            final int index = slotFor(key);
+            this.types[index] = LAZY;
+            this.primitives[index] = tagAndOffset;
+            this.objects[index] = source;
+        }
+
+        void putObject(String key, byte type, Object value) {
+            final int index = slotFor(key);
+            this.types[index] = type;
+            this.primitives[index] = 0;
+            this.objects[index] = value;
+        }
+
+        private int slotFor(String key) {
+            final int index = indexOf(key);
+            if (index != -1) {
+                return index;
+            }
+            if (this.size == this.keys.length) {
+                final int capacity = Math.max(4, this.size * 2);
+                this.keys = Arrays.copyOf(this.keys, capacity);
+                this.types = Arrays.copyOf(this.types, capacity);
+                this.primitives = Arrays.copyOf(this.primitives, capacity);
+                this.objects = Arrays.copyOf(this.objects, capacity);
+            }
+            this.keys[this.size] = key;
+            return this.size++;
+        }
+
+        void remove(String key) {
+            final int index = indexOf(key);
+            if (index == -1) {
+                return;
+            }
+            final int moved = this.size - index - 1;
+            System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+            System.arraycopy(this.types, index + 1, this.types, index, moved);
+            System.arraycopy(this.primitives, index + 1, this.primitives, index, moved);
+            System.arraycopy(this.objects, index + 1, this.objects, index, moved);
+            this.size--;
+            this.keys[this.size] = null;
+            this.objects[this.size] = null;
+        }
+
+        boolean contentEquals(Compound other) {
+            load();
+            other.load();
+            if (this.size != other.size) {
+                return false;
+            }
+            for (int i = 0; i < this.size; i++) {
+                final int index = other.indexOf(this.keys[i]);
+                if (index == -1) {
+                    return false;
+                }
+                final byte type = this.types[i];
+                final byte otherType = other.types[index];
+                if (type == COMPOUND || otherType == COMPOUND) {
+                    if (type != otherType || !((Compound) this.objects[i]).contentEquals((Compound) other.objects[index])) {
+                        return false;
+                    }
+                } else if (type == LAZY || otherType == LAZY) {
+                    if (!Objects.deepEquals(getBoxed(i), other.getBoxed(index))) {
+                        return false;
+                    }
+                } else if (type != otherType || this.primitives[i] != other.primitives[index]
+                        || !Objects.deepEquals(this.objects[i], other.objects[index])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int contentHashCode() {
+            // Order independent, in the same manner as Map#hashCode()
+            load();
+            int hash = 0;
+            for (int i = 0; i < this.size; i++) {
+                final Object value = this.types[i] == LAZY ? getBoxed(i) : this.objects[i];
+                final int valueHash;
+                switch (this.types[i]) {
+                    case INT:
+                    case LONG:
+                    case DOUBLE:
+                        valueHash = Long.hashCode(this.primitives[i]);
+                        break;
+                    case COMPOUND:
+                        valueHash = ((Compound) value).contentHashCode();
+                        break;
+                    default:
+                        valueHash = value.getClass().isArray() ? Arrays.deepHashCode(new Object[] {value}) : value.hashCode();
+                }
+                hash += this.keys[i].hashCode() ^ valueHash;
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            load();
+            final Map<String, Object> map = Maps.newLinkedHashMap();
+            for (int i = 0; i < this.size; i++) {
+                map.put(this.keys[i], getBoxed(i));
+            }
+            return map.toString();
+        }
+    }
+}
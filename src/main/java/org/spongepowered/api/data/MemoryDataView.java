@@ -144,14 +144,22 @@ public Map<DataQuery, Object> getValues(boolean deep) {
     @Override
     public final boolean contains(DataQuery path) {
         checkNotNull(path, "path");
-        List<String> queryParts = path.getParts();
-
-        String key = queryParts.get(0);
-        if (queryParts.size() == 1) {
-            return this.map.containsKey(key);
+        final int sz = path.getPartCount();
+
+        // Walk nested memory views directly rather than recursing with
+        // popFirst(), which would create a new query for every level
+        MemoryDataView view = this;
+        for (int i = 0; i < sz - 1; i++) {
+            final Object child = view.map.get(path.getPart(i));
+            if (child instanceof MemoryDataView) {
+                view = (MemoryDataView) child;
+            } else if (child instanceof DataView) {
+                return ((DataView) child).contains(popFirst(path, i + 1));
+            } else {
+                return false;
+            }
         }
-        Optional<DataView> subViewOptional = this.getUnsafeView(key);
-        return subViewOptional.isPresent() && subViewOptional.get().contains(path.popFirst());
+        return view.map.containsKey(path.getPart(sz - 1));
     }
 
     @Override
@@ -177,50 +185,65 @@ public boolean contains(DataQuery path, DataQuery... paths) {
     @Override
     public Optional<Object> get(DataQuery path) {
         checkNotNull(path, "path");
-        List<String> queryParts = path.getParts();
-
-        int sz = queryParts.size();
+        final int sz = path.getPartCount();
 
         if (sz == 0) {
             return Optional.<Object>of(this);
         }
 
-        String key = queryParts.get(0);
-        if (sz == 1) {
-            final Object object = this.map.get(key);
-            if (object == null) {
+        MemoryDataView view = this;
+        for (int i = 0; i < sz - 1; i++) {
+            final Object child = view.map.get(path.getPart(i));
+            if (child instanceof MemoryDataView) {
+                view = (MemoryDataView) child;
+            } else if (child instanceof DataView) {
+                return ((DataView) child).get(popFirst(path, i + 1));
+            } else {
                 return Optional.empty();
             }
-            if (this.safety == SafetyMode.ALL_DATA_CLONED) {
-                if (object.getClass().isArray()) {
-                    if (object instanceof byte[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((byte[]) object));
-                    } else if (object instanceof short[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((short[]) object));
-                    } else if (object instanceof int[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((int[]) object));
-                    } else if (object instanceof long[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((long[]) object));
-                    } else if (object instanceof float[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((float[]) object));
-                    } else if (object instanceof double[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((double[]) object));
-                    } else if (object instanceof boolean[]) {
-                        return Optional.<Object>of(ArrayUtils.clone((boolean[]) object));
-                    } else {
-                        return Optional.<Object>of(ArrayUtils.clone((Object[]) object));
-                    }
-                }
-            }
-            return Optional.of(object);
         }
-        Optional<DataView> subViewOptional = this.getUnsafeView(key);
-        if (!subViewOptional.isPresent()) {
+        return view.getLocal(path.getPart(sz - 1));
+    }
+
+    private Optional<Object> getLocal(String key) {
+        final Object object = this.map.get(key);
+        if (object == null) {
             return Optional.empty();
         }
-        DataView subView = subViewOptional.get();
-        return subView.get(path.popFirst());
+        return Optional.of(safeValue(object));
+    }
+
+    private Object safeValue(Object object) {
+        if (this.safety == SafetyMode.ALL_DATA_CLONED) {
+            if (object.getClass().isArray()) {
+                if (object instanceof byte[]) {
+                    return ArrayUtils.clone((byte[]) object);
+                } else if (object instanceof short[]) {
+                    return ArrayUtils.clone((short[]) object);
+                } else if (object instanceof int[]) {
+                    return ArrayUtils.clone((int[]) object);
+                } else if (object instanceof long[]) {
+                    return ArrayUtils.clone((long[]) object);
+                } else if (object instanceof float[]) {
+                    return ArrayUtils.clone((float[]) object);
+                } else if (object instanceof double[]) {
+                    return ArrayUtils.clone((double[]) object);
+                } else if (object instanceof boolean[]) {
+                    return ArrayUtils.clone((boolean[]) object);
+                } else {
+                    return ArrayUtils.clone((Object[]) object);
+                }
+            }
+        }
+        return object;
+    }
 
+    private static DataQuery popFirst(DataQuery path, int count) {
+        DataQuery query = path;
+        for (int i = 0; i < count; i++) {
+            query = query.popFirst();
+        }
+        return query;
     }
 
     @Override
@@ -820,6 +843,20 @@ public DataContainer copy(SafetyMode safety) {
         return container;
     }
 
+    @Override
+    public void accept(DataViewVisitor visitor) {
+        checkNotNull(visitor, "visitor");
+        visitor.startView(getName());
+        for (Map.Entry<String, Object> entry : this.map.entrySet()) {
+            if (entry.getValue() instanceof DataView) {
+                ((DataView) entry.getValue()).accept(visitor);
+            } else {
+                visitor.value(entry.getKey(), safeValue(entry.getValue()));
+            }
+        }
+        visitor.endView();
+    }
+
     @Override
     public boolean isEmpty() {
         return this.map.isEmpty();
@@ -27,6 +27,7 @@
 import org.spongepowered.api.CatalogType;
 import org.spongepowered.api.data.DataContainer;
 import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.DataViewVisitor;
 import org.spongepowered.api.util.annotation.CatalogedBy;
 
 import java.io.IOException;
@@ -52,6 +53,25 @@ public interface DataFormat extends CatalogType {
      */
     DataContainer readFrom(InputStream input) throws InvalidDataFormatException, IOException;
 
+    /**
+     * Reads the contents of the given {@link InputStream} and reports them to
+     * the given {@link DataViewVisitor}, as if by
+     * {@link DataView#accept(DataViewVisitor)}.
+     *
+     * <p>The default implementation reads the whole stream into a
+     * {@link DataContainer} first. Formats which can report the contents
+     * while they are read should override it.</p>
+     *
+     * @param input The input stream
+     * @param visitor The visitor to report the contents to
+     * @throws InvalidDataFormatException If the data in the stream was not a
+     *         supported format
+     * @throws IOException If there was an error reading from the stream
+     */
+    default void readFrom(InputStream input, DataViewVisitor visitor) throws InvalidDataFormatException, IOException {
+        readFrom(input).accept(visitor);
+    }
+
     /**
      * Writes the given {@link DataView} to the given {@link OutputStream} using
      * the format specified by this {@link DataFormat}.
@@ -0,0 +1,319 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data.persistence;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.world.storage.ChunkDataStream;
+import org.spongepowered.api.world.storage.WorldStorage;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A {@link DataContentUpdater} which updates data from one version to
+ * another through a chain of {@link DataContentUpdater}s, which is resolved
+ * once when the pipeline is created.
+ *
+ * <p>Each step of the chain is applied to the result of the previous step,
+ * without any lookups or copies in between. Large amounts of data, such as
+ * all chunks of a world from {@link WorldStorage#getGeneratedChunks()}, can
+ * be updated in parallel through
+ * {@link #updateAll(ChunkDataStream, Consumer, ForkJoinPool)}.</p>
+ */
+public final class DataUpdaterPipeline implements DataContentUpdater {
+
+    private static final int DEFAULT_BATCH_SIZE = 32;
+
+    /**
+     * Creates a pipeline which updates data from the given version to the
+     * other given version, using the given updaters.
+     *
+     * <p>The chain with the fewest steps is used. Where several chains are
+     * equally short, the one which skips the most versions with its earlier
+     * steps is preferred.</p>
+     *
+     * @param updaters The updaters to build the chain from
+     * @param fromVersion The version converting from
+     * @param toVersion The version converting to
+     * @return The pipeline
+     * @throws IllegalArgumentException If the updaters do not cover the
+     *     complete range between the versions
+     */
+    public static DataUpdaterPipeline of(Iterable<? extends DataContentUpdater> updaters, int fromVersion, int toVersion) {
+        checkNotNull(updaters, "updaters");
+        checkArgument(fromVersion <= toVersion, "Cannot update from version %s to the older version %s", fromVersion, toVersion);
+        final List<DataContentUpdater> candidates = new ArrayList<>();
+        for (DataContentUpdater updater : updaters) {
+            if (updater.getInputVersion() >= fromVersion && updater.getOutputVersion() > updater.getInputVersion()
+                    && updater.getOutputVersion() <= toVersion) {
+                candidates.add(updater);
+            }
+        }
+        // Visit the longest hops first, so they win between equally short chains
+        candidates.sort((a, b) -> Integer.compare(b.getOutputVersion(), a.getOutputVersion()));
+        // A breadth first search over the versions finds the shortest chain,
+        // the updater which first reached each version is remembered
+        final Map<Integer, DataContentUpdater> reachedBy = new HashMap<>();
+        final Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(fromVersion);
+        while (!queue.isEmpty() && !reachedBy.containsKey(toVersion) && fromVersion != toVersion) {
+            final int version = queue.poll();
+            for (DataContentUpdater updater : candidates) {
+                final int output = updater.getOutputVersion();
+                if (updater.getInputVersion() == version && output != fromVersion && !reachedBy.containsKey(output)) {
+                    reachedBy.put(output, updater);
+                    queue.add(output);
+                }
+            }
+        }
+        checkArgument(fromVersion == toVersion || reachedBy.containsKey(toVersion),
+                "There is no chain of updaters from version %s to version %s", fromVersion, toVersion);
+        final Deque<DataContentUpdater> steps = new ArrayDeque<>();
+        for (int version = toVersion; version != fromVersion; version = steps.peekFirst().getInputVersion()) {
+            steps.addFirst(reachedBy.get(version));
+        }
+        return new DataUpdaterPipeline(steps.toArray(new DataContentUpdater[steps.size()]), fromVersion, toVersion);
+    }
+
+    private final DataContentUpdater[] steps;
+    private final int inputVersion;
+    private final int outputVersion;
+
+    private DataUpdaterPipeline(DataContentUpdater[] steps, int inputVersion, int outputVersion) {
+        this.steps = steps;
+        this.inputVersion = inputVersion;
+        this.outputVersion = outputVersion;
+    }
+
+    @Override
+    public int getInputVersion() {
+        return this.inputVersion;
+    }
+
+    @Override
+    public int getOutputVersion() {
+        return this.outputVersion;
+    }
+
+    @Override
+    public DataView update(DataView content) {
+        DataView updated = checkNotNull(content, "content");
+        for (DataContentUpdater step : this.steps) {
+            updated = step.update(updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Updates all data of the given {@link ChunkDataStream} in parallel on
+     * the given pool, passing each updated view to the given consumer.
+     *
+     * @param chunks The chunks to update
+     * @param sink The consumer of the updated chunks
+     * @param pool The pool to update the chunks on
+     * @return The metrics of the update, once it has completed
+     * @see #updateAll(ChunkDataStream, Consumer, ForkJoinPool, int)
+     */
+    public CompletableFuture<Metrics> updateAll(ChunkDataStream chunks, Consumer<? super DataView> sink, ForkJoinPool pool) {
+        return updateAll(chunks, sink, pool, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Updates all data of the given {@link ChunkDataStream} in parallel on
+     * the given pool, passing each updated view to the given consumer.
+     *
+     * <p>The chunks of a {@link WorldStorage} are read only, so each chunk is
+     * copied before it is updated and the consumer is responsible for storing
+     * the updated data. The consumer is called concurrently from the threads
+     * of the pool, in no particular order.</p>
+     *
+     * <p>The chunks are read from the stream on one thread of the pool and
+     * handed to the other threads in batches of the given size. No more than
+     * two batches per thread are waiting to be updated at any time, so the
+     * memory which is used does not depend on the size of the world.</p>
+     *
+     * <p>A chunk which cannot be updated, or which the consumer fails to
+     * accept, is counted as failed and does not stop the update of the
+     * remaining chunks. An {@link Error} is counted as failed as well, but
+     * is rethrown and ends the update of the batch of its chunk.</p>
+     *
+     * @param chunks The chunks to update
+     * @param sink The consumer of the updated chunks
+     * @param pool The pool to update the chunks on
+     * @param batchSize The number of chunks updated by a single task
+     * @return The metrics of the update, once it has completed
+     */
+    public CompletableFuture<Metrics> updateAll(ChunkDataStream chunks, Consumer<? super DataView> sink, ForkJoinPool pool,
+            int batchSize) {
+        checkNotNull(chunks, "chunks");
+        checkNotNull(sink, "sink");
+        checkNotNull(pool, "pool");
+        checkArgument(batchSize > 0, "The batch size must be positive");
+        return CompletableFuture.supplyAsync(() -> {
+            final Metrics metrics = new Metrics();
+            final int maxBatches = Math.max(2, pool.getParallelism() * 2);
+            final Semaphore batches = new Semaphore(maxBatches);
+            while (chunks.hasNext()) {
+                final List<DataContainer> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && chunks.hasNext()) {
+                    final DataContainer chunk = chunks.next();
+                    if (chunk != null) {
+                        batch.add(chunk);
+                    }
+                }
+                acquire(batches, 1);
+                pool.execute(() -> {
+                    try {
+                        for (DataContainer chunk : batch) {
+                            boolean processed = false;
+                            try {
+                                sink.accept(update(chunk.copy()));
+                                processed = true;
+                            } catch (RuntimeException e) {
+                                // Counted below, the remaining chunks are still updated
+                            } finally {
+                                // Anything else thrown is counted before it propagates
+                                if (processed) {
+                                    metrics.processed.increment();
+                                } else {
+                                    metrics.failed.increment();
+                                }
+                            }
+                        }
+                    } finally {
+                        batches.release();
+                    }
+                });
+            }
+            // Wait for the remaining batches to complete
+            acquire(batches, maxBatches);
+            metrics.elapsed = System.nanoTime() - metrics.start;
+            return metrics;
+        }, pool);
+    }
+
+    private static void acquire(Semaphore semaphore, int permits) {
+        try {
+            // Blocking on a thread of the pool could otherwise starve the
+            // batches it is waiting for
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean acquired;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    semaphore.acquire(permits);
+                    this.acquired = true;
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return this.acquired || (this.acquired = semaphore.tryAcquire(permits));
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while updating data", e);
+        }
+    }
+
+    /**
+     * The metrics of a completed
+     * {@link #updateAll(ChunkDataStream, Consumer, ForkJoinPool, int)}.
+     */
+    public static final class Metrics {
+
+        final LongAdder processed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final long start = System.nanoTime();
+        long elapsed;
+
+        Metrics() {
+        }
+
+        /**
+         * Gets the number of views which were updated and passed on.
+         *
+         * @return The number of processed views
+         */
+        public long getProcessed() {
+            return this.processed.sum();
+        }
+
+        /**
+         * Gets the number of views which failed to update.
+         *
+         * @return The number of failed views
+         */
+        public long getFailed() {
+            return this.failed.sum();
+        }
+
+        /**
+         * Gets the time the update took.
+         *
+         * @return The elapsed time
+         */
+        public Duration getElapsed() {
+            return Duration.ofNanos(this.elapsed);
+        }
+
+        /**
+         * Gets the average number of views which were processed per second.
+         *
+         * @return The throughput, in views per second
+         */
+        public double getThroughput() {
+            return this.elapsed == 0 ? 0 : getProcessed() * 1e9 / this.elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("processed", getProcessed())
+                    .add("failed", getFailed())
+                    .add("elapsed", getElapsed())
+                    .add("throughput", getThroughput())
+                    .toString();
+        }
+
+    }
+
+}
@@ -26,6 +26,11 @@
 
 import com.google.common.reflect.TypeToken;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * Manages the registration of event listeners and the dispatching of events.
  */
@@ -171,4 +176,101 @@ <T extends Event> void registerListener(Object plugin, TypeToken<T> eventType, O
      */
     boolean post(Event event);
 
+    /**
+     * Calls an event to all listeners that listen to it, constructing the
+     * event only if there are any.
+     *
+     * <p>When {@link #hasListeners(Class)} returns false for the event class
+     * neither the event nor anything the factory would create for it, such
+     * as its {@link org.spongepowered.api.event.cause.Cause}, is
+     * constructed.</p>
+     *
+     * @param eventClass The class of the event that would be created
+     * @param eventFactory The factory creating the event
+     * @param <T> The type of the event
+     * @return True if cancelled, false if not or if the event was not created
+     */
+    default <T extends Event> boolean post(Class<T> eventClass, Supplier<? extends T> eventFactory) {
+        return hasListeners(eventClass) && post(eventFactory.get());
+    }
+
+    /**
+     * Calls an event to all listeners that listen to it without blocking the
+     * calling thread.
+     *
+     * <p>Listeners are called one after the other in their usual order.
+     * Listeners declared with {@link Listener#async()} are called on a worker
+     * thread, every other listener is called on the main thread. The returned
+     * future completes once the last listener has been called.</p>
+     *
+     * <p>The default implementation calls {@link #post(Event)} on the calling
+     * thread and returns a completed future.</p>
+     *
+     * @param event The event
+     * @return A future completed with true if the event was cancelled, false
+     *     if not
+     */
+    default CompletableFuture<Boolean> postAsync(Event event) {
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        try {
+            future.complete(post(event));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Gets whether any listener is registered that could receive an event of
+     * the given class or one of its sub types.
+     *
+     * <p>The default implementation always returns true, implementations
+     * should override it with a cheaper check.</p>
+     *
+     * @param eventClass The event class
+     * @return True if there may be listeners for the event class
+     */
+    default boolean hasListeners(Class<? extends Event> eventClass) {
+        return true;
+    }
+
+    /**
+     * Gets the metrics of all registered listeners.
+     *
+     * <p>The default implementation does not record metrics and returns an
+     * empty collection, as do the other metric methods.</p>
+     *
+     * @return The listener metrics
+     */
+    default Collection<ListenerMetrics> getListenerMetrics() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets the metrics of all registered listeners that receive events of the
+     * given class.
+     *
+     * @param eventClass The event class
+     * @return The listener metrics
+     */
+    default Collection<ListenerMetrics> getListenerMetrics(Class<? extends Event> eventClass) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets the metrics of all listeners registered by a plugin.
+     *
+     * @param plugin The plugin instance
+     * @return The listener metrics
+     */
+    default Collection<ListenerMetrics> getPluginListenerMetrics(Object plugin) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Resets the metrics of all registered listeners.
+     */
+    default void resetListenerMetrics() {
+    }
+
 }
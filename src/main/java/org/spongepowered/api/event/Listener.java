@@ -57,4 +57,15 @@
      */
     boolean beforeModifications() default false;
 
+    /**
+     * Whether this listener is safe to be called off the main thread when the
+     * event is posted through {@link EventManager#postAsync(Event)}.
+     *
+     * <p>Listeners that are not async are always called on the main thread,
+     * in their usual order relative to the async listeners.</p>
+     *
+     * @return If the listener may be called asynchronously
+     */
+    boolean async() default false;
+
 }
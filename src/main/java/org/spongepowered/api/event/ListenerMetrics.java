@@ -0,0 +1,123 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event;
+
+import org.spongepowered.api.plugin.PluginContainer;
+
+/**
+ * Timing and throughput counters of a single registered event listener.
+ *
+ * <p>The counters are updated while events are posted and can be read at
+ * any time, values read together are not guaranteed to be from the same
+ * instant.</p>
+ *
+ * @see EventManager#getListenerMetrics()
+ */
+public interface ListenerMetrics {
+
+    /**
+     * Gets the plugin that registered the listener.
+     *
+     * @return The plugin
+     */
+    PluginContainer getPlugin();
+
+    /**
+     * Gets the event class the listener was registered for.
+     *
+     * @return The event class
+     */
+    Class<?> getEventClass();
+
+    /**
+     * Gets the order the listener is called at.
+     *
+     * @return The order
+     */
+    Order getOrder();
+
+    /**
+     * Gets a description of the listener, such as the listener method.
+     *
+     * @return The description
+     */
+    String getName();
+
+    /**
+     * Gets how often the listener was called.
+     *
+     * @return The number of invocations
+     */
+    long getInvocationCount();
+
+    /**
+     * Gets the total time spent in the listener, in nanoseconds.
+     *
+     * @return The total time
+     */
+    long getTotalNanos();
+
+    /**
+     * Gets the longest time a single call of the listener took, in
+     * nanoseconds.
+     *
+     * @return The maximum time
+     */
+    long getMaxNanos();
+
+    /**
+     * Gets how often the listener cancelled an event that was not cancelled
+     * before it was called.
+     *
+     * @return The number of cancellations
+     */
+    long getCancellationCount();
+
+    /**
+     * Gets the average time a call of the listener took, in nanoseconds.
+     *
+     * @return The average time, or 0 if the listener was not called
+     */
+    default double getAverageNanos() {
+        final long count = getInvocationCount();
+        return count == 0 ? 0 : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * Gets the fraction of calls in which the listener cancelled the event.
+     *
+     * @return The cancellation rate, between 0 and 1
+     */
+    default double getCancellationRate() {
+        final long count = getInvocationCount();
+        return count == 0 ? 0 : (double) getCancellationCount() / count;
+    }
+
+    /**
+     * Resets all counters of the listener to zero.
+     */
+    void reset();
+
+}
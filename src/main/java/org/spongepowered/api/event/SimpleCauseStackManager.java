@@ -0,0 +1,369 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.inject.Singleton;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.cause.EventContext;
+import org.spongepowered.api.event.cause.EventContextKey;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * A simple implementation of {@link CauseStackManager}.
+ *
+ * <p>The current {@link Cause} and {@link EventContext} are built on demand
+ * and cached until the stack actually changes, so posting several events
+ * without touching the stack in between shares one cause. Pushing the object
+ * that is already on top of the stack, or adding the very context value that
+ * is already present, does not change the cause and keeps the cache.</p>
+ *
+ * <p>Causes, context entries and frames are kept in arrays that are reused
+ * as the stack grows and shrinks, so pushing and popping frames only
+ * allocates the small {@link StackFrame} handle once the stack reached its
+ * usual depth. Every reuse of a frame starts a new generation, and a handle
+ * of an older generation is rejected, so a handle used after its frame was
+ * popped throws instead of affecting the frame that reused it. Closing such
+ * a handle again does nothing.</p>
+ *
+ * <p>This manager is not thread safe and is meant to be used from the main
+ * thread only.</p>
+ */
+@Singleton
+public class SimpleCauseStackManager implements CauseStackManager {
+
+    private Object[] causes = new Object[16];
+    private int causeCount;
+
+    private EventContextKey<?>[] contextKeys = new EventContextKey<?>[8];
+    private Object[] contextValues = new Object[8];
+    private int contextCount;
+
+    // Frames beyond frameCount are popped frames kept for reuse
+    private Frame[] frames = new Frame[8];
+    private int frameCount;
+
+    @Nullable private Cause cachedCause;
+    @Nullable private EventContext cachedContext;
+
+    @Override
+    public Cause getCurrentCause() {
+        if (this.cachedCause == null) {
+            if (this.causeCount == 0) {
+                this.cachedCause = Cause.of(getCurrentContext(), Sponge.getGame());
+            } else {
+                final Cause.Builder builder = Cause.builder();
+                for (int i = this.causeCount - 1; i >= 0; i--) {
+                    builder.append(this.causes[i]);
+                }
+                this.cachedCause = builder.build(getCurrentContext());
+            }
+        }
+        return this.cachedCause;
+    }
+
+    @Override
+    public EventContext getCurrentContext() {
+        if (this.cachedContext == null) {
+            if (this.contextCount == 0) {
+                this.cachedContext = EventContext.empty();
+            } else {
+                final EventContext.Builder builder = EventContext.builder();
+                for (int i = 0; i < this.contextCount; i++) {
+                    add(builder, this.contextKeys[i], this.contextValues[i]);
+                }
+                this.cachedContext = builder.build();
+            }
+        }
+        return this.cachedContext;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void add(EventContext.Builder builder, EventContextKey<T> key, Object value) {
+        builder.add(key, (T) value);
+    }
+
+    @Override
+    public CauseStackManager pushCause(Object obj) {
+        checkNotNull(obj, "obj");
+        if (this.causeCount == this.causes.length) {
+            this.causes = Arrays.copyOf(this.causes, this.causeCount * 2);
+        }
+        // Consecutive duplicates are not part of the cause
+        if (this.causeCount == 0 || this.causes[this.causeCount - 1] != obj) {
+            this.cachedCause = null;
+        }
+        this.causes[this.causeCount++] = obj;
+        return this;
+    }
+
+    @Override
+    public Object popCause() {
+        final int base = this.frameCount == 0 ? 0 : this.frames[this.frameCount - 1].causeBase;
+        checkState(this.causeCount > base, "Cause stack corruption, tried to pop more objects off than were pushed since last frame");
+        final Object cause = this.causes[--this.causeCount];
+        this.causes[this.causeCount] = null;
+        if (this.causeCount == 0 || this.causes[this.causeCount - 1] != cause) {
+            this.cachedCause = null;
+        }
+        return cause;
+    }
+
+    @Override
+    public void popCauses(int n) {
+        for (int i = 0; i < n; i++) {
+            popCause();
+        }
+    }
+
+    @Override
+    public Object peekCause() {
+        checkState(this.causeCount > 0, "The cause stack is empty");
+        return this.causes[this.causeCount - 1];
+    }
+
+    @Override
+    public StackFrame pushCauseFrame() {
+        if (this.frameCount == this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, this.frameCount * 2);
+        }
+        Frame frame = this.frames[this.frameCount];
+        if (frame == null) {
+            frame = new Frame();
+            this.frames[this.frameCount] = frame;
+        }
+        frame.causeBase = this.causeCount;
+        this.frameCount++;
+        return new FrameHandle(frame, frame.generation);
+    }
+
+    @Override
+    public void popCauseFrame(StackFrame handle) {
+        checkNotNull(handle, "handle");
+        checkArgument(handle instanceof FrameHandle, "The frame was not pushed by this manager");
+        final Frame target = ((FrameHandle) handle).checkCurrent();
+        int index = this.frameCount - 1;
+        while (index >= 0 && this.frames[index] != target) {
+            index--;
+        }
+        checkArgument(index >= 0, "The frame is not on the stack");
+        // Frames pushed on top of the given one are closed with it
+        while (this.frameCount > index) {
+            final Frame frame = this.frames[--this.frameCount];
+            while (this.causeCount > frame.causeBase) {
+                final Object cause = this.causes[--this.causeCount];
+                this.causes[this.causeCount] = null;
+                if (this.causeCount == 0 || this.causes[this.causeCount - 1] != cause) {
+                    this.cachedCause = null;
+                }
+            }
+            for (int i = frame.changeCount - 1; i >= 0; i--) {
+                setContext(frame.changedKeys[i], frame.oldValues[i]);
+            }
+            frame.clear();
+        }
+    }
+
+    @Override
+    public <T> CauseStackManager addContext(EventContextKey<T> key, T value) {
+        checkNotNull(key, "key");
+        checkNotNull(value, "value");
+        recordChange(key);
+        setContext(key, value);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Optional<T> getContext(EventContextKey<T> key) {
+        checkNotNull(key, "key");
+        final int index = indexOf(key);
+        return index < 0 ? Optional.empty() : Optional.of((T) this.contextValues[index]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Optional<T> removeContext(EventContextKey<T> key) {
+        checkNotNull(key, "key");
+        final int index = indexOf(key);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        final T value = (T) this.contextValues[index];
+        recordChange(key);
+        setContext(key, null);
+        return Optional.of(value);
+    }
+
+    private int indexOf(EventContextKey<?> key) {
+        // Contexts are small, a scan beats hashing
+        for (int i = 0; i < this.contextCount; i++) {
+            if (this.contextKeys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void recordChange(EventContextKey<?> key) {
+        if (this.frameCount > 0) {
+            final int index = indexOf(key);
+            this.frames[this.frameCount - 1].record(key, index < 0 ? null : this.contextValues[index]);
+        }
+    }
+
+    private void setContext(EventContextKey<?> key, @Nullable Object value) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            if (value == null) {
+                this.contextCount--;
+                System.arraycopy(this.contextKeys, index + 1, this.contextKeys, index, this.contextCount - index);
+                System.arraycopy(this.contextValues, index + 1, this.contextValues, index, this.contextCount - index);
+                this.contextKeys[this.contextCount] = null;
+                this.contextValues[this.contextCount] = null;
+            } else if (this.contextValues[index] == value) {
+                return;
+            } else {
+                this.contextValues[index] = value;
+            }
+        } else if (value != null) {
+            if (this.contextCount == this.contextKeys.length) {
+                this.contextKeys = Arrays.copyOf(this.contextKeys, this.contextCount * 2);
+                this.contextValues = Arrays.copyOf(this.contextValues, this.contextCount * 2);
+            }
+            this.contextKeys[this.contextCount] = key;
+            this.contextValues[this.contextCount++] = value;
+        } else {
+            return;
+        }
+        this.cachedContext = null;
+        this.cachedCause = null;
+    }
+
+    private static final class Frame {
+
+        // Incremented whenever the frame is popped, which invalidates its handle
+        int generation;
+        int causeBase;
+        EventContextKey<?>[] changedKeys = new EventContextKey<?>[4];
+        @Nullable Object[] oldValues = new Object[4];
+        int changeCount;
+
+        void record(EventContextKey<?> key, @Nullable Object oldValue) {
+            for (int i = 0; i < this.changeCount; i++) {
+                if (this.changedKeys[i].equals(key)) {
+                    // Only the value before the first change is restored
+                    return;
+                }
+            }
+            if (this.changeCount == this.changedKeys.length) {
+                this.changedKeys = Arrays.copyOf(this.changedKeys, this.changeCount * 2);
+                this.oldValues = Arrays.copyOf(this.oldValues, this.changeCount * 2);
+            }
+            this.changedKeys[this.changeCount] = key;
+            this.oldValues[this.changeCount++] = oldValue;
+        }
+
+        void clear() {
+            this.generation++;
+            Arrays.fill(this.changedKeys, 0, this.changeCount, null);
+            Arrays.fill(this.oldValues, 0, this.changeCount, null);
+            this.changeCount = 0;
+        }
+
+    }
+
+    private final class FrameHandle implements StackFrame {
+
+        private final Frame frame;
+        private final int generation;
+
+        FrameHandle(Frame frame, int generation) {
+            this.frame = frame;
+            this.generation = generation;
+        }
+
+        Frame checkCurrent() {
+            checkState(this.frame.generation == this.generation, "The frame was already popped");
+            return this.frame;
+        }
+
+        @Override
+        public Cause getCurrentCause() {
+            checkCurrent();
+            return SimpleCauseStackManager.this.getCurrentCause();
+        }
+
+        @Override
+        public EventContext getCurrentContext() {
+            checkCurrent();
+            return SimpleCauseStackManager.this.getCurrentContext();
+        }
+
+        @Override
+        public StackFrame pushCause(Object obj) {
+            checkCurrent();
+            SimpleCauseStackManager.this.pushCause(obj);
+            return this;
+        }
+
+        @Override
+        public Object popCause() {
+            checkCurrent();
+            return SimpleCauseStackManager.this.popCause();
+        }
+
+        @Override
+        public <T> StackFrame addContext(EventContextKey<T> key, T value) {
+            checkCurrent();
+            SimpleCauseStackManager.this.addContext(key, value);
+            return this;
+        }
+
+        @Override
+        public <T> Optional<T> removeContext(EventContextKey<T> key) {
+            checkCurrent();
+            return SimpleCauseStackManager.this.removeContext(key);
+        }
+
+        @Override
+        public void close() {
+            // Frames may already have been popped explicitly, or together with an outer frame
+            if (this.frame.generation == this.generation) {
+                popCauseFrame(this);
+            }
+        }
+
+    }
+
+}
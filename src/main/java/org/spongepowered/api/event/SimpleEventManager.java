@@ -0,0 +1,605 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import com.google.inject.Singleton;
+import org.spongepowered.api.Platform;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.api.util.generator.event.ListenerClassGenerator;
+import org.spongepowered.api.util.generator.event.ListenerDispatcher;
+import org.spongepowered.api.util.generator.event.ListenerFilterCompiler;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+/**
+ * A simple implementation of {@link EventManager}.
+ *
+ * <p>Listeners are not looked up when an event is posted. Instead, the
+ * listeners for every concrete event class are collected once, ordered by
+ * {@link Listener#beforeModifications()} and {@link Order}, and baked into a
+ * {@link ListenerDispatcher} generated for that class. Registering or
+ * un-registering a listener discards the dispatchers of the event classes it
+ * applies to, which are then rebuilt the next time such an event is
+ * posted. Listener methods are compiled by the
+ * {@link ListenerFilterCompiler}, whose {@code @Include} and {@code @Exclude}
+ * filters are applied while a dispatcher is built, so a listener filtered
+ * out for an event class is not part of its dispatcher at all.</p>
+ *
+ * <p>Every event class queried through {@link #hasListeners(Class)} is given
+ * a dense id, and whether it has listeners is kept in an immutable
+ * {@link BitSet} that is replaced whenever the registered listeners change,
+ * so the check is a lock-free map lookup and a bit test.</p>
+ *
+ * <p>{@link #postAsync(Event)} calls the same ordered listeners one after the
+ * other, but runs listeners marked with {@link Listener#async()} on the async
+ * executor and hands every other listener back to the main thread.</p>
+ *
+ * <p>Every registration doubles as the {@link ListenerMetrics} of its
+ * listener. Its counters are {@link LongAdder}s, which neither take locks
+ * nor contend between threads. The generated dispatchers time each listener
+ * at its own call site, so recording keeps the listeners out of a shared
+ * call site. Recording can be turned off through
+ * {@link #setListenerMetricsEnabled(boolean)}, the dispatchers are then
+ * rebuilt without any timing code.</p>
+ */
+@Singleton
+public class SimpleEventManager implements EventManager {
+
+    private static final Comparator<RegisteredListener> ORDER = Comparator
+            .comparing((RegisteredListener listener) -> !listener.beforeModifications)
+            .thenComparing(listener -> listener.order);
+
+    private static final Predicate<Class<?>> ALL_TYPES = eventClass -> true;
+
+    private final Object lock = new Object();
+    private final PluginManager pluginManager;
+    private final Executor syncExecutor;
+    private final Executor asyncExecutor;
+    private final ListenerClassGenerator generator = new ListenerClassGenerator();
+    private final ListenerFilterCompiler filterCompiler = new ListenerFilterCompiler(this.generator);
+    private final List<RegisteredListener> listeners = new ArrayList<>();
+    private final ConcurrentMap<Class<?>, ListenerDispatcher> dispatchers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, RegisteredListener[]> orderedListeners = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Integer> typeIds = new ConcurrentHashMap<>();
+    private volatile BitSet listenedTypes = new BitSet();
+    private volatile boolean metricsEnabled = true;
+
+    /**
+     * Construct a simple {@link EventManager}.
+     *
+     * @param pluginManager The plugin manager to get the
+     *            {@link PluginContainer} for a given plugin
+     */
+    @Inject
+    public SimpleEventManager(PluginManager pluginManager) {
+        this(pluginManager, task -> Sponge.getScheduler().createTaskBuilder().execute(task)
+                .submit(Sponge.getPlatform().getContainer(Platform.Component.IMPLEMENTATION)), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construct a simple {@link EventManager} with the executors used by
+     * {@link #postAsync(Event)}.
+     *
+     * @param pluginManager The plugin manager to get the
+     *            {@link PluginContainer} for a given plugin
+     * @param syncExecutor The executor running tasks on the main thread
+     * @param asyncExecutor The executor running asynchronous listeners
+     */
+    public SimpleEventManager(PluginManager pluginManager, Executor syncExecutor, Executor asyncExecutor) {
+        checkNotNull(pluginManager, "pluginManager");
+        checkNotNull(syncExecutor, "syncExecutor");
+        checkNotNull(asyncExecutor, "asyncExecutor");
+        this.pluginManager = pluginManager;
+        this.syncExecutor = syncExecutor;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    public void registerListeners(Object plugin, Object obj) {
+        checkNotNull(obj, "obj");
+        final PluginContainer container = getPlugin(plugin);
+        final List<RegisteredListener> found = new ArrayList<>();
+        for (Method method : obj.getClass().getMethods()) {
+            final Listener annotation = method.getAnnotation(Listener.class);
+            if (annotation == null) {
+                continue;
+            }
+            if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() != void.class || method.getParameterCount() == 0
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])
+                    || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                container.getLogger().warn("Skipping invalid listener method {}, listeners must be public, non-static, return void "
+                        + "and take an event as first parameter", method);
+                continue;
+            }
+            try {
+                found.add(new RegisteredListener(container, obj, method.getParameterTypes()[0], ListenerFilterCompiler.compileTypeFilter(method),
+                        annotation.order(), annotation.beforeModifications(), annotation.async(), this.filterCompiler.compile(obj, method)));
+            } catch (IllegalArgumentException e) {
+                container.getLogger().warn("Skipping invalid listener method {}: {}", method, e.getMessage());
+            }
+        }
+        register(found);
+    }
+
+    @Override
+    public <T extends Event> void registerListener(Object plugin, Class<T> eventClass, EventListener<? super T> listener) {
+        registerListener(plugin, eventClass, Order.DEFAULT, listener);
+    }
+
+    @Override
+    public <T extends Event> void registerListener(Object plugin, TypeToken<T> eventType, EventListener<? super T> listener) {
+        registerListener(plugin, eventType, Order.DEFAULT, listener);
+    }
+
+    @Override
+    public <T extends Event> void registerListener(Object plugin, Class<T> eventClass, Order order, EventListener<? super T> listener) {
+        registerListener(plugin, eventClass, order, false, listener);
+    }
+
+    @Override
+    public <T extends Event> void registerListener(Object plugin, TypeToken<T> eventType, Order order, EventListener<? super T> listener) {
+        registerListener(plugin, eventType, order, false, listener);
+    }
+
+    @Override
+    public <T extends Event> void registerListener(Object plugin, Class<T> eventClass, Order order, boolean beforeModifications,
+            EventListener<? super T> listener) {
+        checkNotNull(eventClass, "eventClass");
+        checkNotNull(order, "order");
+        checkNotNull(listener, "listener");
+        final List<RegisteredListener> found = new ArrayList<>(1);
+        found.add(new RegisteredListener(getPlugin(plugin), listener, eventClass, ALL_TYPES, order, beforeModifications, false, listener));
+        register(found);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends Event> void registerListener(Object plugin, TypeToken<T> eventType, Order order, boolean beforeModifications,
+            EventListener<? super T> listener) {
+        checkNotNull(eventType, "eventType");
+        checkNotNull(order, "order");
+        checkNotNull(listener, "listener");
+        final Class<? super T> eventClass = eventType.getRawType();
+        EventListener<?> handler = listener;
+        if (eventType.getType() instanceof ParameterizedType && GenericEvent.class.isAssignableFrom(eventClass)) {
+            final TypeToken<?> expected = eventType.resolveType(GenericEvent.class.getTypeParameters()[0]);
+            final EventListener<Event> delegate = (EventListener<Event>) listener;
+            handler = new GenericListener(expected, delegate);
+        }
+        final List<RegisteredListener> found = new ArrayList<>(1);
+        found.add(new RegisteredListener(getPlugin(plugin), listener, eventClass, ALL_TYPES, order, beforeModifications, false, handler));
+        register(found);
+    }
+
+    @Override
+    public void unregisterListeners(Object obj) {
+        checkNotNull(obj, "obj");
+        unregister(listener -> listener.owner.equals(obj));
+    }
+
+    @Override
+    public void unregisterPluginListeners(Object plugin) {
+        final PluginContainer container = getPlugin(plugin);
+        unregister(listener -> listener.plugin.equals(container));
+    }
+
+    @Override
+    public boolean post(Event event) {
+        checkNotNull(event, "event");
+        getDispatcher(event.getClass()).dispatch(event);
+        return isCancelled(event);
+    }
+
+    @Override
+    public <T extends Event> boolean post(Class<T> eventClass, Supplier<? extends T> eventFactory) {
+        checkNotNull(eventFactory, "eventFactory");
+        return hasListeners(eventClass) && post(eventFactory.get());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> postAsync(Event event) {
+        checkNotNull(event, "event");
+        final RegisteredListener[] listeners = getOrderedListeners(event.getClass());
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+        int start = 0;
+        while (start < listeners.length) {
+            // Run every sequence of listeners with the same thread affinity as one task, one after the other
+            final boolean async = listeners[start].async;
+            int end = start + 1;
+            while (end < listeners.length && listeners[end].async == async) {
+                end++;
+            }
+            final int from = start;
+            final int to = end;
+            future = future.thenRunAsync(() -> call(listeners, from, to, event, this.metricsEnabled),
+                    async ? this.asyncExecutor : this.syncExecutor);
+            start = end;
+        }
+        return future.thenApply(ignored -> isCancelled(event));
+    }
+
+    @Override
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        checkNotNull(eventClass, "eventClass");
+        @Nullable Integer id = this.typeIds.get(eventClass);
+        if (id == null) {
+            synchronized (this.lock) {
+                id = this.typeIds.get(eventClass);
+                if (id == null) {
+                    id = this.typeIds.size();
+                    final BitSet types = (BitSet) this.listenedTypes.clone();
+                    types.set(id, computeHasListeners(eventClass));
+                    // Publish the bit before the id, readers that see the id see the bit
+                    this.listenedTypes = types;
+                    this.typeIds.put(eventClass, id);
+                }
+            }
+        }
+        return this.listenedTypes.get(id);
+    }
+
+    @Override
+    public Collection<ListenerMetrics> getListenerMetrics() {
+        synchronized (this.lock) {
+            return ImmutableList.copyOf(this.listeners);
+        }
+    }
+
+    @Override
+    public Collection<ListenerMetrics> getListenerMetrics(Class<? extends Event> eventClass) {
+        checkNotNull(eventClass, "eventClass");
+        return selectMetrics(listener -> listener.eventClass.isAssignableFrom(eventClass) && listener.typeFilter.test(eventClass));
+    }
+
+    @Override
+    public Collection<ListenerMetrics> getPluginListenerMetrics(Object plugin) {
+        final PluginContainer container = getPlugin(plugin);
+        return selectMetrics(listener -> listener.plugin.equals(container));
+    }
+
+    @Override
+    public void resetListenerMetrics() {
+        synchronized (this.lock) {
+            this.listeners.forEach(RegisteredListener::reset);
+        }
+    }
+
+    /**
+     * Gets whether the {@link ListenerMetrics} of the listeners are recorded.
+     *
+     * @return True if the metrics are recorded
+     */
+    public boolean isListenerMetricsEnabled() {
+        return this.metricsEnabled;
+    }
+
+    /**
+     * Sets whether the {@link ListenerMetrics} of the listeners are recorded,
+     * they are recorded by default.
+     *
+     * @param enabled Whether to record the metrics
+     */
+    public void setListenerMetricsEnabled(boolean enabled) {
+        synchronized (this.lock) {
+            if (this.metricsEnabled != enabled) {
+                this.metricsEnabled = enabled;
+                this.dispatchers.clear();
+            }
+        }
+    }
+
+    private Collection<ListenerMetrics> selectMetrics(Predicate<RegisteredListener> filter) {
+        final ImmutableList.Builder<ListenerMetrics> builder = ImmutableList.builder();
+        synchronized (this.lock) {
+            for (RegisteredListener listener : this.listeners) {
+                if (filter.test(listener)) {
+                    builder.add(listener);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private PluginContainer getPlugin(Object plugin) {
+        checkNotNull(plugin, "plugin");
+        final Optional<PluginContainer> containerOptional = this.pluginManager.fromInstance(plugin);
+        if (!containerOptional.isPresent()) {
+            throw new IllegalArgumentException(
+                    "The provided plugin object does not have an associated plugin container "
+                            + "(in other words, is 'plugin' actually your plugin object?)");
+        }
+        return containerOptional.get();
+    }
+
+    private void register(List<RegisteredListener> found) {
+        if (found.isEmpty()) {
+            return;
+        }
+        synchronized (this.lock) {
+            this.listeners.addAll(found);
+            for (RegisteredListener listener : found) {
+                invalidate(listener.eventClass);
+            }
+            updateListenedTypes();
+        }
+    }
+
+    private void unregister(Predicate<RegisteredListener> filter) {
+        synchronized (this.lock) {
+            this.listeners.removeIf(listener -> {
+                if (filter.test(listener)) {
+                    invalidate(listener.eventClass);
+                    return true;
+                }
+                return false;
+            });
+            updateListenedTypes();
+        }
+    }
+
+    private void invalidate(Class<?> eventClass) {
+        this.dispatchers.keySet().removeIf(eventClass::isAssignableFrom);
+        this.orderedListeners.keySet().removeIf(eventClass::isAssignableFrom);
+    }
+
+    private void updateListenedTypes() {
+        final BitSet types = new BitSet(this.typeIds.size());
+        for (Map.Entry<Class<?>, Integer> entry : this.typeIds.entrySet()) {
+            types.set(entry.getValue(), computeHasListeners(entry.getKey()));
+        }
+        this.listenedTypes = types;
+    }
+
+    private boolean computeHasListeners(Class<?> eventClass) {
+        for (RegisteredListener listener : this.listeners) {
+            // The posted event may be any sub type of the queried class
+            if (listener.eventClass.isAssignableFrom(eventClass) || eventClass.isAssignableFrom(listener.eventClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ListenerDispatcher getDispatcher(Class<?> eventClass) {
+        @Nullable ListenerDispatcher dispatcher = this.dispatchers.get(eventClass);
+        if (dispatcher == null) {
+            synchronized (this.lock) {
+                dispatcher = this.dispatchers.get(eventClass);
+                if (dispatcher == null) {
+                    dispatcher = bake(eventClass);
+                    this.dispatchers.put(eventClass, dispatcher);
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    private RegisteredListener[] getOrderedListeners(Class<?> eventClass) {
+        @Nullable RegisteredListener[] ordered = this.orderedListeners.get(eventClass);
+        if (ordered == null) {
+            synchronized (this.lock) {
+                ordered = this.orderedListeners.get(eventClass);
+                if (ordered == null) {
+                    ordered = collect(eventClass);
+                    this.orderedListeners.put(eventClass, ordered);
+                }
+            }
+        }
+        return ordered;
+    }
+
+    private ListenerDispatcher bake(Class<?> eventClass) {
+        final RegisteredListener[] registrations = getOrderedListeners(eventClass);
+        final EventListener<?>[] handlers = new EventListener<?>[registrations.length];
+        for (int i = 0; i < registrations.length; i++) {
+            handlers[i] = registrations[i].handler;
+        }
+        return this.generator.createDispatcher(eventClass, handlers, (index, event, error) -> handleError(registrations[index], event, error),
+                this.metricsEnabled ? (index, nanos, cancelled) -> registrations[index].record(nanos, cancelled) : null);
+    }
+
+    private RegisteredListener[] collect(Class<?> eventClass) {
+        final List<RegisteredListener> applicable = new ArrayList<>();
+        for (RegisteredListener listener : this.listeners) {
+            if (listener.eventClass.isAssignableFrom(eventClass) && listener.typeFilter.test(eventClass)) {
+                applicable.add(listener);
+            }
+        }
+        // Stable, listeners with the same order are called in registration order
+        applicable.sort(ORDER);
+        return applicable.toArray(new RegisteredListener[applicable.size()]);
+    }
+
+    private static void handleError(RegisteredListener listener, Event event, Throwable throwable) {
+        listener.plugin.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), listener.handler, throwable);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void call(RegisteredListener[] listeners, int from, int to, Event event, boolean record) {
+        for (int i = from; i < to; i++) {
+            final boolean wasCancelled = record && isCancelled(event);
+            final long start = record ? System.nanoTime() : 0;
+            try {
+                ((EventListener<Event>) listeners[i].handler).handle(event);
+            } catch (Throwable t) {
+                handleError(listeners[i], event, t);
+            }
+            if (record) {
+                listeners[i].record(System.nanoTime() - start, !wasCancelled && isCancelled(event));
+            }
+        }
+    }
+
+    private static boolean isCancelled(Event event) {
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+
+    private static final class RegisteredListener implements ListenerMetrics {
+
+        final PluginContainer plugin;
+        final Object owner;
+        final Class<?> eventClass;
+        final Predicate<Class<?>> typeFilter;
+        final Order order;
+        final boolean beforeModifications;
+        final boolean async;
+        final EventListener<?> handler;
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder cancellations = new LongAdder();
+
+        RegisteredListener(PluginContainer plugin, Object owner, Class<?> eventClass, Predicate<Class<?>> typeFilter, Order order,
+                boolean beforeModifications, boolean async, EventListener<?> handler) {
+            this.plugin = plugin;
+            this.owner = owner;
+            this.eventClass = eventClass;
+            this.typeFilter = typeFilter;
+            this.order = order;
+            this.beforeModifications = beforeModifications;
+            this.async = async;
+            this.handler = handler;
+        }
+
+        void record(long nanos, boolean cancelled) {
+            this.invocations.increment();
+            this.totalNanos.add(nanos);
+            long max = this.maxNanos.get();
+            while (nanos > max && !this.maxNanos.compareAndSet(max, nanos)) {
+                max = this.maxNanos.get();
+            }
+            if (cancelled) {
+                this.cancellations.increment();
+            }
+        }
+
+        @Override
+        public PluginContainer getPlugin() {
+            return this.plugin;
+        }
+
+        @Override
+        public Class<?> getEventClass() {
+            return this.eventClass;
+        }
+
+        @Override
+        public Order getOrder() {
+            return this.order;
+        }
+
+        @Override
+        public String getName() {
+            return this.handler.toString();
+        }
+
+        @Override
+        public long getInvocationCount() {
+            return this.invocations.sum();
+        }
+
+        @Override
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return this.maxNanos.get();
+        }
+
+        @Override
+        public long getCancellationCount() {
+            return this.cancellations.sum();
+        }
+
+        @Override
+        public void reset() {
+            this.invocations.reset();
+            this.totalNanos.reset();
+            this.maxNanos.set(0);
+            this.cancellations.reset();
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+
+    }
+
+    private static final class GenericListener implements EventListener<Event> {
+
+        private final TypeToken<?> expected;
+        private final EventListener<Event> delegate;
+
+        GenericListener(TypeToken<?> expected, EventListener<Event> delegate) {
+            this.expected = expected;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void handle(Event event) throws Exception {
+            if (event instanceof GenericEvent && this.expected.isSupertypeOf(((GenericEvent<?>) event).getGenericType())) {
+                this.delegate.handle(event);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.delegate.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,415 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event.block;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ImmutableList;
+import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.data.Transaction;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nullable;
+
+/**
+ * A columnar batch of block changes, as passed by a
+ * {@link ChangeBlockEvent.Batch}.
+ *
+ * <p>Instead of one {@link Transaction} per block,
+ * the changes are stored as parallel arrays: the positions as consecutive
+ * {@code x, y, z} triples, and the original and final block states as indices
+ * into a shared palette of {@link BlockState}s. Whether each change is
+ * applied is tracked in a {@link BitSet}, so large batches can be inspected
+ * and invalidated in a single pass without creating an object per
+ * block.</p>
+ *
+ * <p>The arrays returned by {@link #getPositions()},
+ * {@link #getOriginalStateIndices()} and {@link #getFinalStateIndices()}
+ * are the backing arrays of the batch and must not be modified.</p>
+ *
+ * <p>For code which only understands {@link Transaction}s, the changes can
+ * also be viewed as a list of transactions through
+ * {@link #getTransactions(World)}. A transaction is only created when its
+ * element is first requested, and shares its validity with the batch.</p>
+ */
+public class BlockChangeBatch {
+
+    private final int[] positions;
+    private final List<BlockState> palette;
+    private final int[] originalStates;
+    private final int[] finalStates;
+    // Holds the validity of every change without a created transaction,
+    // the validity of a created transaction is stored by the transaction
+    private final BitSet valid;
+    @Nullable private Transaction<BlockSnapshot>[] transactions;
+    @Nullable private List<Transaction<BlockSnapshot>> transactionList;
+
+    /**
+     * Creates a new batch, in which all changes are valid.
+     *
+     * @param positions The positions of the changes, as consecutive
+     *     {@code x, y, z} triples
+     * @param palette The block states referenced by the state indices
+     * @param originalStates The palette indices of the original states
+     * @param finalStates The palette indices of the final states
+     */
+    public BlockChangeBatch(int[] positions, List<BlockState> palette, int[] originalStates, int[] finalStates) {
+        checkNotNull(positions, "positions");
+        checkNotNull(palette, "palette");
+        checkNotNull(originalStates, "originalStates");
+        checkNotNull(finalStates, "finalStates");
+        final int size = originalStates.length;
+        checkArgument(positions.length == size * 3, "Expected %s positions, but got %s coordinates", size, positions.length);
+        checkArgument(finalStates.length == size, "Expected %s final states, but got %s", size, finalStates.length);
+        this.palette = ImmutableList.copyOf(palette);
+        for (int i = 0; i < size; i++) {
+            checkArgument(originalStates[i] >= 0 && originalStates[i] < this.palette.size(), "Invalid palette index %s", originalStates[i]);
+            checkArgument(finalStates[i] >= 0 && finalStates[i] < this.palette.size(), "Invalid palette index %s", finalStates[i]);
+        }
+        this.positions = positions;
+        this.originalStates = originalStates;
+        this.finalStates = finalStates;
+        this.valid = new BitSet(size);
+        this.valid.set(0, size);
+    }
+
+    /**
+     * Gets the number of changes in this batch.
+     *
+     * @return The number of changes
+     */
+    public int size() {
+        return this.originalStates.length;
+    }
+
+    /**
+     * Gets the x coordinate of a change.
+     *
+     * @param index The index of the change
+     * @return The x coordinate
+     */
+    public int getX(int index) {
+        return this.positions[checkIndex(index) * 3];
+    }
+
+    /**
+     * Gets the y coordinate of a change.
+     *
+     * @param index The index of the change
+     * @return The y coordinate
+     */
+    public int getY(int index) {
+        return this.positions[checkIndex(index) * 3 + 1];
+    }
+
+    /**
+     * Gets the z coordinate of a change.
+     *
+     * @param index The index of the change
+     * @return The z coordinate
+     */
+    public int getZ(int index) {
+        return this.positions[checkIndex(index) * 3 + 2];
+    }
+
+    /**
+     * Gets the position of a change.
+     *
+     * @param index The index of the change
+     * @return The position
+     */
+    public Vector3i getPosition(int index) {
+        final int offset = checkIndex(index) * 3;
+        return new Vector3i(this.positions[offset], this.positions[offset + 1], this.positions[offset + 2]);
+    }
+
+    /**
+     * Gets the positions of all changes, as consecutive {@code x, y, z}
+     * triples.
+     *
+     * @return The positions, which must not be modified
+     */
+    public int[] getPositions() {
+        return this.positions;
+    }
+
+    /**
+     * Gets the block states referenced by the state indices.
+     *
+     * @return The palette
+     */
+    public List<BlockState> getPalette() {
+        return this.palette;
+    }
+
+    /**
+     * Gets the palette indices of the original block states.
+     *
+     * @return The original state indices, which must not be modified
+     */
+    public int[] getOriginalStateIndices() {
+        return this.originalStates;
+    }
+
+    /**
+     * Gets the palette indices of the final block states.
+     *
+     * @return The final state indices, which must not be modified
+     */
+    public int[] getFinalStateIndices() {
+        return this.finalStates;
+    }
+
+    /**
+     * Gets the original block state of a change.
+     *
+     * @param index The index of the change
+     * @return The original block state
+     */
+    public BlockState getOriginal(int index) {
+        return this.palette.get(this.originalStates[checkIndex(index)]);
+    }
+
+    /**
+     * Gets the final block state of a change.
+     *
+     * @param index The index of the change
+     * @return The final block state
+     */
+    public BlockState getFinal(int index) {
+        return this.palette.get(this.finalStates[checkIndex(index)]);
+    }
+
+    /**
+     * Gets whether a change will be applied.
+     *
+     * @param index The index of the change
+     * @return True if the change is valid
+     */
+    public boolean isValid(int index) {
+        checkIndex(index);
+        if (this.transactions != null && this.transactions[index] != null) {
+            return this.transactions[index].isValid();
+        }
+        return this.valid.get(index);
+    }
+
+    /**
+     * Sets whether a change will be applied.
+     *
+     * @param index The index of the change
+     * @param valid Whether the change is valid
+     */
+    public void setValid(int index, boolean valid) {
+        this.valid.set(checkIndex(index), valid);
+        if (this.transactions != null && this.transactions[index] != null) {
+            this.transactions[index].setValid(valid);
+        }
+    }
+
+    /**
+     * Sets which changes will be applied, a set bit marks a valid change.
+     * Bits beyond the {@link #size()} of this batch are ignored.
+     *
+     * @param valid The valid changes
+     */
+    public void setValid(BitSet valid) {
+        checkNotNull(valid, "valid");
+        this.valid.clear();
+        this.valid.or(valid);
+        this.valid.clear(size(), Math.max(size(), this.valid.length()));
+        pushValidity();
+    }
+
+    /**
+     * Gets the valid changes, a set bit marks a change that will be
+     * applied.
+     *
+     * @return A copy of the valid changes
+     */
+    public BitSet getValid() {
+        pullValidity();
+        return (BitSet) this.valid.clone();
+    }
+
+    /**
+     * Marks the given changes as invalid, the validity of all other changes
+     * stays the same.
+     *
+     * @param invalid The changes to invalidate
+     */
+    public void invalidate(BitSet invalid) {
+        checkNotNull(invalid, "invalid");
+        pullValidity();
+        this.valid.andNot(invalid);
+        pushValidity();
+    }
+
+    /**
+     * Marks all changes as invalid.
+     */
+    public void invalidateAll() {
+        this.valid.clear();
+        pushValidity();
+    }
+
+    /**
+     * Gets the number of changes that will be applied.
+     *
+     * @return The number of valid changes
+     */
+    public int getValidCount() {
+        pullValidity();
+        return this.valid.cardinality();
+    }
+
+    /**
+     * Gets the changes of this batch as a list of {@link Transaction}s of
+     * {@link BlockSnapshot}s in the given world.
+     *
+     * <p>The transaction of a change is created the first time it is
+     * requested from the list, and is then kept. Changing the validity of
+     * a transaction changes the validity of its change in this batch, and
+     * the other way around. The world of the first call is used for all
+     * later calls.</p>
+     *
+     * @param world The world the changes happen in
+     * @return The unmodifiable list of transactions
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Transaction<BlockSnapshot>> getTransactions(World world) {
+        checkNotNull(world, "world");
+        if (this.transactionList == null) {
+            this.transactions = new Transaction[size()];
+            this.transactionList = new TransactionList(world);
+        }
+        return this.transactionList;
+    }
+
+    /**
+     * Gets a view of the transactions of the changes at the given indices,
+     * see {@link #getTransactions(World)}.
+     *
+     * @param world The world the changes happen in
+     * @param indices The indices of the changes, only the first count are used
+     * @param count The number of indices
+     * @return The unmodifiable list of transactions
+     */
+    List<Transaction<BlockSnapshot>> getTransactions(World world, int[] indices, int count) {
+        return new IndexedTransactionList(getTransactions(world), indices, count);
+    }
+
+    // Copies the validity of the created transactions into the bit set
+    private void pullValidity() {
+        if (this.transactions != null) {
+            for (int i = 0; i < this.transactions.length; i++) {
+                if (this.transactions[i] != null) {
+                    this.valid.set(i, this.transactions[i].isValid());
+                }
+            }
+        }
+    }
+
+    // Copies the validity in the bit set to the created transactions
+    private void pushValidity() {
+        if (this.transactions != null) {
+            for (int i = 0; i < this.transactions.length; i++) {
+                if (this.transactions[i] != null) {
+                    this.transactions[i].setValid(this.valid.get(i));
+                }
+            }
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size() + " changes");
+        }
+        return index;
+    }
+
+    private final class TransactionList extends AbstractList<Transaction<BlockSnapshot>> implements RandomAccess {
+
+        private final World world;
+
+        TransactionList(World world) {
+            this.world = world;
+        }
+
+        @Override
+        public Transaction<BlockSnapshot> get(int index) {
+            final Transaction<BlockSnapshot>[] transactions = BlockChangeBatch.this.transactions;
+            Transaction<BlockSnapshot> transaction = transactions[checkIndex(index)];
+            if (transaction == null) {
+                final Location<World> location = new Location<>(this.world, getPosition(index));
+                transaction = new Transaction<>(getOriginal(index).snapshotFor(location), getFinal(index).snapshotFor(location));
+                transaction.setValid(BlockChangeBatch.this.valid.get(index));
+                transactions[index] = transaction;
+            }
+            return transaction;
+        }
+
+        @Override
+        public int size() {
+            return BlockChangeBatch.this.size();
+        }
+
+    }
+
+    private static final class IndexedTransactionList extends AbstractList<Transaction<BlockSnapshot>> implements RandomAccess {
+
+        private final List<Transaction<BlockSnapshot>> transactions;
+        private final int[] indices;
+        private final int count;
+
+        IndexedTransactionList(List<Transaction<BlockSnapshot>> transactions, int[] indices, int count) {
+            this.transactions = transactions;
+            this.indices = indices;
+            this.count = count;
+        }
+
+        @Override
+        public Transaction<BlockSnapshot> get(int index) {
+            return this.transactions.get(this.indices[checkElementIndex(index, this.count)]);
+        }
+
+        @Override
+        public int size() {
+            return this.count;
+        }
+
+    }
+
+}
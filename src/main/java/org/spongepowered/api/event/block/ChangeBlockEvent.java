@@ -36,9 +36,11 @@
 import org.spongepowered.api.event.Event;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.EventContextKeys;
+import org.spongepowered.api.event.world.TargetWorldEvent;
 import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -113,6 +115,72 @@ interface Pre extends Event, Cancellable {
         List<Location<World>> getLocations();
     }
 
+    /**
+     * Called when a large number of blocks change at once, such as during an
+     * explosion or a bulk edit.
+     *
+     * <p>The changes are passed as a columnar {@link BlockChangeBatch}, so
+     * they can be checked and invalidated without creating a
+     * {@link BlockSnapshot} per block. As this is a {@link ChangeBlockEvent},
+     * listeners for all block changes receive it as well. For them
+     * {@link #getTransactions()} views the batch as transactions, which are
+     * only created for the changes that are actually looked at.</p>
+     */
+    interface Batch extends ChangeBlockEvent, TargetWorldEvent {
+
+        /**
+         * Gets the changes of this event.
+         *
+         * @return The changes
+         */
+        BlockChangeBatch getChanges();
+
+        /**
+         * Gets the changes of this event as {@link Transaction}s, see
+         * {@link BlockChangeBatch#getTransactions(World)}.
+         *
+         * @return The unmodifiable list of transactions
+         */
+        @Override
+        default List<Transaction<BlockSnapshot>> getTransactions() {
+            return getChanges().getTransactions(getTargetWorld());
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>The returned list is a view, which only creates the transaction
+         * of an invalidated change when it is requested. Listeners not
+         * interested in the invalidated transactions may also invalidate
+         * changes directly through {@link BlockChangeBatch#invalidate}.</p>
+         */
+        @Override
+        default List<Transaction<BlockSnapshot>> filter(Predicate<Location<World>> predicate) {
+            final BlockChangeBatch changes = getChanges();
+            final World world = getTargetWorld();
+            int[] invalidated = new int[16];
+            int count = 0;
+            for (int i = 0; i < changes.size(); i++) {
+                if (!predicate.test(new Location<>(world, changes.getPosition(i)))) {
+                    changes.setValid(i, false);
+                    if (count == invalidated.length) {
+                        invalidated = Arrays.copyOf(invalidated, count * 2);
+                    }
+                    invalidated[count++] = i;
+                }
+            }
+            // Transactions are only created for the invalidated changes that
+            // are looked at
+            return changes.getTransactions(world, invalidated, count);
+        }
+
+        @Override
+        default void filterAll() {
+            getChanges().invalidateAll();
+        }
+
+    }
+
     /**
      * Called when specific {@link BlockType}s have a notion of "decaying"
      * for various reasons such that the changes are always caused by
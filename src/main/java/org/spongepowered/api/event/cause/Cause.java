@@ -116,11 +116,15 @@ public static Cause of(EventContext ctx, Iterable<Object> iterable) {
         return builder.build(ctx);
     }
 
+    private static final int[] NO_POSITIONS = new int[0];
+    private static final int MAX_INDEXED_TYPES = 16;
+
     final Object[] cause;
     private final EventContext context;
 
     // lazy load
     @Nullable private ImmutableList<Object> immutableCauses;
+    @Nullable private volatile TypeIndex typeIndex;
 
     /**
      * Constructs a new cause.
@@ -181,12 +185,8 @@ public Object root() {
      * @return The first element of the type, if available
      */
     public <T> Optional<T> first(Class<T> target) {
-        for (Object aCause : this.cause) {
-            if (target.isInstance(aCause)) {
-                return Optional.of((T) aCause);
-            }
-        }
-        return Optional.empty();
+        final int[] positions = positionsOf(target);
+        return positions.length == 0 ? Optional.empty() : Optional.of((T) this.cause[positions[0]]);
     }
 
     /**
@@ -198,12 +198,8 @@ public <T> Optional<T> first(Class<T> target) {
      * @return The last element of the type, if available
      */
     public <T> Optional<T> last(Class<T> target) {
-        for (int i = this.cause.length - 1; i >= 0; i--) {
-            if (target.isInstance(this.cause[i])) {
-                return Optional.of((T) this.cause[i]);
-            }
-        }
-        return Optional.empty();
+        final int[] positions = positionsOf(target);
+        return positions.length == 0 ? Optional.empty() : Optional.of((T) this.cause[positions[positions.length - 1]]);
     }
 
     /**
@@ -218,9 +214,9 @@ public Optional<?> before(Class<?> clazz) {
         if (this.cause.length == 1) {
             return Optional.empty();
         }
-        for (int i = 0; i < this.cause.length; i++) {
-            if (clazz.isInstance(this.cause[i]) && i > 0) {
-                return Optional.of(this.cause[i - 1]);
+        for (int position : positionsOf(clazz)) {
+            if (position > 0) {
+                return Optional.of(this.cause[position - 1]);
             }
         }
         return Optional.empty();
@@ -238,9 +234,9 @@ public Optional<?> after(Class<?> clazz) {
         if (this.cause.length == 1) {
             return Optional.empty();
         }
-        for (int i = 0; i < this.cause.length; i++) {
-            if (clazz.isInstance(this.cause[i]) && i + 1 < this.cause.length) {
-                return Optional.of(this.cause[i + 1]);
+        for (int position : positionsOf(clazz)) {
+            if (position + 1 < this.cause.length) {
+                return Optional.of(this.cause[position + 1]);
             }
         }
         return Optional.empty();
@@ -255,13 +251,7 @@ public Optional<?> after(Class<?> clazz) {
      */
     public boolean containsType(Class<?> target) {
         checkArgument(target != null, "The provided class cannot be null!");
-        for (Object aCause : this.cause) {
-            if (target.isInstance(aCause)) {
-                return true;
-            }
-        }
-
-        return false;
+        return positionsOf(target).length != 0;
     }
 
     /**
@@ -290,13 +280,12 @@ public boolean contains(Object object) {
      * @return An immutable list of the objects queried
      */
     public <T> List<T> allOf(Class<T> target) {
-        ImmutableList.Builder<T> builder = ImmutableList.builder();
-        for (Object aCause : this.cause) {
-            if (target.isInstance(aCause)) {
-                builder.add((T) aCause);
-            }
+        final int[] positions = positionsOf(target);
+        final Object[] objects = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            objects[i] = this.cause[positions[i]];
         }
-        return builder.build();
+        return (List<T>) ImmutableList.copyOf(objects);
     }
 
     /**
@@ -307,13 +296,18 @@ public <T> List<T> allOf(Class<T> target) {
      * @return The list of objects not an instance of the provided class
      */
     public List<Object> noneOf(Class<?> ignoredClass) {
-        ImmutableList.Builder<Object> builder = ImmutableList.builder();
-        for (Object cause : this.cause) {
-            if (!ignoredClass.isInstance(cause)) {
-                builder.add(cause);
+        final int[] positions = positionsOf(ignoredClass);
+        final Object[] objects = new Object[this.cause.length - positions.length];
+        int next = 0;
+        int index = 0;
+        for (int i = 0; i < this.cause.length; i++) {
+            if (next < positions.length && positions[next] == i) {
+                next++;
+            } else {
+                objects[index++] = this.cause[i];
             }
         }
-        return builder.build();
+        return ImmutableList.copyOf(objects);
     }
 
     /**
@@ -391,6 +385,41 @@ public Cause with(Cause cause) {
         return builder.build(this.context);
     }
 
+    /**
+     * Gets the positions of the objects that are instances of the given class,
+     * memoizing the result for repeated queries of the same class.
+     */
+    private int[] positionsOf(Class<?> target) {
+        checkNotNull(target, "target");
+        @Nullable final TypeIndex index = this.typeIndex;
+        if (index != null) {
+            for (int i = 0; i < index.types.length; i++) {
+                if (index.types[i] == target) {
+                    return index.positions[i];
+                }
+            }
+        }
+        int count = 0;
+        for (Object aCause : this.cause) {
+            if (target.isInstance(aCause)) {
+                count++;
+            }
+        }
+        final int[] positions = count == 0 ? NO_POSITIONS : new int[count];
+        for (int i = 0, j = 0; j < count; i++) {
+            if (target.isInstance(this.cause[i])) {
+                positions[j++] = i;
+            }
+        }
+        // Racing queries may drop each other's entries, which only costs a recomputation
+        if (index == null) {
+            this.typeIndex = new TypeIndex(new Class<?>[] {target}, new int[][] {positions});
+        } else if (index.types.length < MAX_INDEXED_TYPES) {
+            this.typeIndex = index.with(target, positions);
+        }
+        return positions;
+    }
+
     @Override
     public Iterator<Object> iterator() {
         return new Itr();
@@ -420,6 +449,30 @@ public String toString() {
         return causeString + joiner.toString() + "}]";
     }
 
+    /**
+     * An immutable map from queried classes to the positions of their
+     * instances, replaced as a whole when a class is added.
+     */
+    private static final class TypeIndex {
+
+        final Class<?>[] types;
+        final int[][] positions;
+
+        TypeIndex(Class<?>[] types, int[][] positions) {
+            this.types = types;
+            this.positions = positions;
+        }
+
+        TypeIndex with(Class<?> type, int[] positions) {
+            final Class<?>[] newTypes = Arrays.copyOf(this.types, this.types.length + 1);
+            final int[][] newPositions = Arrays.copyOf(this.positions, this.positions.length + 1);
+            newTypes[this.types.length] = type;
+            newPositions[this.positions.length] = positions;
+            return new TypeIndex(newTypes, newPositions);
+        }
+
+    }
+
     private class Itr implements Iterator<Object> {
 
         private int index = 0;
@@ -28,9 +28,9 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
 import org.spongepowered.api.util.ResettableBuilder;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -45,7 +45,9 @@
  */
 public final class EventContext {
 
-    private static final EventContext EMPTY_CONTEXT = new EventContext(ImmutableMap.of());
+    private static final long[] NO_KEYS = new long[0];
+    private static final Object[] NO_VALUES = new Object[0];
+    private static final EventContext EMPTY_CONTEXT = new EventContext(NO_KEYS, NO_VALUES);
 
     /**
      * Gets an empty context.
@@ -64,10 +66,12 @@ public static EventContext empty() {
      */
     public static EventContext of(Map<EventContextKey<?>, Object> entries) {
         checkNotNull(entries, "Context entries cannot be null");
+        final Builder builder = builder();
         for (Map.Entry<EventContextKey<?>, Object> entry : entries.entrySet()) {
             checkNotNull(entry.getValue(), "Entries cannot contain null values");
+            builder.put(entry.getKey(), entry.getValue());
         }
-        return new EventContext(entries);
+        return builder.build();
     }
 
     /**
@@ -79,10 +83,18 @@ public static Builder builder() {
         return new Builder();
     }
 
-    private final Map<EventContextKey<?>, Object> entries;
+    // A bit per EventContextKeyIndex index, set if the key is present, trimmed to the last non-zero word
+    private final long[] keys;
+    // The values of the present keys, in the order of their indices
+    private final Object[] values;
 
-    EventContext(Map<EventContextKey<?>, Object> values) {
-        this.entries = ImmutableMap.copyOf(values);
+    // lazy load
+    @Nullable private ImmutableMap<EventContextKey<?>, Object> entries;
+    private int hashCode;
+
+    private EventContext(long[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
     }
 
     /**
@@ -95,7 +107,7 @@ public static Builder builder() {
     @SuppressWarnings("unchecked")
     public <T> Optional<T> get(EventContextKey<T> key) {
         checkNotNull(key, "EventContextKey cannot be null");
-        return Optional.ofNullable((T) this.entries.get(key));
+        return Optional.ofNullable((T) getValue(key));
     }
 
     /**
@@ -124,7 +136,7 @@ public <T> T require(EventContextKey<T> key) {
      * @return True if the key is used and there is an entry for it
      */
     public boolean containsKey(EventContextKey<?> key) {
-        return this.entries.containsKey(key);
+        return getValue(key) != null;
     }
 
     /**
@@ -133,7 +145,7 @@ public boolean containsKey(EventContextKey<?> key) {
      * @return All present keys
      */
     public Set<EventContextKey<?>> keySet() {
-        return this.entries.keySet();
+        return asMap().keySet();
     }
 
     /**
@@ -142,9 +154,51 @@ public Set<EventContextKey<?>> keySet() {
      * @return A map view of this context
      */
     public Map<EventContextKey<?>, Object> asMap() {
+        if (this.entries == null) {
+            final ImmutableMap.Builder<EventContextKey<?>, Object> builder = ImmutableMap.builder();
+            int value = 0;
+            for (int index = nextKey(0); index >= 0; index = nextKey(index + 1)) {
+                builder.put(EventContextKeyIndex.keyAt(index), this.values[value++]);
+            }
+            this.entries = builder.build();
+        }
         return this.entries;
     }
 
+    @Nullable
+    private Object getValue(EventContextKey<?> key) {
+        final int index = EventContextKeyIndex.find(key);
+        final int word = index >>> 6;
+        if (index < 0 || word >= this.keys.length) {
+            return null;
+        }
+        final long bit = 1L << index;
+        if ((this.keys[word] & bit) == 0) {
+            return null;
+        }
+        // The position of the value is the number of present keys with a lower index
+        int position = Long.bitCount(this.keys[word] & (bit - 1));
+        for (int i = 0; i < word; i++) {
+            position += Long.bitCount(this.keys[i]);
+        }
+        return this.values[position];
+    }
+
+    private int nextKey(int from) {
+        int word = from >>> 6;
+        if (word >= this.keys.length) {
+            return -1;
+        }
+        long bits = this.keys[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == this.keys.length) {
+                return -1;
+            }
+            bits = this.keys[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
     @Override
     public boolean equals(@Nullable Object object) {
         if (object == this) {
@@ -153,36 +207,39 @@ public boolean equals(@Nullable Object object) {
         if (!(object instanceof EventContext)) {
             return false;
         }
-        EventContext ctx = (EventContext) object;
-        for (Map.Entry<EventContextKey<?>, Object> entry : this.entries.entrySet()) {
-            Object other = ctx.entries.get(entry.getKey());
-            if (other == null) {
-                return false;
-            }
-            if (!entry.getValue().equals(other)) {
-                return false;
-            }
-        }
-        return true;
+        final EventContext ctx = (EventContext) object;
+        // The key sets are compared first, after which the values line up
+        return this.values.length == ctx.values.length && Arrays.equals(this.keys, ctx.keys) && Arrays.equals(this.values, ctx.values);
     }
 
     @Override
     public int hashCode() {
-        return this.entries.hashCode();
+        int hashCode = this.hashCode;
+        if (hashCode == 0 && this.values.length != 0) {
+            // Same as the hash code of the map view
+            int value = 0;
+            for (int index = nextKey(0); index >= 0; index = nextKey(index + 1)) {
+                hashCode += EventContextKeyIndex.keyAt(index).hashCode() ^ this.values[value++].hashCode();
+            }
+            this.hashCode = hashCode;
+        }
+        return hashCode;
     }
 
     @Override
     public String toString() {
         StringJoiner joiner = new StringJoiner(", ");
-        for (Map.Entry<EventContextKey<?>, Object> entry : this.entries.entrySet()) {
-            joiner.add("\"" + entry.getKey().getId() + "\"=" + entry.getValue().toString());
+        int value = 0;
+        for (int index = nextKey(0); index >= 0; index = nextKey(index + 1)) {
+            joiner.add("\"" + EventContextKeyIndex.keyAt(index).getId() + "\"=" + this.values[value++].toString());
         }
         return "Context[" + joiner.toString() + "]";
     }
 
     public static final class Builder implements ResettableBuilder<EventContext, Builder> {
 
-        private final Map<EventContextKey<?>, Object> entries = Maps.newHashMap();
+        private Object[] values = NO_VALUES;
+        private int length;
 
         Builder() {
 
@@ -198,20 +255,37 @@ public static final class Builder implements ResettableBuilder<EventContext, Bui
          */
         public <T> Builder add(EventContextKey<T> key, T value) {
             checkNotNull(value, "Context object cannot be null");
-            checkArgument(!this.entries.containsKey(key), "Duplicate context keys");
-            this.entries.put(key, value);
+            final int index = EventContextKeyIndex.indexOf(key);
+            checkArgument(index >= this.length || this.values[index] == null, "Duplicate context keys");
+            set(index, value);
             return this;
         }
 
+        private void put(EventContextKey<?> key, Object value) {
+            set(EventContextKeyIndex.indexOf(key), value);
+        }
+
+        private void set(int index, Object value) {
+            if (index >= this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.max(index + 1, this.values.length * 2));
+            }
+            this.values[index] = value;
+            this.length = Math.max(this.length, index + 1);
+        }
+
         @Override
         public Builder from(EventContext value) {
-            this.entries.putAll(value.entries);
+            int position = 0;
+            for (int index = value.nextKey(0); index >= 0; index = value.nextKey(index + 1)) {
+                set(index, value.values[position++]);
+            }
             return this;
         }
 
         @Override
         public Builder reset() {
-            this.entries.clear();
+            Arrays.fill(this.values, 0, this.length, null);
+            this.length = 0;
             return this;
         }
 
@@ -221,7 +295,27 @@ public Builder reset() {
          * @return The EventContext
          */
         public EventContext build() {
-            return new EventContext(this.entries);
+            int count = 0;
+            int last = -1;
+            for (int i = 0; i < this.length; i++) {
+                if (this.values[i] != null) {
+                    count++;
+                    last = i;
+                }
+            }
+            if (count == 0) {
+                return EMPTY_CONTEXT;
+            }
+            final long[] keys = new long[(last >>> 6) + 1];
+            final Object[] values = new Object[count];
+            int position = 0;
+            for (int i = 0; i <= last; i++) {
+                if (this.values[i] != null) {
+                    keys[i >>> 6] |= 1L << i;
+                    values[position++] = this.values[i];
+                }
+            }
+            return new EventContext(keys, values);
         }
 
     }
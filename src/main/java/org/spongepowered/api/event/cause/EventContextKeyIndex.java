@@ -0,0 +1,174 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event.cause;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Assigns every {@link EventContextKey} a dense index, used as its slot in the
+ * value arrays of {@link EventContext}s.
+ *
+ * <p>Indices are only assigned when a value is added for a key. Looking up a
+ * key which never had a value does not register it. The registered key
+ * instances are kept in an identity hash table, so the lookup of a known key
+ * neither calls its {@code hashCode} nor its {@code equals}. Only keys which
+ * are equal to, but not the same instance as, a registered key fall back to
+ * a map lookup.</p>
+ */
+final class EventContextKeyIndex {
+
+    private static final ConcurrentMap<EventContextKey<?>, Integer> INDICES = new ConcurrentHashMap<>();
+    private static volatile EventContextKey<?>[] keys = new EventContextKey<?>[0];
+    private static volatile IdentityTable identities = new IdentityTable(16);
+
+    /**
+     * Gets the index of the given key, without assigning one.
+     *
+     * @param key The key
+     * @return The index, or -1 if the key has none
+     */
+    static int find(EventContextKey<?> key) {
+        final int index = identities.get(key);
+        if (index >= 0) {
+            return index;
+        }
+        final Integer equal = INDICES.get(key);
+        return equal != null ? equal : -1;
+    }
+
+    /**
+     * Gets the index of the given key, assigning the next free index if the
+     * key has none yet.
+     *
+     * @param key The key
+     * @return The index
+     */
+    static int indexOf(EventContextKey<?> key) {
+        final int index = find(key);
+        return index >= 0 ? index : register(key);
+    }
+
+    /**
+     * Gets the key with the given index.
+     *
+     * @param index The index
+     * @return The key
+     */
+    static EventContextKey<?> keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Gets the number of keys which have an index.
+     *
+     * @return The number of keys
+     */
+    static int size() {
+        return keys.length;
+    }
+
+    private static synchronized int register(EventContextKey<?> key) {
+        final Integer existing = INDICES.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        final int index = keys.length;
+        final EventContextKey<?>[] newKeys = Arrays.copyOf(keys, index + 1);
+        newKeys[index] = key;
+        // Publish the key before its index, so every known index can be resolved
+        keys = newKeys;
+        identities = identities.with(key, index);
+        INDICES.put(key, index);
+        return index;
+    }
+
+    private EventContextKeyIndex() {
+    }
+
+    /**
+     * An immutable open addressing hash table from key instances to their
+     * indices, replaced whenever a key is registered.
+     */
+    private static final class IdentityTable {
+
+        private final EventContextKey<?>[] keys;
+        private final int[] indices;
+        private final int size;
+
+        IdentityTable(int capacity) {
+            this(new EventContextKey<?>[capacity], new int[capacity], 0);
+        }
+
+        private IdentityTable(EventContextKey<?>[] keys, int[] indices, int size) {
+            this.keys = keys;
+            this.indices = indices;
+            this.size = size;
+        }
+
+        int get(EventContextKey<?> key) {
+            final int mask = this.keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                final EventContextKey<?> candidate = this.keys[slot];
+                if (candidate == key) {
+                    return this.indices[slot];
+                } else if (candidate == null) {
+                    return -1;
+                }
+            }
+        }
+
+        IdentityTable with(EventContextKey<?> key, int index) {
+            // Kept at most half full, so probes stay short and always end
+            final int capacity = (this.size + 1) * 2 > this.keys.length ? this.keys.length * 2 : this.keys.length;
+            final IdentityTable table = new IdentityTable(new EventContextKey<?>[capacity], new int[capacity], this.size + 1);
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i] != null) {
+                    table.insert(this.keys[i], this.indices[i]);
+                }
+            }
+            table.insert(key, index);
+            return table;
+        }
+
+        private void insert(EventContextKey<?> key, int index) {
+            final int mask = this.keys.length - 1;
+            int slot = slot(key, mask);
+            while (this.keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            this.keys[slot] = key;
+            this.indices[slot] = index;
+        }
+
+        private static int slot(EventContextKey<?> key, int mask) {
+            final int hash = System.identityHashCode(key);
+            return (hash ^ hash >>> 16) & mask;
+        }
+
+    }
+
+}
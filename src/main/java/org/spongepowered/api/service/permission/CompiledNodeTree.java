@@ -0,0 +1,229 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.permission;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.spongepowered.api.util.Tristate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A read-only, compiled form of a {@link NodeTree} which is optimized for
+ * repeated lookups.
+ *
+ * <p>Segment names are interned and the children of every node are stored
+ * in flat arrays sorted by segment name, which are searched directly against
+ * the characters of the queried node. Walking the tree therefore neither
+ * lowercases nor splits the queried string. In addition, the results of
+ * recently resolved nodes are kept in a small cache, so that frequently
+ * checked nodes are resolved without walking the tree or allocating.</p>
+ *
+ * <p>Lookups follow the same rules as {@link NodeTree#get(String)}, including
+ * the way nodes are lowercased. This class is thread-safe.</p>
+ */
+public final class CompiledNodeTree {
+
+    private static final Interner<String> SEGMENT_INTERNER = Interners.newWeakInterner();
+    private static final int CACHE_SIZE = 256;
+    private static final int CACHE_MASK = CACHE_SIZE - 1;
+    private static final Tristate[] VALUES = Tristate.values();
+
+    private final CompiledNode rootNode;
+    // One array of recently resolved nodes per result value, indexed by
+    // Tristate ordinal. A node found in an array always resolves to that
+    // value, so racing writers can never make a lookup return a wrong value.
+    private final String[][] cache = new String[VALUES.length][CACHE_SIZE];
+
+    private CompiledNodeTree(CompiledNode rootNode) {
+        this.rootNode = rootNode;
+    }
+
+    /**
+     * Compiles the given node tree.
+     *
+     * @param tree The node tree to compile
+     * @return The compiled node tree
+     */
+    public static CompiledNodeTree of(NodeTree tree) {
+        checkNotNull(tree, "tree");
+        return of(tree.asMap());
+    }
+
+    /**
+     * Compiles a node tree containing the given values.
+     *
+     * @param values The values to be contained in the compiled tree
+     * @return The compiled node tree
+     */
+    public static CompiledNodeTree of(Map<String, Boolean> values) {
+        checkNotNull(values, "values");
+        final BuilderNode root = new BuilderNode();
+        for (Map.Entry<String, Boolean> entry : values.entrySet()) {
+            final String node = entry.getKey();
+            BuilderNode current = root;
+            int start = 0;
+            while (true) {
+                int end = node.indexOf('.', start);
+                if (end == -1) {
+                    end = node.length();
+                }
+                current = current.children.computeIfAbsent(lowerCase(node, start, end), k -> new BuilderNode());
+                if (end == node.length()) {
+                    break;
+                }
+                start = end + 1;
+            }
+            current.value = Tristate.fromBoolean(entry.getValue());
+        }
+        return new CompiledNodeTree(root.compile());
+    }
+
+    /**
+     * Returns the value assigned to a specific node, or the nearest parent
+     * value in the tree if the node itself is undefined.
+     *
+     * @param node The path to get the node value at
+     * @return The tristate value for the given node
+     */
+    public Tristate get(String node) {
+        final int slot = node.hashCode() & CACHE_MASK;
+        for (int i = 0; i < VALUES.length; i++) {
+            if (node.equals(this.cache[i][slot])) {
+                return VALUES[i];
+            }
+        }
+        final Tristate value = resolve(node);
+        this.cache[value.ordinal()][slot] = node;
+        return value;
+    }
+
+    private Tristate resolve(String node) {
+        CompiledNode currentNode = this.rootNode;
+        Tristate lastUndefinedVal = Tristate.UNDEFINED;
+        final int length = node.length();
+        int start = 0;
+        while (true) {
+            int end = node.indexOf('.', start);
+            if (end == -1) {
+                end = length;
+            }
+            final CompiledNode child = currentNode.getChild(node, start, end);
+            if (child == null) {
+                break;
+            }
+            currentNode = child;
+            if (currentNode.value != Tristate.UNDEFINED) {
+                lastUndefinedVal = currentNode.value;
+            }
+            if (end == length) {
+                break;
+            }
+            start = end + 1;
+        }
+        return lastUndefinedVal;
+    }
+
+    static String lowerCase(String node, int start, int end) {
+        final char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = NodeTree.lowerCase(node.charAt(i));
+        }
+        return SEGMENT_INTERNER.intern(new String(chars));
+    }
+
+    /**
+     * Compares an already lowercased segment against a region of a node,
+     * lowercasing the characters of the node as they are compared.
+     */
+    static int compareSegment(String segment, String node, int start, int end) {
+        final int segmentLength = segment.length();
+        final int regionLength = end - start;
+        final int limit = Math.min(segmentLength, regionLength);
+        for (int i = 0; i < limit; i++) {
+            final char a = segment.charAt(i);
+            final char b = NodeTree.lowerCase(node.charAt(start + i));
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return segmentLength - regionLength;
+    }
+
+    private static final class CompiledNode {
+
+        private static final String[] NO_KEYS = new String[0];
+        private static final CompiledNode[] NO_CHILDREN = new CompiledNode[0];
+
+        final String[] keys;
+        final CompiledNode[] children;
+        final Tristate value;
+
+        CompiledNode(String[] keys, CompiledNode[] children, Tristate value) {
+            this.keys = keys.length == 0 ? NO_KEYS : keys;
+            this.children = children.length == 0 ? NO_CHILDREN : children;
+            this.value = value;
+        }
+
+        CompiledNode getChild(String node, int start, int end) {
+            int low = 0;
+            int high = this.keys.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int cmp = compareSegment(this.keys[mid], node, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return this.children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class BuilderNode {
+
+        // Natural String ordering matches the char by char comparison used by compareSegment
+        final Map<String, BuilderNode> children = new TreeMap<>();
+        Tristate value = Tristate.UNDEFINED;
+
+        CompiledNode compile() {
+            final List<String> keys = new ArrayList<>(this.children.keySet());
+            final CompiledNode[] compiled = new CompiledNode[keys.size()];
+            int i = 0;
+            for (BuilderNode child : this.children.values()) {
+                compiled[i++] = child.compile();
+            }
+            return new CompiledNode(keys.toArray(new String[keys.size()]), compiled, this.value);
+        }
+    }
+}
@@ -38,23 +38,42 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.Nullable;
 
 /**
  * A subject data implementation storing all contained data in memory.
  *
+ * <p>The permissions, parents and options of each context set are resolved
+ * once and cached until the data of this subject is next modified, which is
+ * tracked by a version stamp that is advanced by every successful change.
+ * Repeated lookups with the same contexts are therefore served from the
+ * cache. The cache is cleared by every change, and holds at most
+ * {@link #MAX_RESOLVED} context sets.</p>
+ *
  * <p>This class is thread-safe.</p>
  */
 public class MemorySubjectData implements SubjectData {
 
+    /**
+     * The maximum number of context sets whose resolved data is cached.
+     */
+    public static final int MAX_RESOLVED = 256;
+
     private final PermissionService service;
     private final ConcurrentMap<Set<Context>, Map<String, String>> options = Maps.newConcurrentMap();
     private final ConcurrentMap<Set<Context>, NodeTree> permissions = Maps.newConcurrentMap();
     private final ConcurrentMap<Set<Context>, List<Map.Entry<String, String>>> parents = Maps.newConcurrentMap();
+    private final ConcurrentMap<Set<Context>, ResolvedData> resolved = Maps.newConcurrentMap();
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
 
     /**
      * Creates a new subject data instance, using the provided service to
@@ -89,6 +108,88 @@ public NodeTree getNodeTree(Set<Context> contexts) {
         return perms == null ? NodeTree.of(Collections.emptyMap()) : perms;
     }
 
+    @Override
+    public Tristate getPermissionValue(Set<Context> contexts, String permission) {
+        return getResolvedData(contexts).permissions.get(permission);
+    }
+
+    /**
+     * Gets the value of the given option in the given contexts, as defined
+     * directly by this subject data instance. Parents are not consulted, and
+     * keys are case-insensitive.
+     *
+     * @param contexts The contexts to check in
+     * @param key The key of the option
+     * @return The value of the option, if set
+     */
+    public Optional<String> getOption(Set<Context> contexts, String key) {
+        return Optional.ofNullable(getResolvedData(contexts).options.get(key.toLowerCase()));
+    }
+
+    /**
+     * Gets the version stamp of the data of this subject. The version is
+     * advanced every time that a permission, parent or option is modified.
+     *
+     * @return The current version
+     */
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Gets the number of lookups which were served from the resolution cache.
+     *
+     * @return The number of cache hits
+     */
+    public long getCacheHits() {
+        return this.cacheHits.sum();
+    }
+
+    /**
+     * Gets the number of lookups which had to resolve the data of their
+     * context set again.
+     *
+     * @return The number of cache misses
+     */
+    public long getCacheMisses() {
+        return this.cacheMisses.sum();
+    }
+
+    private ResolvedData getResolvedData(Set<Context> contexts) {
+        // The version has to be read before the data, so that a concurrent
+        // modification results in a stale entry rather than stale data
+        final long currentVersion = this.version.get();
+        ResolvedData data = this.resolved.get(contexts);
+        if (data != null && data.version == currentVersion) {
+            this.cacheHits.increment();
+            return data;
+        }
+        this.cacheMisses.increment();
+        final NodeTree perms = this.permissions.get(contexts);
+        final List<Map.Entry<String, String>> parents = this.parents.get(contexts);
+        final Map<String, String> options = this.options.get(contexts);
+        data = new ResolvedData(currentVersion,
+                perms == null ? CompiledNodeTree.of(Collections.emptyMap()) : perms.compile(),
+                parents == null ? ImmutableList.of() : toSubjectList(parents),
+                options == null ? ImmutableMap.of() : ImmutableMap.copyOf(options));
+        if (this.resolved.size() >= MAX_RESOLVED) {
+            // Entries are cheap to resolve again, so dropping all of them is
+            // preferred to tracking their use
+            this.resolved.clear();
+        }
+        this.resolved.put(ImmutableSet.copyOf(contexts), data);
+        return data;
+    }
+
+    private CompletableFuture<Boolean> changed(boolean changed) {
+        if (changed) {
+            this.version.incrementAndGet();
+            // All cached entries are stale now
+            this.resolved.clear();
+        }
+        return CompletableFuture.completedFuture(changed);
+    }
+
     @Override
     public Map<String, Boolean> getPermissions(Set<Context> contexts) {
         NodeTree perms = this.permissions.get(contexts);
@@ -114,19 +215,19 @@ public CompletableFuture<Boolean> setPermission(Set<Context> contexts, String pe
                 }
             }
         }
-        return CompletableFuture.completedFuture(true);
+        return changed(true);
     }
 
     @Override
     public CompletableFuture<Boolean> clearPermissions() {
         boolean wasEmpty = this.permissions.isEmpty();
         this.permissions.clear();
-        return CompletableFuture.completedFuture(!wasEmpty);
+        return changed(!wasEmpty);
     }
 
     @Override
     public CompletableFuture<Boolean> clearPermissions(Set<Context> context) {
-        return CompletableFuture.completedFuture(this.permissions.remove(context) != null);
+        return changed(this.permissions.remove(context) != null);
     }
 
     @Override
@@ -148,8 +249,7 @@ List<SubjectReference> toSubjectList(List<Map.Entry<String, String>> parents) {
 
     @Override
     public List<SubjectReference> getParents(Set<Context> contexts) {
-        List<Map.Entry<String, String>> ret = this.parents.get(contexts);
-        return ret == null ? Collections.emptyList() : toSubjectList(ret);
+        return getResolvedData(contexts).parents;
     }
 
     @Override
@@ -168,7 +268,7 @@ public CompletableFuture<Boolean> addParent(Set<Context> contexts, SubjectRefere
             }
 
             if (updateCollection(this.parents, contexts, oldParents, newParents)) {
-                return CompletableFuture.completedFuture(true);
+                return changed(true);
             }
         }
     }
@@ -202,7 +302,7 @@ public CompletableFuture<Boolean> removeParent(Set<Context> contexts, SubjectRef
             newParents.remove(removeEnt);
 
             if (updateCollection(this.parents, contexts, oldParents, Collections.unmodifiableList(newParents))) {
-                return CompletableFuture.completedFuture(true);
+                return changed(true);
             }
         }
 
@@ -212,12 +312,12 @@ public CompletableFuture<Boolean> removeParent(Set<Context> contexts, SubjectRef
     public CompletableFuture<Boolean> clearParents() {
         boolean wasEmpty = this.parents.isEmpty();
         this.parents.clear();
-        return CompletableFuture.completedFuture(!wasEmpty);
+        return changed(!wasEmpty);
     }
 
     @Override
     public CompletableFuture<Boolean> clearParents(Set<Context> contexts) {
-        return CompletableFuture.completedFuture(this.parents.remove(contexts) != null);
+        return changed(this.parents.remove(contexts) != null);
     }
 
     @Override
@@ -227,12 +327,12 @@ public Map<Set<Context>, Map<String, String>> getAllOptions() {
 
     @Override
     public Map<String, String> getOptions(Set<Context> contexts) {
-        Map<String, String> ret = this.options.get(contexts);
-        return ret == null ? ImmutableMap.of() : ImmutableMap.copyOf(ret);
+        return getResolvedData(contexts).options;
     }
 
     @Override
     public CompletableFuture<Boolean> setOption(Set<Context> contexts, String key, @Nullable String value) {
+        key = key.toLowerCase();
         Map<String, String> origMap = this.options.get(contexts);
         Map<String, String> newMap;
 
@@ -241,8 +341,8 @@ public CompletableFuture<Boolean> setOption(Set<Context> contexts, String key, @
                 return CompletableFuture.completedFuture(false);
             }
 
-            if ((origMap = this.options.putIfAbsent(ImmutableSet.copyOf(contexts), ImmutableMap.of(key.toLowerCase(), value))) == null) {
-                return CompletableFuture.completedFuture(true);
+            if ((origMap = this.options.putIfAbsent(ImmutableSet.copyOf(contexts), ImmutableMap.of(key, value))) == null) {
+                return changed(true);
             }
         }
         do {
@@ -260,17 +360,32 @@ public CompletableFuture<Boolean> setOption(Set<Context> contexts, String key, @
             }
             newMap = Collections.unmodifiableMap(newMap);
         } while (!this.options.replace(contexts, origMap, newMap));
-        return CompletableFuture.completedFuture(true);
+        return changed(true);
     }
 
     @Override
     public CompletableFuture<Boolean> clearOptions(Set<Context> contexts) {
-        return CompletableFuture.completedFuture(this.options.remove(contexts) != null);
+        return changed(this.options.remove(contexts) != null);
     }
 
     @Override
     public CompletableFuture<Boolean> clearOptions() {
         this.options.clear();
-        return CompletableFuture.completedFuture(true);
+        return changed(true);
+    }
+
+    private static final class ResolvedData {
+
+        final long version;
+        final CompiledNodeTree permissions;
+        final List<SubjectReference> parents;
+        final Map<String, String> options;
+
+        ResolvedData(long version, CompiledNodeTree permissions, List<SubjectReference> parents, Map<String, String> options) {
+            this.version = version;
+            this.permissions = permissions;
+            this.parents = parents;
+            this.options = options;
+        }
     }
 }
@@ -28,8 +28,10 @@
 import com.google.common.collect.ImmutableMap;
 import org.spongepowered.api.util.Tristate;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
 
 /**
  * An immutable tree structure for determining node data. Any changes will
@@ -41,7 +43,8 @@
  * inheritance should be maintained.</p>
  *
  * <ul>
- *     <li>Keys are case-insensitive.</li>
+ *     <li>Keys are case-insensitive, each character is lowercased on its
+ *     own, independent of the default locale.</li>
  *     <li>Segments of nodes are split by the '.' character</li>
  * </ul>
  */
@@ -50,15 +53,37 @@ public class NodeTree {
     private static final Splitter NODE_SPLITTER = Splitter.on('.');
     private final Node rootNode;
 
-    private NodeTree(Tristate value) {
-        this.rootNode = new Node(new HashMap<>());
-        this.rootNode.value = value;
-    }
-
     private NodeTree(Node rootNode) {
         this.rootNode = rootNode;
     }
 
+    /**
+     * Lowercases the given node one character at a time. Unlike
+     * {@link String#toLowerCase()} this does not depend on the default locale
+     * and never changes the length of the node, which allows
+     * {@link CompiledNodeTree} to fold the characters of a node as it walks
+     * them.
+     *
+     * @param node The node
+     * @return The lowercased node
+     */
+    static String lowerCase(String node) {
+        for (int i = 0; i < node.length(); i++) {
+            if (lowerCase(node.charAt(i)) != node.charAt(i)) {
+                final char[] chars = node.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    chars[j] = lowerCase(chars[j]);
+                }
+                return new String(chars);
+            }
+        }
+        return node;
+    }
+
+    static char lowerCase(char c) {
+        return Character.toLowerCase(c);
+    }
+
     /**
      * Create a new node tree with the given values, and a default value of
      * {@link Tristate#UNDEFINED}.
@@ -79,22 +104,12 @@ public static NodeTree of(Map<String, Boolean> values) {
      * @return The newly created node tree
      */
     public static NodeTree of(Map<String, Boolean> values, Tristate defaultValue) {
-        NodeTree newTree = new NodeTree(defaultValue);
+        final Object edit = new Object();
+        final Node newRoot = new Node(edit, defaultValue, ChildTable.EMPTY);
         for (Map.Entry<String, Boolean> value : values.entrySet()) {
-            Iterable<String> parts = NODE_SPLITTER.split(value.getKey().toLowerCase());
-            Node currentNode = newTree.rootNode;
-            for (String part : parts) {
-                if (currentNode.children.containsKey(part)) {
-                    currentNode = currentNode.children.get(part);
-                } else {
-                    Node newNode = new Node(new HashMap<>());
-                    currentNode.children.put(part, newNode);
-                    currentNode = newNode;
-                }
-            }
-            currentNode.value = Tristate.fromBoolean(value.getValue());
+            newRoot.set(edit, value.getKey(), Tristate.fromBoolean(value.getValue()));
         }
-        return newTree;
+        return new NodeTree(newRoot);
     }
 
     /**
@@ -105,14 +120,14 @@ public static NodeTree of(Map<String, Boolean> values, Tristate defaultValue) {
      * @return The tristate value for the given node
      */
     public Tristate get(String node) {
-        Iterable<String> parts = NODE_SPLITTER.split(node.toLowerCase());
+        Iterable<String> parts = NODE_SPLITTER.split(lowerCase(node));
         Node currentNode = this.rootNode;
         Tristate lastUndefinedVal = Tristate.UNDEFINED;
         for (String str : parts) {
-            if (!currentNode.children.containsKey(str)) {
+            currentNode = currentNode.children.get(str, str.hashCode(), 0);
+            if (currentNode == null) {
                 break;
             }
-            currentNode = currentNode.children.get(str);
             if (currentNode.value != Tristate.UNDEFINED) {
                 lastUndefinedVal = currentNode.value;
             }
@@ -128,9 +143,7 @@ public Tristate get(String node) {
      */
     public Map<String, Boolean> asMap() {
         ImmutableMap.Builder<String, Boolean> ret = ImmutableMap.builder();
-        for (Map.Entry<String, Node> ent : this.rootNode.children.entrySet()) {
-            populateMap(ret, ent.getKey(), ent.getValue());
-        }
+        this.rootNode.children.forEach((key, child) -> populateMap(ret, key, child));
         return ret.build();
     }
 
@@ -138,57 +151,214 @@ private void populateMap(ImmutableMap.Builder<String, Boolean> values, String pr
         if (currentNode.value != Tristate.UNDEFINED) {
             values.put(prefix, currentNode.value.asBoolean());
         }
-        for (Map.Entry<String, Node> ent : currentNode.children.entrySet()) {
-            populateMap(values, prefix + '.' + ent.getKey(), ent.getValue());
-        }
+        currentNode.children.forEach((key, child) -> populateMap(values, prefix + '.' + key, child));
+    }
+
+    /**
+     * Compiles this node tree into a read-only form which is optimized for
+     * repeated lookups.
+     *
+     * @return The compiled node tree
+     */
+    public CompiledNodeTree compile() {
+        return CompiledNodeTree.of(this);
     }
 
     /**
      * Return a new NodeTree instance with a single changed value.
      *
+     * <p>The returned tree shares all of its structure with this tree, except
+     * for the nodes on the path to the changed value.</p>
+     *
      * @param node The node path to change the value of
      * @param value The value to change, or UNDEFINED to remove
      * @return The new, modified node tree
      */
     public NodeTree withValue(String node, Tristate value) {
-        Iterable<String> parts = NODE_SPLITTER.split(node.toLowerCase());
-        Node newRoot = new Node(new HashMap<>(this.rootNode.children));
-        Node newPtr = newRoot;
-        Node currentPtr = this.rootNode;
-
-        newPtr.value = currentPtr == null ? Tristate.UNDEFINED : currentPtr.value;
-        for (String part : parts) {
-            Node oldChild = currentPtr == null ? null : currentPtr.children.get(part);
-            Node newChild = new Node(oldChild != null ? new HashMap<>(oldChild.children) : new HashMap<>());
-            newPtr.children.put(part, newChild);
-            currentPtr = oldChild;
-            newPtr = newChild;
-        }
-        newPtr.value = value;
+        final Object edit = new Object();
+        final Node newRoot = this.rootNode.editable(edit);
+        newRoot.set(edit, node, value);
         return new NodeTree(newRoot);
     }
 
     /**
      * Return a modified new node tree with the specified values set.
      *
+     * <p>All values are applied in a single pass, any node which is touched
+     * by more than one of the values is only copied once.</p>
+     *
      * @param values The values to set
      * @return The new node tree
      */
     public NodeTree withAll(Map<String, Tristate> values) {
-        NodeTree ret = this;
+        if (values.isEmpty()) {
+            return this;
+        }
+        final Object edit = new Object();
+        final Node newRoot = this.rootNode.editable(edit);
         for (Map.Entry<String, Tristate> ent : values.entrySet()) {
-            ret = ret.withValue(ent.getKey(), ent.getValue());
+            newRoot.set(edit, ent.getKey(), ent.getValue());
         }
-        return ret;
+        return new NodeTree(newRoot);
     }
 
-    private static class Node {
+    /**
+     * A node of the tree. Nodes are immutable once their tree has been
+     * published, but may be modified in place by the edit that created them,
+     * which is identified by the {@code owner} token.
+     */
+    private static final class Node {
 
-        final Map<String, Node> children;
-        Tristate value = Tristate.UNDEFINED;
+        @Nullable final Object owner;
+        Tristate value;
+        ChildTable children;
 
-        Node(Map<String, Node> children) {
+        Node(@Nullable Object owner, Tristate value, ChildTable children) {
+            this.owner = owner;
+            this.value = value;
             this.children = children;
         }
+
+        Node editable(Object edit) {
+            return this.owner == edit ? this : new Node(edit, this.value, this.children);
+        }
+
+        void set(Object edit, String node, Tristate value) {
+            Node currentNode = this;
+            for (String part : NODE_SPLITTER.split(lowerCase(node))) {
+                final int hash = part.hashCode();
+                final Node oldChild = currentNode.children.get(part, hash, 0);
+                final Node newChild = oldChild == null ? new Node(edit, Tristate.UNDEFINED, ChildTable.EMPTY) : oldChild.editable(edit);
+                if (newChild != oldChild) {
+                    currentNode.children = currentNode.children.put(edit, part, hash, 0, newChild);
+                }
+                currentNode = newChild;
+            }
+            currentNode.value = value;
+        }
+    }
+
+    /**
+     * A persistent hash array mapped trie holding the children of a node.
+     *
+     * <p>Each table consumes five bits of the hash of a segment name per level,
+     * and stores alternating keys and values in a compact array indexed by
+     * a bitmap. A {@code null} key means the value is a nested table. Once the
+     * hash bits are exhausted, colliding entries are stored in a flat
+     * array.</p>
+     */
+    private static final class ChildTable {
+
+        static final ChildTable EMPTY = new ChildTable(null, 0, new Object[0]);
+        private static final int BITS = 5;
+        private static final int MAX_SHIFT = 30;
+
+        @Nullable private final Object owner;
+        private int bitmap;
+        private Object[] array;
+
+        private ChildTable(@Nullable Object owner, int bitmap, Object[] array) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Nullable
+        Node get(String key, int hash, int shift) {
+            if (shift > MAX_SHIFT) {
+                for (int i = 0; i < this.array.length; i += 2) {
+                    if (key.equals(this.array[i])) {
+                        return (Node) this.array[i + 1];
+                    }
+                }
+                return null;
+            }
+            final int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            }
+            final int index = index(bit);
+            final Object entryKey = this.array[index];
+            final Object entryValue = this.array[index + 1];
+            if (entryKey == null) {
+                return ((ChildTable) entryValue).get(key, hash, shift + BITS);
+            }
+            return key.equals(entryKey) ? (Node) entryValue : null;
+        }
+
+        ChildTable put(Object edit, String key, int hash, int shift, Node value) {
+            if (shift > MAX_SHIFT) {
+                for (int i = 0; i < this.array.length; i += 2) {
+                    if (key.equals(this.array[i])) {
+                        return this.array[i + 1] == value ? this : editAndSet(edit, i + 1, value);
+                    }
+                }
+                return editAndInsert(edit, 0, this.array.length, key, value);
+            }
+            final int bit = bit(hash, shift);
+            final int index = index(bit);
+            if ((this.bitmap & bit) == 0) {
+                return editAndInsert(edit, bit, index, key, value);
+            }
+            final Object entryKey = this.array[index];
+            final Object entryValue = this.array[index + 1];
+            if (entryKey == null) {
+                final ChildTable oldTable = (ChildTable) entryValue;
+                final ChildTable newTable = oldTable.put(edit, key, hash, shift + BITS, value);
+                return newTable == oldTable ? this : editAndSet(edit, index + 1, newTable);
+            }
+            if (key.equals(entryKey)) {
+                return entryValue == value ? this : editAndSet(edit, index + 1, value);
+            }
+            final String existingKey = (String) entryKey;
+            final ChildTable newTable = EMPTY
+                    .put(edit, existingKey, existingKey.hashCode(), shift + BITS, (Node) entryValue)
+                    .put(edit, key, hash, shift + BITS, value);
+            final ChildTable table = editAndSet(edit, index + 1, newTable);
+            table.array[index] = null;
+            return table;
+        }
+
+        void forEach(BiConsumer<String, Node> consumer) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (this.array[i] == null) {
+                    ((ChildTable) this.array[i + 1]).forEach(consumer);
+                } else {
+                    consumer.accept((String) this.array[i], (Node) this.array[i + 1]);
+                }
+            }
+        }
+
+        private ChildTable editable(Object edit) {
+            return this.owner == edit ? this : new ChildTable(edit, this.bitmap, this.array.clone());
+        }
+
+        private ChildTable editAndSet(Object edit, int index, Object value) {
+            final ChildTable table = editable(edit);
+            table.array[index] = value;
+            return table;
+        }
+
+        private ChildTable editAndInsert(Object edit, int bit, int index, String key, Node value) {
+            final Object[] newArray = new Object[this.array.length + 2];
+            System.arraycopy(this.array, 0, newArray, 0, index);
+            newArray[index] = key;
+            newArray[index + 1] = value;
+            System.arraycopy(this.array, index, newArray, index + 2, this.array.length - index);
+            if (this.owner == edit) {
+                this.bitmap |= bit;
+                this.array = newArray;
+                return this;
+            }
+            return new ChildTable(edit, this.bitmap | bit, newArray);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1)) << 1;
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & 0x1f);
+        }
     }
 }
@@ -25,14 +25,21 @@
 package org.spongepowered.api.service.permission;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import org.spongepowered.api.service.context.Context;
+import org.spongepowered.api.util.Tristate;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -55,6 +62,13 @@
  */
 public interface SubjectCollection {
 
+    /**
+     * The number of subjects loaded together through
+     * {@link #loadSubjects(Set)} by
+     * {@link #getAllWithPermission(Set, String, ForkJoinPool)}.
+     */
+    int LOAD_BATCH_SIZE = 64;
+
     /**
      * Return the identifier for this collection.
      *
@@ -268,6 +282,119 @@ default CompletableFuture<Void> applyToAll(Consumer<Subject> action, Set<String>
      */
     CompletableFuture<Map<SubjectReference, Boolean>> getAllWithPermission(Set<Context> contexts, String permission);
 
+    /**
+     * Return the identifiers of all known subjects with the given permission
+     * set, scanning the subjects of this collection in parallel on the given
+     * pool.
+     *
+     * <p>This method <p>DOES NOT</p> consider inheritance, and will only query
+     * the data set to the subjects {@link Subject#getSubjectData()} through
+     * {@link SubjectData#getPermissionValue(Set, String)}. Transient data is
+     * not considered.</p>
+     *
+     * <p>Subjects are loaded, checked, and then allowed to be uncached by the
+     * implementation. They are loaded in batches of {@link #LOAD_BATCH_SIZE}
+     * through {@link #loadSubjects(Set)}, and the next batch is only loaded
+     * once the previous one was, so only a single batch is loading at any
+     * time.</p>
+     *
+     * @param contexts The context combination to check for permissions in
+     * @param permission The permission to check
+     * @param pool The pool to scan the subjects on
+     * @return A reference to any subject known to have this permission
+     *         set, and the value this permission is set to
+     */
+    default CompletableFuture<Map<SubjectReference, Boolean>> getAllWithPermission(Set<Context> contexts, String permission,
+            ForkJoinPool pool) {
+        Preconditions.checkNotNull(contexts, "contexts");
+        Preconditions.checkNotNull(permission, "permission");
+        Preconditions.checkNotNull(pool, "pool");
+        // Each subject is checked on the pool once it has been loaded, no pool
+        // thread ever blocks waiting for a load to complete
+        return getAllIdentifiers().thenCompose(identifiers -> {
+            final List<String> remaining = new ArrayList<>(identifiers);
+            final List<CompletableFuture<Map<SubjectReference, Tristate>>> batches = new ArrayList<>();
+            CompletableFuture<?> previous = CompletableFuture.completedFuture(null);
+            for (int start = 0; start < remaining.size(); start += LOAD_BATCH_SIZE) {
+                final Set<String> batch = new HashSet<>(remaining.subList(start, Math.min(remaining.size(), start + LOAD_BATCH_SIZE)));
+                final CompletableFuture<Map<String, Subject>> loaded = previous.thenCompose(v -> loadSubjects(batch));
+                batches.add(loaded.thenApplyAsync(subjects -> {
+                    final Map<SubjectReference, Tristate> values = Maps.newHashMapWithExpectedSize(subjects.size());
+                    for (Subject subject : subjects.values()) {
+                        values.put(subject.asSubjectReference(), subject.getSubjectData().getPermissionValue(contexts, permission));
+                        suggestUnload(subject.getIdentifier());
+                    }
+                    return values;
+                }, pool));
+                previous = loaded;
+            }
+            return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[batches.size()])).thenApply(v -> {
+                final ImmutableMap.Builder<SubjectReference, Boolean> builder = ImmutableMap.builder();
+                for (CompletableFuture<Map<SubjectReference, Tristate>> batch : batches) {
+                    for (Map.Entry<SubjectReference, Tristate> entry : batch.join().entrySet()) {
+                        if (entry.getValue() != Tristate.UNDEFINED) {
+                            builder.put(entry.getKey(), entry.getValue().asBoolean());
+                        }
+                    }
+                }
+                return builder.build();
+            });
+        });
+    }
+
+    /**
+     * Resolves the value of the given permission for each of the given
+     * subjects at once.
+     *
+     * <p>Unlike {@link #getAllWithPermission(Set, String)}, this method
+     * considers inheritance, as the value of each subject is resolved through
+     * {@link Subject#getPermissionValue(Set, String)}.</p>
+     *
+     * <p>Subjects of this collection are loaded together through
+     * {@link #loadSubjects(Set)}, any other subject, or any subject left out
+     * by {@link #loadSubjects(Set)}, is resolved through its reference.</p>
+     *
+     * <p>The returned future will complete exceptionally if any of the
+     * subjects cannot be resolved.</p>
+     *
+     * @param contexts The context combination to check for permissions in
+     * @param permission The permission to check
+     * @param subjects The subjects to check
+     * @return A map containing the value of the permission for every given
+     *         subject
+     */
+    default CompletableFuture<Map<SubjectReference, Tristate>> getPermissionValues(Set<Context> contexts, String permission,
+            Collection<SubjectReference> subjects) {
+        Preconditions.checkNotNull(contexts, "contexts");
+        Preconditions.checkNotNull(permission, "permission");
+        Preconditions.checkNotNull(subjects, "subjects");
+        // Subjects of this collection are loaded with a single batched call
+        final Set<String> identifiers = new HashSet<>();
+        for (SubjectReference subject : subjects) {
+            if (subject.getCollectionIdentifier().equals(getIdentifier())) {
+                identifiers.add(subject.getSubjectIdentifier());
+            }
+        }
+        final CompletableFuture<Map<String, Subject>> loaded =
+                identifiers.isEmpty() ? CompletableFuture.completedFuture(ImmutableMap.of()) : loadSubjects(identifiers);
+        final Map<SubjectReference, CompletableFuture<Tristate>> values = Maps.newLinkedHashMapWithExpectedSize(subjects.size());
+        for (SubjectReference subject : subjects) {
+            values.computeIfAbsent(subject, ref -> {
+                if (!ref.getCollectionIdentifier().equals(getIdentifier())) {
+                    return ref.resolve().thenApply(s -> s.getPermissionValue(contexts, permission));
+                }
+                return loaded.thenCompose(map -> {
+                    final Subject loadedSubject = map.get(ref.getSubjectIdentifier());
+                    // loadSubjects omits subjects it cannot load, resolving the
+                    // reference loads them or fails with the reason
+                    return loadedSubject == null ? ref.resolve() : CompletableFuture.completedFuture(loadedSubject);
+                }).thenApply(s -> s.getPermissionValue(contexts, permission));
+            });
+        }
+        return CompletableFuture.allOf(values.values().toArray(new CompletableFuture<?>[values.size()]))
+                .thenApply(v -> ImmutableMap.copyOf(Maps.transformValues(values, CompletableFuture::join)));
+    }
+
     /**
      * Return all loaded subjects with the given permission set.
      *
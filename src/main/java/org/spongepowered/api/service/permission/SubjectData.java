@@ -82,6 +82,21 @@ public interface SubjectData {
      */
     Map<String, Boolean> getPermissions(Set<Context> contexts);
 
+    /**
+     * Gets the value of the given permission in the given context, as defined
+     * directly by this data object.
+     *
+     * <p>Node inheritance, as described in {@link Subject}, is taken into
+     * account, but parents of this data are not.</p>
+     *
+     * @param contexts The particular context combination to check
+     * @param permission The permission to check
+     * @return The value of the permission, or the nearest parent node value
+     */
+    default Tristate getPermissionValue(Set<Context> contexts, String permission) {
+        return NodeTree.of(getPermissions(contexts)).get(permission);
+    }
+
     /**
      * Sets a permission to a given value.
      *
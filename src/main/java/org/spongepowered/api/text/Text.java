@@ -38,6 +38,7 @@
 import org.spongepowered.api.text.action.HoverAction;
 import org.spongepowered.api.text.action.ShiftClickAction;
 import org.spongepowered.api.text.action.TextAction;
+import org.spongepowered.api.text.channel.MessageReceiver;
 import org.spongepowered.api.text.format.TextColor;
 import org.spongepowered.api.text.format.TextFormat;
 import org.spongepowered.api.text.format.TextStyle;
@@ -112,6 +113,22 @@ public abstract class Text implements TextRepresentable, DataSerializable, Compa
      */
     final Iterable<Text> childrenIterable;
 
+    /**
+     * Whether the serialized forms of this text can never change, which is
+     * not the case if it contains a {@link ScoreText}, whose score is
+     * mutable, or a {@link TranslatableText}, which depends on the locale
+     * and its arguments.
+     */
+    private final boolean constant;
+
+    /**
+     * The lazily computed plain and JSON representations of this text, only
+     * used if the text is {@link #constant}. Both are immutable strings, so a
+     * racing thread at worst serializes the same text twice.
+     */
+    @Nullable private volatile String plain;
+    @Nullable private volatile String json;
+
     Text() {
         this.format = TextFormat.NONE; // TODO
         this.children = ImmutableList.of();
@@ -119,6 +136,7 @@ public abstract class Text implements TextRepresentable, DataSerializable, Compa
         this.hoverAction = Optional.empty();
         this.shiftClickAction = Optional.empty();
         this.childrenIterable = () -> Iterators.singletonIterator(this);
+        this.constant = isConstant();
     }
 
     /**
@@ -140,6 +158,21 @@ public abstract class Text implements TextRepresentable, DataSerializable, Compa
         this.hoverAction = Optional.ofNullable(hoverAction);
         this.shiftClickAction = Optional.ofNullable(shiftClickAction);
         this.childrenIterable = () -> new TextIterator(this);
+        this.constant = isConstant();
+    }
+
+    private boolean isConstant() {
+        if (this instanceof ScoreText || this instanceof TranslatableText) {
+            return false;
+        }
+        for (Text child : this.children) {
+            if (!child.constant) {
+                return false;
+            }
+        }
+        // Shown texts are part of the JSON representation
+        final HoverAction<?> hoverAction = this.hoverAction.orElse(null);
+        return !(hoverAction instanceof HoverAction.ShowText) || ((HoverAction.ShowText) hoverAction).getResult().constant;
     }
 
     /**
@@ -246,10 +279,21 @@ public final boolean isEmpty() {
      * Returns a plain text representation of this {@link Text} without any
      * formatting.
      *
+     * <p>The result is computed once and cached in this text, unless the text
+     * contains a {@link ScoreText} or a {@link TranslatableText}.</p>
+     *
      * @return This text converted to plain text
      */
     public final String toPlain() {
-        return TextSerializers.PLAIN.serialize(this);
+        if (!this.constant) {
+            return TextSerializers.PLAIN.serialize(this);
+        }
+        String plain = this.plain;
+        if (plain == null) {
+            plain = TextSerializers.PLAIN.serialize(this);
+            this.plain = plain;
+        }
+        return plain;
     }
 
     /**
@@ -262,6 +306,29 @@ public final String toPlainSingle() {
         return TextSerializers.PLAIN.serializeSingle(this);
     }
 
+    /**
+     * Returns the JSON representation of this {@link Text}, as created by
+     * {@link TextSerializers#JSON}.
+     *
+     * <p>The result is computed once and cached in this text, which allows the
+     * same text sent to many {@link MessageReceiver}s to be serialized only
+     * once. Texts containing a {@link ScoreText} or a
+     * {@link TranslatableText} are serialized again on every call.</p>
+     *
+     * @return This text serialized to JSON
+     */
+    public final String toJson() {
+        if (!this.constant) {
+            return TextSerializers.JSON.serialize(this);
+        }
+        String json = this.json;
+        if (json == null) {
+            json = TextSerializers.JSON.serialize(this);
+            this.json = json;
+        }
+        return json;
+    }
+
     /**
      * Concatenates the specified {@link Text} to this Text and returns the
      * result.
@@ -292,7 +359,7 @@ public int getContentVersion() {
     public DataContainer toContainer() {
         return DataContainer.createNew()
                 .set(Queries.CONTENT_VERSION, getContentVersion())
-                .set(Queries.JSON, TextSerializers.JSON.serialize(this));
+                .set(Queries.JSON, toJson());
     }
 
     @Override
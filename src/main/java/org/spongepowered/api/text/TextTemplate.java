@@ -77,6 +77,7 @@ public final class TextTemplate implements TextRepresentable, Iterable<Object> {
     final Text text;
     final String openArg;
     final String closeArg;
+    @Nullable private volatile RenderPlan plan;
 
     TextTemplate(String openArg, String closeArg, Object[] elements) {
         this.openArg = openArg;
@@ -184,35 +185,7 @@ public Text.Builder apply() {
      * @throws TextTemplateArgumentException if required parameters are missing
      */
     public Text.Builder apply(Map<String, ?> params) {
-        return apply(null, params);
-    }
-
-    private Text.Builder apply(@Nullable Text.Builder result, Map<String, ?> params) {
-        checkNotNull(params, "params");
-        for (Object element : this.elements) {
-            result = apply(element, result, params);
-        }
-        return Optional.ofNullable(result).orElse(Text.builder());
-    }
-
-    @Nullable
-    private Text.Builder apply(Object element, @Nullable Text.Builder builder, Map<String, ?> params) {
-        // Note: The builder is initialized as null to avoid unnecessary Text nesting
-        if (element instanceof Arg) {
-            Arg arg = (Arg) element;
-            Object param = params.get(arg.name);
-            if (param == null) {
-                arg.checkOptional();
-                if (arg.defaultValue != null) {
-                    builder = applyArg(arg.defaultValue, arg, builder);
-                }
-            } else {
-                builder = applyArg(param, arg, builder);
-            }
-        } else {
-            builder = apply(element, builder);
-        }
-        return builder;
+        return compile().apply(params);
     }
 
     private Text.Builder apply(Object element, @Nullable Text.Builder builder) {
@@ -239,15 +212,19 @@ private Text.Builder apply(Object element, @Nullable Text.Builder builder) {
         return builder;
     }
 
-    private Text.Builder applyArg(Object param, Arg arg, @Nullable Text.Builder builder) {
-        if (builder == null) {
-            builder = Text.builder();
+    /**
+     * Returns the {@link RenderPlan} of this TextTemplate. The plan is
+     * created on first use and shared afterwards.
+     *
+     * @return The render plan
+     */
+    public RenderPlan compile() {
+        RenderPlan plan = this.plan;
+        if (plan == null) {
+            plan = new RenderPlan(this.elements);
+            this.plan = plan;
         }
-        // wrap the parameter in the argument format
-        Text.Builder wrapper = Text.builder().format(arg.format);
-        apply(param, wrapper);
-        builder.append(wrapper.build());
-        return builder;
+        return plan;
     }
 
     /**
@@ -369,6 +346,185 @@ public boolean equals(Object obj) {
                 && that.closeArg.equals(this.closeArg);
     }
 
+    /**
+     * A flat, pre-resolved form of a {@link TextTemplate}. Constant elements
+     * are merged into segments that are appended as a whole, default values
+     * are wrapped in their argument format up front, and arguments are
+     * addressed by slot index instead of by name.
+     */
+    public static final class RenderPlan {
+
+        private static final int CONSTANTS = 0;
+        private static final int ELEMENT = 1;
+        private static final int SLOT = 2;
+
+        @Nullable private final Text head;
+        private final int[] kinds;
+        private final Object[] operands;
+        private final ImmutableList<String> slots;
+
+        RenderPlan(List<Object> elements) {
+            int start = 0;
+            Text head = null;
+            if (!elements.isEmpty()) {
+                final Object first = elements.get(0);
+                if (first instanceof Text) {
+                    head = (Text) first;
+                    start = 1;
+                } else if (!(first instanceof TextElement)) {
+                    head = Text.of(first.toString());
+                    start = 1;
+                }
+            }
+            this.head = head;
+
+            final List<String> slots = new ArrayList<>();
+            final List<Integer> kinds = new ArrayList<>();
+            final List<Object> operands = new ArrayList<>();
+            final List<Text> constants = new ArrayList<>();
+            for (Object element : elements.subList(start, elements.size())) {
+                if (element instanceof Text) {
+                    constants.add((Text) element);
+                    continue;
+                } else if (!(element instanceof TextElement)) {
+                    constants.add(Text.of(element.toString()));
+                    continue;
+                }
+                if (!constants.isEmpty()) {
+                    kinds.add(CONSTANTS);
+                    operands.add(constants.toArray(new Text[constants.size()]));
+                    constants.clear();
+                }
+                if (element instanceof Arg) {
+                    final Arg arg = (Arg) element;
+                    int index = slots.indexOf(arg.name);
+                    if (index < 0) {
+                        index = slots.size();
+                        slots.add(arg.name);
+                    }
+                    kinds.add(SLOT);
+                    operands.add(new Slot(index, arg));
+                } else {
+                    kinds.add(ELEMENT);
+                    operands.add(element);
+                }
+            }
+            if (!constants.isEmpty()) {
+                kinds.add(CONSTANTS);
+                operands.add(constants.toArray(new Text[constants.size()]));
+            }
+            this.kinds = kinds.stream().mapToInt(Integer::intValue).toArray();
+            this.operands = operands.toArray();
+            this.slots = ImmutableList.copyOf(slots);
+        }
+
+        /**
+         * Returns the argument names of the template, in slot order. An
+         * argument that occurs multiple times uses a single slot.
+         *
+         * @return The argument names by slot index
+         */
+        public List<String> getSlots() {
+            return this.slots;
+        }
+
+        /**
+         * Returns the slot index of the argument with the given name.
+         *
+         * @param name The argument name
+         * @return The slot index, or {@code -1} if there is no such argument
+         */
+        public int getSlot(String name) {
+            return this.slots.indexOf(checkNotNull(name, "name"));
+        }
+
+        /**
+         * Applies the specified parameters to the template and returns the
+         * result in a {@link Text.Builder}.
+         *
+         * @param params Parameters to apply
+         * @return Text builder containing result
+         * @throws TextTemplateArgumentException if required parameters are
+         *         missing
+         */
+        public Text.Builder apply(Map<String, ?> params) {
+            checkNotNull(params, "params");
+            final Object[] values = new Object[this.slots.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = params.get(this.slots.get(i));
+            }
+            return apply(values);
+        }
+
+        /**
+         * Applies the specified parameters, indexed by slot (see
+         * {@link #getSlots()}), to the template and returns the result in a
+         * {@link Text.Builder}. Missing trailing parameters and {@code null}
+         * elements are treated as absent.
+         *
+         * @param params Parameters to apply
+         * @return Text builder containing result
+         * @throws TextTemplateArgumentException if required parameters are
+         *         missing
+         */
+        public Text.Builder apply(Object... params) {
+            checkNotNull(params, "params");
+            final Text.Builder builder = this.head == null ? Text.builder() : this.head.toBuilder();
+            for (int i = 0; i < this.kinds.length; i++) {
+                final Object operand = this.operands[i];
+                switch (this.kinds[i]) {
+                    case CONSTANTS:
+                        builder.append((Text[]) operand);
+                        break;
+                    case ELEMENT:
+                        ((TextElement) operand).applyTo(builder);
+                        break;
+                    default:
+                        ((Slot) operand).applyTo(builder, params);
+                        break;
+                }
+            }
+            return builder;
+        }
+
+    }
+
+    private static final class Slot {
+
+        private final int index;
+        private final Arg arg;
+        @Nullable private final Text defaultValue;
+
+        Slot(int index, Arg arg) {
+            this.index = index;
+            this.arg = arg;
+            // the default value never changes, so wrap it only once
+            this.defaultValue = arg.defaultValue == null ? null : Text.builder().format(arg.format).append(arg.defaultValue).build();
+        }
+
+        void applyTo(Text.Builder builder, Object[] params) {
+            final Object param = this.index < params.length ? params[this.index] : null;
+            if (param == null) {
+                this.arg.checkOptional();
+                if (this.defaultValue != null) {
+                    builder.append(this.defaultValue);
+                }
+                return;
+            }
+            // wrap the parameter in the argument format
+            final Text.Builder wrapper = Text.builder().format(this.arg.format);
+            if (param instanceof Text) {
+                wrapper.append((Text) param);
+            } else if (param instanceof TextElement) {
+                ((TextElement) param).applyTo(wrapper);
+            } else {
+                wrapper.append(Text.of(param.toString()));
+            }
+            builder.append(wrapper.build());
+        }
+
+    }
+
     /**
      * Represents a variable element within a TextTemplate. Arguments are
      * replaced by parameters in {@link #apply(Map)}.
@@ -0,0 +1,72 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.text.channel;
+
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.chat.ChatType;
+
+import java.util.Locale;
+
+/**
+ * Represents a {@link MessageReceiver} which renders messages for its
+ * {@link Locale} before sending them.
+ *
+ * <p>When a {@link MessageChannel} broadcasts an untransformed message, the
+ * message is rendered once per receiver class and locale, and the rendering
+ * is shared by all matching receivers of that broadcast.</p>
+ */
+public interface LocalizedMessageReceiver extends MessageReceiver {
+
+    /**
+     * Gets the locale messages are rendered for.
+     *
+     * @return The locale of this receiver
+     */
+    Locale getLocale();
+
+    /**
+     * Renders the message for the given locale, for example by resolving its
+     * translations and encoding it for transmission.
+     *
+     * <p>The rendering may only depend on the given arguments, as it is
+     * passed to {@link #sendRenderedMessage(Object)} of other receivers of
+     * the same class with the same locale.</p>
+     *
+     * @param type The type of message
+     * @param message The message to render
+     * @param locale The locale to render for
+     * @return The rendered message
+     */
+    Object renderMessage(ChatType type, Text message, Locale locale);
+
+    /**
+     * Sends a message rendered by {@link #renderMessage(ChatType, Text, Locale)}
+     * to this receiver.
+     *
+     * @param rendered The rendered message
+     */
+    void sendRenderedMessage(Object rendered);
+
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.text.channel;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.chat.ChatType;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * The renderings of a single broadcast, created once per receiver class and
+ * locale. An instance only lives as long as the broadcast, so renderings are
+ * never reused for a later message.
+ */
+final class LocalizedRenderings {
+
+    private final ChatType type;
+    private final Text message;
+    @Nullable private Map<Class<?>, Map<Locale, Object>> renderings;
+
+    LocalizedRenderings(ChatType type, Text message) {
+        this.type = type;
+        this.message = message;
+    }
+
+    /**
+     * Sends the message of this broadcast to the given receiver, rendering it
+     * only if no receiver of the same class and locale was rendered for yet.
+     *
+     * @param receiver The receiver
+     */
+    void send(LocalizedMessageReceiver receiver) {
+        if (this.renderings == null) {
+            this.renderings = new HashMap<>();
+        }
+        final Map<Locale, Object> byLocale = this.renderings.computeIfAbsent(receiver.getClass(), key -> new HashMap<>());
+        final Locale locale = receiver.getLocale();
+        Object rendered = byLocale.get(locale);
+        if (rendered == null) {
+            rendered = checkNotNull(receiver.renderMessage(this.type, this.message, locale), "rendered");
+            byLocale.put(locale, rendered);
+        }
+        receiver.sendRenderedMessage(rendered);
+    }
+
+}
@@ -26,6 +26,7 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.text.Text;
@@ -57,8 +58,11 @@ public interface MessageChannel {
 
     /**
      * A channel with all online players as members.
+     *
+     * <p>The members are a snapshot, so players joining or leaving while a
+     * message is sent do not affect the broadcast.</p>
      */
-    MessageChannel TO_PLAYERS = () -> ImmutableSet.copyOf(Sponge.getGame().getServer().getOnlinePlayers());
+    MessageChannel TO_PLAYERS = () -> ImmutableList.copyOf(Sponge.getGame().getServer().getOnlinePlayers());
 
     /**
      * A channel with the server console as a member.
@@ -184,6 +188,14 @@ default void send(@Nullable Object sender, Text original) {
      * Send a message to this channel, transforming and sending it to the
      * members.
      *
+     * <p>Members for which the message is not transformed receive the
+     * original {@link Text} instance, so its cached serialized form (see
+     * {@link Text#toJson()}) is shared by all of them, and
+     * {@link LocalizedMessageReceiver}s among them only render it once per
+     * locale. Channels that do not override
+     * {@link #transformMessage(Object, MessageReceiver, Text, ChatType)}
+     * skip the transformation entirely.</p>
+     *
      * @param sender The sender of the message
      * @param original The original message to send
      * @param type The type of message
@@ -191,11 +203,25 @@ default void send(@Nullable Object sender, Text original) {
     default void send(@Nullable Object sender, Text original, ChatType type) {
         checkNotNull(original, "original text");
         checkNotNull(type, "type");
+        final boolean identity = IdentityTransforms.isIdentity(this);
+        final LocalizedRenderings renderings = new LocalizedRenderings(type, original);
         for (MessageReceiver member : this.getMembers()) {
-            if (member instanceof ChatTypeMessageReceiver) {
-                this.transformMessage(sender, member, original, type).ifPresent(text -> ((ChatTypeMessageReceiver) member).sendMessage(type, text));
+            final Text message;
+            if (identity) {
+                message = original;
+            } else {
+                final Optional<Text> transformed = this.transformMessage(sender, member, original, type);
+                if (!transformed.isPresent()) {
+                    continue;
+                }
+                message = transformed.get();
+            }
+            if (message == original && member instanceof LocalizedMessageReceiver) {
+                renderings.send((LocalizedMessageReceiver) member);
+            } else if (member instanceof ChatTypeMessageReceiver) {
+                ((ChatTypeMessageReceiver) member).sendMessage(type, message);
             } else {
-                this.transformMessage(sender, member, original, type).ifPresent(member::sendMessage);
+                member.sendMessage(message);
             }
         }
     }
@@ -43,6 +43,11 @@ public interface MessageReceiver {
      * <p>If text formatting is not supported in the implementation
      * it will be displayed as plain text.</p>
      *
+     * <p>Implementations should serialize the message through
+     * {@link Text#toJson()}, so a message broadcast to many receivers is
+     * only serialized once. Receivers whose rendering depends on their
+     * locale can implement {@link LocalizedMessageReceiver}.</p>
+     *
      * @param message The message
      */
     void sendMessage(Text message);
@@ -0,0 +1,521 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.generator.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INSTANCEOF;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.LSTORE;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.PUTSTATIC;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.api.util.Tristate;
+import org.spongepowered.api.util.generator.GeneratorUtils.LocalClassLoader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates {@link ListenerDispatcher}s and {@link EventListener}s at
+ * runtime.
+ *
+ * <p>A dispatcher class is generated for every event type it is requested
+ * for. Its listeners are stored in separate fields and called from an
+ * unrolled {@link ListenerDispatcher#dispatch(Event)}, so every listener has
+ * its own call site and the JIT can inline each one independently instead of
+ * sharing one megamorphic call site inside a loop. A dispatcher which
+ * records its calls times each call site inline, so recording does not
+ * merge the call sites either.</p>
+ *
+ * <p>A {@link MethodHandle} is turned into a listener by generating a class
+ * that holds it in a static final field. The JIT treats such a field as a
+ * constant, so it can inline the whole handle chain into the call site.
+ * That is not possible for a handle read from an instance field.</p>
+ *
+ * <p>Generated classes are cached and reused until the generator is
+ * discarded.</p>
+ */
+public final class ListenerClassGenerator {
+
+    /**
+     * The largest number of listeners that is unrolled into a generated
+     * dispatcher. Larger arrays are dispatched by a loop, which keeps the
+     * generated method below the size the JIT is willing to compile.
+     */
+    public static final int MAX_UNROLLED_LISTENERS = 256;
+
+    private static final String PACKAGE = "org.spongepowered.api.util.generator.event";
+
+    private static final String DISPATCHER = Type.getInternalName(ListenerDispatcher.class);
+    private static final String LISTENER = Type.getInternalName(EventListener.class);
+    private static final String LISTENER_DESC = Type.getDescriptor(EventListener.class);
+    private static final String DISPATCHER_INIT_DESC = Type.getMethodDescriptor(Type.VOID_TYPE,
+            Type.getType(EventListener[].class), Type.getType(ListenerDispatcher.ErrorHandler.class),
+            Type.getType(ListenerDispatcher.Recorder.class));
+    private static final String DISPATCH_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Event.class));
+    private static final String HANDLE_ERROR_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.INT_TYPE,
+            Type.getType(Event.class), Type.getType(Throwable.class));
+    private static final String IS_CANCELLED_DESC = Type.getMethodDescriptor(Type.BOOLEAN_TYPE, Type.getType(Event.class));
+    private static final String RECORD_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.INT_TYPE,
+            Type.getType(Event.class), Type.BOOLEAN_TYPE, Type.LONG_TYPE);
+    private static final String METHOD_HANDLE = Type.getInternalName(MethodHandle.class);
+    private static final String METHOD_HANDLE_DESC = Type.getDescriptor(MethodHandle.class);
+    private static final String TAKE_HANDLE_DESC = Type.getMethodDescriptor(Type.getType(MethodHandle.class), Type.getType(Class.class));
+    private static final MethodType HANDLE_TYPE = MethodType.methodType(void.class, Event.class);
+
+    // The handles of generated handle invokers whose classes have not been
+    // initialized yet, by class name
+    private static final Map<String, MethodHandle> pendingHandles = new ConcurrentHashMap<>();
+    private static final AtomicInteger handleInvokerCount = new AtomicInteger();
+
+    private final LocalClassLoader dispatcherLoader = new LocalClassLoader(ListenerDispatcher.class.getClassLoader());
+    private final Map<String, Constructor<?>> dispatchers = new HashMap<>();
+    private final Map<ClassLoader, LocalClassLoader> invokerLoaders = new HashMap<>();
+    private final Map<List<Object>, Constructor<?>> invokers = new HashMap<>();
+    private int invokerCount;
+
+    /**
+     * Creates a {@link ListenerDispatcher} calling the given listeners for
+     * events of the given type.
+     *
+     * @param eventClass The event type the dispatcher is created for
+     * @param listeners The listeners, in the order they should be called
+     * @param errorHandler The handler for errors thrown by the listeners
+     * @return The dispatcher
+     */
+    public ListenerDispatcher createDispatcher(Class<?> eventClass, EventListener<?>[] listeners,
+            ListenerDispatcher.ErrorHandler errorHandler) {
+        return createDispatcher(eventClass, listeners, errorHandler, null);
+    }
+
+    /**
+     * Creates a {@link ListenerDispatcher} calling the given listeners for
+     * events of the given type, which records every call to the given
+     * {@link ListenerDispatcher.Recorder}.
+     *
+     * @param eventClass The event type the dispatcher is created for
+     * @param listeners The listeners, in the order they should be called
+     * @param errorHandler The handler for errors thrown by the listeners
+     * @param recorder The recorder of the listener calls, or null to not
+     *     record them
+     * @return The dispatcher
+     */
+    public ListenerDispatcher createDispatcher(Class<?> eventClass, EventListener<?>[] listeners,
+            ListenerDispatcher.ErrorHandler errorHandler, @Nullable ListenerDispatcher.Recorder recorder) {
+        checkNotNull(eventClass, "eventClass");
+        checkNotNull(listeners, "listeners");
+        checkNotNull(errorHandler, "errorHandler");
+        final EventListener<?>[] copy = listeners.clone();
+        if (copy.length > MAX_UNROLLED_LISTENERS) {
+            return new LoopDispatcher(copy, errorHandler, recorder);
+        }
+        final boolean recording = recorder != null;
+        final String name = PACKAGE + ".Dispatcher$" + eventClass.getName().replace('.', '_') + "$" + copy.length
+                + (recording ? "$Recording" : "");
+        try {
+            return (ListenerDispatcher) getDispatcherConstructor(name, copy.length, recording).newInstance(copy, errorHandler, recorder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create the listener dispatcher for " + eventClass, e);
+        }
+    }
+
+    /**
+     * Creates an {@link EventListener} calling the given method on the
+     * handler object.
+     *
+     * <p>The method must be public, declared by a public class, return
+     * {@code void} and take exactly one {@link Event} parameter.</p>
+     *
+     * @param handler The object the method is called on
+     * @param method The method
+     * @param cancelled The cancellation state events must have to be passed
+     *     to the method, {@link Tristate#UNDEFINED} to pass all events
+     * @return The listener
+     */
+    public EventListener<Event> createInvoker(Object handler, Method method, Tristate cancelled) {
+        checkNotNull(handler, "handler");
+        checkNotNull(method, "method");
+        checkNotNull(cancelled, "cancelled");
+        final Class<?> declaringClass = method.getDeclaringClass();
+        checkArgument(declaringClass.isInstance(handler), "%s is not an instance of %s", handler, declaringClass);
+        checkArgument(Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(declaringClass.getModifiers()),
+                "%s is not public", method);
+        checkArgument(!Modifier.isStatic(method.getModifiers()), "%s is static", method);
+        checkArgument(method.getReturnType() == void.class, "%s does not return void", method);
+        checkArgument(method.getParameterCount() == 1 && Event.class.isAssignableFrom(method.getParameterTypes()[0]),
+                "%s does not take a single event parameter", method);
+        try {
+            @SuppressWarnings("unchecked")
+            final EventListener<Event> listener = (EventListener<Event>) getInvokerConstructor(method, cancelled).newInstance(handler);
+            return listener;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create the listener invoker for " + method, e);
+        }
+    }
+
+    /**
+     * Creates an {@link EventListener} calling the given {@link MethodHandle}.
+     *
+     * <p>The handle is stored in a static final field of a class generated
+     * for it, so it is a constant to the JIT.</p>
+     *
+     * @param handle The handle, which must be of the type {@code (Event)void}
+     * @param name The description of the listener
+     * @return The listener
+     */
+    public EventListener<Event> createHandleInvoker(MethodHandle handle, String name) {
+        checkNotNull(handle, "handle");
+        checkNotNull(name, "name");
+        checkArgument(handle.type().equals(HANDLE_TYPE), "%s is not of the type %s", handle, HANDLE_TYPE);
+        final String className = PACKAGE + ".HandleInvoker$" + handleInvokerCount.getAndIncrement();
+        pendingHandles.put(className, handle);
+        try {
+            final Class<?> clazz;
+            synchronized (this) {
+                clazz = this.dispatcherLoader.defineClass(className, generateHandleInvoker(className.replace('.', '/'), name));
+            }
+            // Initializes the class, which takes the pending handle
+            @SuppressWarnings("unchecked")
+            final EventListener<Event> listener = (EventListener<Event>) clazz.getConstructor().newInstance();
+            return listener;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create the listener invoker for " + name, e);
+        } finally {
+            pendingHandles.remove(className);
+        }
+    }
+
+    /**
+     * Takes the {@link MethodHandle} of a class generated by
+     * {@link #createHandleInvoker(MethodHandle, String)}. This is called by
+     * the static initializer of the generated class, and should not be
+     * called otherwise.
+     *
+     * @param invokerClass The generated class
+     * @return The handle
+     */
+    public static MethodHandle takeHandle(Class<?> invokerClass) {
+        @Nullable final MethodHandle handle = pendingHandles.remove(invokerClass.getName());
+        checkState(handle != null, "There is no handle waiting for %s", invokerClass);
+        return handle;
+    }
+
+    private synchronized Constructor<?> getDispatcherConstructor(String name, int count, boolean recording) throws NoSuchMethodException {
+        Constructor<?> constructor = this.dispatchers.get(name);
+        if (constructor == null) {
+            final Class<?> clazz = this.dispatcherLoader.defineClass(name, generateDispatcher(name.replace('.', '/'), count, recording));
+            constructor = clazz.getConstructor(EventListener[].class, ListenerDispatcher.ErrorHandler.class, ListenerDispatcher.Recorder.class);
+            this.dispatchers.put(name, constructor);
+        }
+        return constructor;
+    }
+
+    private synchronized Constructor<?> getInvokerConstructor(Method method, Tristate cancelled) throws NoSuchMethodException {
+        final List<Object> key = Arrays.asList(method, cancelled);
+        Constructor<?> constructor = this.invokers.get(key);
+        if (constructor == null) {
+            final Class<?> declaringClass = method.getDeclaringClass();
+            final LocalClassLoader loader = this.invokerLoaders.computeIfAbsent(declaringClass.getClassLoader(), LocalClassLoader::new);
+            final String name = PACKAGE + ".Invoker$" + declaringClass.getSimpleName() + "$" + method.getName() + "$" + this.invokerCount++;
+            final Class<?> clazz = loader.defineClass(name, generateInvoker(name.replace('.', '/'), method, cancelled));
+            constructor = clazz.getConstructor(Object.class);
+            this.invokers.put(key, constructor);
+        }
+        return constructor;
+    }
+
+    private static byte[] generateDispatcher(String internalName, int count, boolean recording) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, internalName, null, DISPATCHER, null);
+        for (int i = 0; i < count; i++) {
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, "l" + i, LISTENER_DESC, null, null).visitEnd();
+        }
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", DISPATCHER_INIT_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitMethodInsn(INVOKESPECIAL, DISPATCHER, "<init>", DISPATCHER_INIT_DESC, false);
+        for (int i = 0; i < count; i++) {
+            // this.l<i> = listeners[i]
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            visitInt(mv, i);
+            mv.visitInsn(AALOAD);
+            mv.visitFieldInsn(PUTFIELD, internalName, "l" + i, LISTENER_DESC);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "dispatch", DISPATCH_DESC, null, null);
+        mv.visitCode();
+        for (int i = 0; i < count; i++) {
+            final Label start = new Label();
+            final Label end = new Label();
+            final Label handler = new Label();
+            final Label next = new Label();
+            mv.visitTryCatchBlock(start, end, handler, Type.getInternalName(Throwable.class));
+            if (recording) {
+                // boolean wasCancelled = isCancelled(event); long start = System.nanoTime();
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKESTATIC, DISPATCHER, "isCancelled", IS_CANCELLED_DESC, false);
+                mv.visitVarInsn(ISTORE, 3);
+                mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(System.class), "nanoTime", "()J", false);
+                mv.visitVarInsn(LSTORE, 4);
+            }
+            // try { this.l<i>.handle(event); }
+            mv.visitLabel(start);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, internalName, "l" + i, LISTENER_DESC);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEINTERFACE, LISTENER, "handle", DISPATCH_DESC, true);
+            mv.visitLabel(end);
+            mv.visitJumpInsn(GOTO, next);
+            // catch (Throwable t) { this.handleError(i, event, t); }
+            mv.visitLabel(handler);
+            mv.visitVarInsn(ASTORE, 2);
+            mv.visitVarInsn(ALOAD, 0);
+            visitInt(mv, i);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKEVIRTUAL, DISPATCHER, "handleError", HANDLE_ERROR_DESC, false);
+            mv.visitLabel(next);
+            if (recording) {
+                // this.record(i, event, wasCancelled, start);
+                mv.visitVarInsn(ALOAD, 0);
+                visitInt(mv, i);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitVarInsn(ILOAD, 3);
+                mv.visitVarInsn(LLOAD, 4);
+                mv.visitMethodInsn(INVOKEVIRTUAL, DISPATCHER, "record", RECORD_DESC, false);
+            }
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static byte[] generateInvoker(String internalName, Method method, Tristate cancelled) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String handlerName = Type.getInternalName(declaringClass);
+        final String handlerDesc = Type.getDescriptor(declaringClass);
+
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, internalName, null, Type.getInternalName(Object.class), new String[] {LISTENER});
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "handler", handlerDesc, null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, handlerName);
+        mv.visitFieldInsn(PUTFIELD, internalName, "handler", handlerDesc);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "handle", DISPATCH_DESC, null, null);
+        mv.visitCode();
+        if (cancelled != Tristate.UNDEFINED) {
+            visitCancelledCheck(mv, cancelled == Tristate.TRUE);
+        }
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, "handler", handlerDesc);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, Type.getInternalName(method.getParameterTypes()[0]));
+        final boolean isInterface = declaringClass.isInterface();
+        mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, handlerName, method.getName(),
+                Type.getMethodDescriptor(method), isInterface);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "toString", "()Ljava/lang/String;", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(method.toString());
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static byte[] generateHandleInvoker(String internalName, String name) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, internalName, null, Type.getInternalName(Object.class), new String[] {LISTENER});
+        cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "HANDLE", METHOD_HANDLE_DESC, null, null).visitEnd();
+
+        // HANDLE = ListenerClassGenerator.takeHandle(<this class>)
+        MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(Type.getObjectType(internalName));
+        mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(ListenerClassGenerator.class), "takeHandle", TAKE_HANDLE_DESC, false);
+        mv.visitFieldInsn(PUTSTATIC, internalName, "HANDLE", METHOD_HANDLE_DESC);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // HANDLE.invokeExact(event)
+        mv = cw.visitMethod(ACC_PUBLIC, "handle", DISPATCH_DESC, null, null);
+        mv.visitCode();
+        mv.visitFieldInsn(GETSTATIC, internalName, "HANDLE", METHOD_HANDLE_DESC);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", DISPATCH_DESC, false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "toString", "()Ljava/lang/String;", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(name);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void visitCancelledCheck(MethodVisitor mv, boolean cancelled) {
+        final String cancellable = Type.getInternalName(Cancellable.class);
+        final Label skip = new Label();
+        final Label call = new Label();
+        // if (!(event instanceof Cancellable)) -> call when only uncancelled events are accepted
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(INSTANCEOF, cancellable);
+        mv.visitJumpInsn(IFEQ, cancelled ? skip : call);
+        // if (((Cancellable) event).isCancelled() != cancelled) -> return
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, cancellable);
+        mv.visitMethodInsn(INVOKEINTERFACE, cancellable, "isCancelled", "()Z", true);
+        mv.visitJumpInsn(cancelled ? IFNE : IFEQ, call);
+        mv.visitLabel(skip);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(call);
+    }
+
+    private static void visitInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else {
+            mv.visitIntInsn(SIPUSH, value);
+        }
+    }
+
+    private static final class LoopDispatcher extends ListenerDispatcher {
+
+        private final EventListener<Event>[] listeners;
+
+        @SuppressWarnings("unchecked")
+        LoopDispatcher(EventListener<?>[] listeners, ErrorHandler errorHandler, @Nullable Recorder recorder) {
+            super(listeners, errorHandler, recorder);
+            this.listeners = (EventListener<Event>[]) listeners;
+        }
+
+        @Override
+        public void dispatch(Event event) {
+            final boolean recording = isRecording();
+            for (int i = 0; i < this.listeners.length; i++) {
+                final boolean wasCancelled = recording && isCancelled(event);
+                final long start = recording ? System.nanoTime() : 0;
+                try {
+                    this.listeners[i].handle(event);
+                } catch (Throwable t) {
+                    handleError(i, event, t);
+                }
+                if (recording) {
+                    record(i, event, wasCancelled, start);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.generator.event;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+
+import javax.annotation.Nullable;
+
+/**
+ * Calls a fixed, ordered array of {@link EventListener}s for a single event
+ * type.
+ *
+ * <p>Instances are normally generated by the {@link ListenerClassGenerator},
+ * which unrolls the listener array into one field and one call site per
+ * listener. Dispatchers are immutable, a change to the registered listeners
+ * is handled by creating a new dispatcher.</p>
+ *
+ * <p>A dispatcher created with a {@link Recorder} times every listener call
+ * and passes the result to the recorder, a dispatcher without one does no
+ * extra work around the calls.</p>
+ */
+public abstract class ListenerDispatcher {
+
+    private final EventListener<?>[] listeners;
+    private final ErrorHandler errorHandler;
+    @Nullable private final Recorder recorder;
+
+    /**
+     * Creates a new {@link ListenerDispatcher}.
+     *
+     * @param listeners The listeners, in the order they should be called
+     * @param errorHandler The handler for errors thrown by the listeners
+     */
+    protected ListenerDispatcher(EventListener<?>[] listeners, ErrorHandler errorHandler) {
+        this(listeners, errorHandler, null);
+    }
+
+    /**
+     * Creates a new {@link ListenerDispatcher} which records every listener
+     * call to the given {@link Recorder}.
+     *
+     * @param listeners The listeners, in the order they should be called
+     * @param errorHandler The handler for errors thrown by the listeners
+     * @param recorder The recorder of the listener calls, or null to not
+     *     record them
+     */
+    protected ListenerDispatcher(EventListener<?>[] listeners, ErrorHandler errorHandler, @Nullable Recorder recorder) {
+        this.listeners = checkNotNull(listeners, "listeners");
+        this.errorHandler = checkNotNull(errorHandler, "errorHandler");
+        this.recorder = recorder;
+    }
+
+    /**
+     * Gets the number of listeners called by this dispatcher.
+     *
+     * @return The number of listeners
+     */
+    public final int getListenerCount() {
+        return this.listeners.length;
+    }
+
+    /**
+     * Gets the listener at the given position in the call order.
+     *
+     * @param index The index of the listener
+     * @return The listener
+     */
+    public final EventListener<?> getListener(int index) {
+        return this.listeners[index];
+    }
+
+    /**
+     * Gets whether this dispatcher records its listener calls.
+     *
+     * @return True if the calls are passed to a {@link Recorder}
+     */
+    public final boolean isRecording() {
+        return this.recorder != null;
+    }
+
+    /**
+     * Calls every listener of this dispatcher with the given event.
+     *
+     * <p>An error thrown by one listener is passed to the
+     * {@link ErrorHandler} and does not prevent the remaining listeners
+     * from being called.</p>
+     *
+     * @param event The event
+     */
+    public abstract void dispatch(Event event);
+
+    /**
+     * Passes an error thrown by a listener to the {@link ErrorHandler}.
+     *
+     * @param index The index of the listener that failed
+     * @param event The event being dispatched
+     * @param throwable The error
+     */
+    protected final void handleError(int index, Event event, Throwable throwable) {
+        this.errorHandler.handle(index, event, throwable);
+    }
+
+    /**
+     * Gets whether the given event is cancelled.
+     *
+     * @param event The event
+     * @return True if the event is {@link Cancellable} and cancelled
+     */
+    protected static boolean isCancelled(Event event) {
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+
+    /**
+     * Passes a completed listener call to the {@link Recorder}.
+     *
+     * @param index The index of the listener that was called
+     * @param event The event being dispatched
+     * @param wasCancelled Whether the event was cancelled before the call
+     * @param start The {@link System#nanoTime()} the call started at
+     */
+    protected final void record(int index, Event event, boolean wasCancelled, long start) {
+        final long nanos = System.nanoTime() - start;
+        if (this.recorder != null) {
+            this.recorder.record(index, nanos, !wasCancelled && isCancelled(event));
+        }
+    }
+
+    /**
+     * Handles errors thrown by the listeners of a {@link ListenerDispatcher}.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler {
+
+        /**
+         * Handles an error thrown by a listener.
+         *
+         * @param index The index of the listener that failed
+         * @param event The event being dispatched
+         * @param throwable The error
+         */
+        void handle(int index, Event event, Throwable throwable);
+
+    }
+
+    /**
+     * Records the calls of the listeners of a {@link ListenerDispatcher}.
+     */
+    @FunctionalInterface
+    public interface Recorder {
+
+        /**
+         * Records a completed listener call, whether or not the listener
+         * threw an error.
+         *
+         * @param index The index of the listener that was called
+         * @param nanos The time spent in the listener, in nanoseconds
+         * @param cancelled Whether the listener cancelled the event
+         */
+        void record(int index, long nanos, boolean cancelled);
+
+    }
+
+}
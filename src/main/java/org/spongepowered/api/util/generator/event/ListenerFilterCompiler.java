@@ -0,0 +1,396 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.generator.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.primitives.Primitives;
+import org.spongepowered.api.data.DataHolder;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.api.event.cause.EventContextKey;
+import org.spongepowered.api.event.filter.Getter;
+import org.spongepowered.api.event.filter.IsCancelled;
+import org.spongepowered.api.event.filter.cause.After;
+import org.spongepowered.api.event.filter.cause.All;
+import org.spongepowered.api.event.filter.cause.Before;
+import org.spongepowered.api.event.filter.cause.ContextValue;
+import org.spongepowered.api.event.filter.cause.First;
+import org.spongepowered.api.event.filter.cause.Last;
+import org.spongepowered.api.event.filter.cause.Root;
+import org.spongepowered.api.event.filter.data.Has;
+import org.spongepowered.api.event.filter.data.Supports;
+import org.spongepowered.api.event.filter.type.Exclude;
+import org.spongepowered.api.event.filter.type.Include;
+import org.spongepowered.api.util.Tristate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+/**
+ * Compiles the filter annotations of a listener method into a single
+ * {@link MethodHandle} chain.
+ *
+ * <p>Every parameter after the event is bound to an extractor handle with its
+ * lookup class and type filters inserted as constants, for example
+ * {@code @First Player player} becomes a call to {@code Cause#first} that is
+ * specialized to {@code Player}. The extractors are folded in front of the
+ * listener method one by one and the chain returns as soon as one of them
+ * rejects the event, so no argument array is created and no annotation is
+ * looked at while an event is dispatched.</p>
+ *
+ * <p>The {@link Include} and {@link Exclude} filters only depend on the class
+ * of the event and are compiled separately by
+ * {@link #compileTypeFilter(Method)}, so they can be applied once per event
+ * class instead of once per event.</p>
+ */
+public final class ListenerFilterCompiler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle NOT_NULL = find("notNull", boolean.class, Object.class);
+    private static final MethodHandle REJECT = find("reject", void.class);
+    private static final MethodHandle IS_CANCELLED = find("isCancelled", boolean.class, boolean.class, Event.class);
+    private static final MethodHandle UNWRAP = find("unwrap", Object.class, Optional.class);
+    private static final MethodHandle INSTANCE_OF = find("instanceOf", Object.class, Class.class, Object.class);
+    private static final MethodHandle MATCHES = find("matches", Object.class, TypeFilter.class, Object.class);
+    private static final MethodHandle HAS = find("has", Object.class, Class.class, boolean.class, Object.class);
+    private static final MethodHandle SUPPORTS = find("supports", Object.class, Class.class, boolean.class, Object.class);
+    private static final MethodHandle FIRST = find("first", Object.class, Class.class, Event.class);
+    private static final MethodHandle LAST = find("last", Object.class, Class.class, Event.class);
+    private static final MethodHandle ROOT = find("root", Object.class, Event.class);
+    private static final MethodHandle BEFORE = find("before", Object.class, Class.class, Event.class);
+    private static final MethodHandle AFTER = find("after", Object.class, Class.class, Event.class);
+    private static final MethodHandle ALL = find("all", Object.class, Class.class, boolean.class, Event.class);
+    private static final MethodHandle CONTEXT = find("context", Object.class, String.class, Event.class);
+
+    private final ListenerClassGenerator generator;
+
+    /**
+     * Creates a new {@link ListenerFilterCompiler}.
+     *
+     * @param generator The generator used for listeners without parameter
+     *     filters
+     */
+    public ListenerFilterCompiler(ListenerClassGenerator generator) {
+        this.generator = checkNotNull(generator, "generator");
+    }
+
+    /**
+     * Compiles the {@link Include} and {@link Exclude} annotations of a
+     * listener method into a predicate on event classes.
+     *
+     * @param method The listener method
+     * @return The predicate, accepting the event classes the method should
+     *     receive
+     * @throws IllegalArgumentException If both annotations are present
+     */
+    public static Predicate<Class<?>> compileTypeFilter(Method method) {
+        checkNotNull(method, "method");
+        @Nullable final Include include = method.getAnnotation(Include.class);
+        @Nullable final Exclude exclude = method.getAnnotation(Exclude.class);
+        checkArgument(include == null || exclude == null, "%s cannot be annotated with both @Include and @Exclude", method);
+        if (include != null) {
+            return new TypeFilter(include.value(), false)::get;
+        } else if (exclude != null) {
+            return new TypeFilter(exclude.value(), true)::get;
+        }
+        return eventClass -> true;
+    }
+
+    /**
+     * Compiles a listener method with its filter annotations into an
+     * {@link EventListener}.
+     *
+     * <p>The first parameter of the method is the event, every further
+     * parameter must be annotated with one of the parameter source
+     * annotations such as {@link Getter} or {@link First}. Events are only
+     * passed on if they match the {@link IsCancelled} state of the method,
+     * which defaults to {@link Tristate#FALSE}.</p>
+     *
+     * @param handler The object the method is called on
+     * @param method The listener method
+     * @return The listener
+     * @throws IllegalArgumentException If the method or its annotations are
+     *     not valid
+     */
+    public EventListener<Event> compile(Object handler, Method method) {
+        checkNotNull(handler, "handler");
+        checkNotNull(method, "method");
+        checkArgument(method.getParameterCount() > 0 && Event.class.isAssignableFrom(method.getParameterTypes()[0]),
+                "%s does not take an event as first parameter", method);
+        @Nullable final IsCancelled isCancelled = method.getAnnotation(IsCancelled.class);
+        final Tristate cancelled = isCancelled == null ? Tristate.FALSE : isCancelled.value();
+        if (method.getParameterCount() == 1) {
+            return this.generator.createInvoker(handler, method, cancelled);
+        }
+
+        final Class<?> eventClass = method.getParameterTypes()[0];
+        final Parameter[] parameters = method.getParameters();
+        MethodHandle chain;
+        try {
+            chain = MethodHandles.publicLookup().unreflect(method).bindTo(handler);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(method + " is not public", e);
+        }
+        checkArgument(chain.type().returnType() == void.class, "%s does not return void", method);
+        chain = chain.asType(chain.type().changeParameterType(0, Event.class));
+        for (int i = parameters.length - 1; i > 0; i--) {
+            chain = foldExtractor(chain, i, createExtractor(method, eventClass, parameters[i]));
+        }
+        if (cancelled != Tristate.UNDEFINED) {
+            chain = MethodHandles.guardWithTest(MethodHandles.insertArguments(IS_CANCELLED, 0, cancelled.asBoolean()), chain,
+                    MethodHandles.dropArguments(REJECT, 0, Event.class));
+        }
+        return this.generator.createHandleInvoker(chain, method.toString());
+    }
+
+    /**
+     * Folds an extractor into the chain, the resulting handle takes one
+     * parameter less and returns without calling the chain if the extractor
+     * returns {@code null}.
+     */
+    private static MethodHandle foldExtractor(MethodHandle chain, int index, MethodHandle extractor) {
+        // (Event, P1 .. Pi) -> (Object, Event, P1 .. Pi-1)
+        final MethodHandle accept = chain.asType(chain.type().changeParameterType(index, Object.class));
+        final MethodType type = accept.type().dropParameterTypes(index, index + 1).insertParameterTypes(0, Object.class);
+        final int[] reorder = new int[index + 1];
+        for (int i = 0; i < index; i++) {
+            reorder[i] = i + 1;
+        }
+        reorder[index] = 0;
+        final List<Class<?>> remaining = type.dropParameterTypes(0, 1).parameterList();
+        final MethodHandle body = MethodHandles.guardWithTest(
+                MethodHandles.dropArguments(NOT_NULL, 1, remaining),
+                MethodHandles.permuteArguments(accept, type, reorder),
+                MethodHandles.dropArguments(REJECT, 0, type.parameterList()));
+        return MethodHandles.foldArguments(body, extractor);
+    }
+
+    private static MethodHandle createExtractor(Method method, Class<?> eventClass, Parameter parameter) {
+        final Class<?> type = parameter.getType();
+        final Class<?> boxed = Primitives.wrap(type);
+        MethodHandle extractor;
+        if (parameter.isAnnotationPresent(Getter.class)) {
+            final String name = parameter.getAnnotation(Getter.class).value();
+            final Method getter;
+            try {
+                getter = eventClass.getMethod(name);
+                extractor = MethodHandles.publicLookup().unreflect(getter);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("No public getter " + name + " found on " + eventClass + " for " + method, e);
+            }
+            if (getter.getReturnType() == Optional.class && type != Optional.class) {
+                extractor = MethodHandles.filterReturnValue(extractor, UNWRAP);
+            }
+            extractor = extractor.asType(MethodType.methodType(Object.class, Event.class));
+            extractor = checkInstance(extractor, boxed);
+        } else if (parameter.isAnnotationPresent(First.class)) {
+            final First first = parameter.getAnnotation(First.class);
+            extractor = MethodHandles.insertArguments(FIRST, 0, boxed);
+            extractor = checkTypes(extractor, first.typeFilter(), first.inverse());
+        } else if (parameter.isAnnotationPresent(Last.class)) {
+            final Last last = parameter.getAnnotation(Last.class);
+            extractor = MethodHandles.insertArguments(LAST, 0, boxed);
+            extractor = checkTypes(extractor, last.typeFilter(), last.inverse());
+        } else if (parameter.isAnnotationPresent(Root.class)) {
+            final Root root = parameter.getAnnotation(Root.class);
+            extractor = checkInstance(ROOT, boxed);
+            extractor = checkTypes(extractor, root.typeFilter(), root.inverse());
+        } else if (parameter.isAnnotationPresent(Before.class)) {
+            final Before before = parameter.getAnnotation(Before.class);
+            extractor = checkInstance(MethodHandles.insertArguments(BEFORE, 0, before.value()), boxed);
+            extractor = checkTypes(extractor, before.typeFilter(), before.inverse());
+        } else if (parameter.isAnnotationPresent(After.class)) {
+            final After after = parameter.getAnnotation(After.class);
+            extractor = checkInstance(MethodHandles.insertArguments(AFTER, 0, after.value()), boxed);
+            extractor = checkTypes(extractor, after.typeFilter(), after.inverse());
+        } else if (parameter.isAnnotationPresent(All.class)) {
+            checkArgument(type.isArray() && !type.getComponentType().isPrimitive(), "@All parameters of %s must be object arrays", method);
+            extractor = MethodHandles.insertArguments(ALL, 0, type.getComponentType(), parameter.getAnnotation(All.class).ignoreEmpty());
+        } else if (parameter.isAnnotationPresent(ContextValue.class)) {
+            final ContextValue context = parameter.getAnnotation(ContextValue.class);
+            extractor = checkInstance(MethodHandles.insertArguments(CONTEXT, 0, context.value()), boxed);
+            extractor = checkTypes(extractor, context.typeFilter(), context.inverse());
+        } else {
+            throw new IllegalArgumentException("Parameter " + parameter.getName() + " of " + method + " has no source annotation");
+        }
+
+        if (parameter.isAnnotationPresent(Has.class)) {
+            final Has has = parameter.getAnnotation(Has.class);
+            checkArgument(DataHolder.class.isAssignableFrom(type), "@Has parameters of %s must be data holders", method);
+            extractor = MethodHandles.filterReturnValue(extractor, MethodHandles.insertArguments(HAS, 0, has.value(), has.inverse()));
+        }
+        if (parameter.isAnnotationPresent(Supports.class)) {
+            final Supports supports = parameter.getAnnotation(Supports.class);
+            checkArgument(DataHolder.class.isAssignableFrom(type), "@Supports parameters of %s must be data holders", method);
+            extractor = MethodHandles.filterReturnValue(extractor,
+                    MethodHandles.insertArguments(SUPPORTS, 0, supports.value(), supports.inverse()));
+        }
+        return extractor;
+    }
+
+    private static MethodHandle checkInstance(MethodHandle extractor, Class<?> type) {
+        if (type == Object.class) {
+            return extractor;
+        }
+        return MethodHandles.filterReturnValue(extractor, MethodHandles.insertArguments(INSTANCE_OF, 0, type));
+    }
+
+    private static MethodHandle checkTypes(MethodHandle extractor, Class<?>[] types, boolean inverse) {
+        if (types.length == 0) {
+            return extractor;
+        }
+        return MethodHandles.filterReturnValue(extractor, MethodHandles.insertArguments(MATCHES, 0, new TypeFilter(types, inverse)));
+    }
+
+    private static MethodHandle find(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return LOOKUP.findStatic(ListenerFilterCompiler.class, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static boolean notNull(@Nullable Object value) {
+        return value != null;
+    }
+
+    private static void reject() {
+    }
+
+    private static boolean isCancelled(boolean cancelled, Event event) {
+        return event instanceof Cancellable ? ((Cancellable) event).isCancelled() == cancelled : !cancelled;
+    }
+
+    @Nullable
+    private static Object unwrap(@Nullable Optional<?> value) {
+        return value == null ? null : value.orElse(null);
+    }
+
+    @Nullable
+    private static Object instanceOf(Class<?> type, @Nullable Object value) {
+        return type.isInstance(value) ? value : null;
+    }
+
+    @Nullable
+    private static Object matches(TypeFilter filter, @Nullable Object value) {
+        return value != null && filter.get(value.getClass()) ? value : null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static Object has(Class manipulator, boolean inverse, @Nullable Object value) {
+        return value != null && ((DataHolder) value).get(manipulator).isPresent() != inverse ? value : null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static Object supports(Class manipulator, boolean inverse, @Nullable Object value) {
+        return value != null && ((DataHolder) value).supports(manipulator) != inverse ? value : null;
+    }
+
+    @Nullable
+    private static Object first(Class<?> type, Event event) {
+        return event.getCause().first(type).orElse(null);
+    }
+
+    @Nullable
+    private static Object last(Class<?> type, Event event) {
+        return event.getCause().last(type).orElse(null);
+    }
+
+    private static Object root(Event event) {
+        return event.getCause().root();
+    }
+
+    @Nullable
+    private static Object before(Class<?> type, Event event) {
+        return event.getCause().before(type).orElse(null);
+    }
+
+    @Nullable
+    private static Object after(Class<?> type, Event event) {
+        return event.getCause().after(type).orElse(null);
+    }
+
+    @Nullable
+    private static Object all(Class<?> type, boolean ignoreEmpty, Event event) {
+        final List<?> all = event.getCause().allOf(type);
+        if (all.isEmpty() && ignoreEmpty) {
+            return null;
+        }
+        return all.toArray((Object[]) Array.newInstance(type, all.size()));
+    }
+
+    @Nullable
+    private static Object context(String id, Event event) {
+        for (Map.Entry<EventContextKey<?>, Object> entry : event.getCause().getContext().asMap().entrySet()) {
+            if (entry.getKey().getId().equals(id)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tests classes against a set of included or excluded super types, the
+     * result is computed once per class.
+     */
+    private static final class TypeFilter extends ClassValue<Boolean> {
+
+        private final Class<?>[] types;
+        private final boolean inverse;
+
+        TypeFilter(Class<?>[] types, boolean inverse) {
+            this.types = types.clone();
+            this.inverse = inverse;
+        }
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> filtered : this.types) {
+                if (filtered.isAssignableFrom(type)) {
+                    return !this.inverse;
+                }
+            }
+            return this.inverse;
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.command.args;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.api.command.args.parsing.InputTokenizer;
+
+import java.util.Optional;
+
+public class CommandContextTest {
+
+    @Test
+    public void testValues() {
+        final CommandContext context = new CommandContext();
+        context.putArg("a", 1);
+        context.putArg("b", 2);
+        context.putArg("a", 3);
+        assertThat(context.getAll("a"), contains(1, 3));
+        assertThat(context.getOne("b"), is(Optional.of(2)));
+        assertThat(context.getOne("a"), is(Optional.empty()));
+        assertTrue(context.hasAny("b"));
+        assertFalse(context.hasAny("c"));
+        assertThat(context.getAll("c"), empty());
+        for (int i = 0; i < 100; i++) {
+            context.putArg("many", i);
+        }
+        assertThat(context.getAll("many").size(), is(100));
+        assertThat(context.<Integer>requireOne("b"), is(2));
+    }
+
+    @Test
+    public void testSnapshots() {
+        final CommandContext context = new CommandContext();
+        context.putArg("a", 1);
+        final CommandContext.Snapshot first = context.createSnapshot();
+        context.putArg("b", 2);
+        final CommandContext.Snapshot second = context.createSnapshot();
+
+        context.applySnapshot(first);
+        assertFalse(context.hasAny("b"));
+        context.putArg("c", 3);
+        assertThat(context.getAll("c"), contains(3));
+
+        context.applySnapshot(second);
+        assertThat(context.getOne("b"), is(Optional.of(2)));
+        assertFalse(context.hasAny("c"));
+        context.putArg("d", 4);
+
+        context.applySnapshot(first);
+        assertFalse(context.hasAny("b"));
+        assertFalse(context.hasAny("d"));
+        assertThat(context.getOne("a"), is(Optional.of(1)));
+    }
+
+    @Test
+    public void testValuesAcrossSnapshots() {
+        final CommandContext context = new CommandContext();
+        context.putArg("a", 1);
+        final CommandContext.Snapshot first = context.createSnapshot();
+        context.putArg("a", 2);
+        context.putArg("b", 2);
+        final CommandContext.Snapshot second = context.createSnapshot();
+
+        context.applySnapshot(first);
+        assertThat(context.getAll("a"), contains(1));
+        assertThat(context.<Integer>requireOne("a"), is(1));
+        context.putArg("a", 3);
+        assertThat(context.getAll("a"), contains(1, 3));
+        assertFalse(context.hasAny("b"));
+
+        context.applySnapshot(second);
+        assertThat(context.getAll("a"), contains(1, 2));
+        assertThat(context.getOne("b"), is(Optional.of(2)));
+    }
+
+    @Test
+    public void testArgsSnapshots() throws ArgumentParseException {
+        final CommandArgs args = new CommandArgs("one two three", InputTokenizer.spaceSplitString().tokenize("one two three", false));
+        final CommandArgs.Snapshot start = args.getSnapshot();
+        assertThat(args.next(), is("one"));
+        args.insertArg("inserted");
+        assertThat(args.getAll(), contains("one", "inserted", "two", "three"));
+        assertThat(start.equals(args.getSnapshot()), is(false));
+
+        args.applySnapshot(start);
+        assertThat(args.getAll(), contains("one", "two", "three"));
+        assertThat(args.next(), is("one"));
+        final CommandArgs.Snapshot first = args.getSnapshot();
+        assertThat(args.next(), is("two"));
+        args.removeArgs(first, args.getSnapshot());
+        assertThat(args.getAll(), contains("three"));
+        assertThat(args.next(), is("three"));
+        // modifications after a snapshot do not change it
+        args.applySnapshot(start);
+        assertThat(args.getAll(), contains("one", "two", "three"));
+    }
+
+}
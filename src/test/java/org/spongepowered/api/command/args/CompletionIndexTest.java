@@ -0,0 +1,181 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.command.args;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.network.ClientConnectionEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class CompletionIndexTest {
+
+    @Test
+    public void testStartingWith() {
+        final CompletionIndex.Choices choices = new CompletionIndex.Choices(ImmutableList.of("Notch", "jeb_", "notchy", "Dinnerbone", "NOT"));
+        assertThat(choices.startingWith("not"), contains("NOT", "Notch", "notchy"));
+        assertThat(choices.startingWith("NOTC"), contains("Notch", "notchy"));
+        assertThat(choices.startingWith(""), contains("Dinnerbone", "jeb_", "NOT", "Notch", "notchy"));
+        assertThat(choices.startingWith("x"), empty());
+        assertThat(choices.startingWith("notchyy"), empty());
+    }
+
+    @Test
+    public void testBounded() {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < CompletionIndex.MAX_COMPLETIONS * 4; i++) {
+            names.add("player" + i);
+        }
+        final CompletionIndex.Choices choices = new CompletionIndex.Choices(names);
+        assertThat(choices.startingWith("player").size(), is(CompletionIndex.MAX_COMPLETIONS));
+        assertThat(choices.startingWith("player102"), contains("player102", "player1020", "player1021", "player1022", "player1023"));
+    }
+
+    @Test
+    public void testWithAndWithout() {
+        final CompletionIndex.Choices choices = new CompletionIndex.Choices(ImmutableList.of("Notch", "jeb_"));
+        assertThat(choices.with("notch").with("Dinnerbone").startingWith(""), contains("Dinnerbone", "jeb_", "notch", "Notch"));
+        assertThat(choices.with("jeb_"), is(sameInstance(choices)));
+        assertThat(choices.without("Notch").startingWith(""), contains("jeb_"));
+        assertThat(choices.without("notch"), is(sameInstance(choices)));
+    }
+
+    @Test
+    public void testUpdatedByEvents() {
+        final CompletionIndex index = new CompletionIndex();
+        final AtomicInteger builds = new AtomicInteger();
+        final List<String> players = new ArrayList<>(ImmutableList.of("Alice"));
+        final Supplier<List<String>> supplier = () -> {
+            builds.incrementAndGet();
+            return ImmutableList.copyOf(players);
+        };
+
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alice"));
+        assertThat(index.complete(CompletionIndex.USERS, supplier, "a"), contains("Alice"));
+        assertThat(builds.get(), is(2));
+
+        // the supplier is not consulted again, the events update the choices
+        index.onJoin(join("Alfred"));
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alfred", "Alice"));
+        assertThat(index.complete(CompletionIndex.USERS, supplier, "a"), contains("Alfred", "Alice"));
+        index.onDisconnect(disconnect("Alice"));
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alfred"));
+        assertThat(index.complete(CompletionIndex.USERS, supplier, "a"), contains("Alfred", "Alice"));
+        assertThat(builds.get(), is(2));
+
+        players.remove("Alice");
+        players.add("Alfred");
+        index.invalidateAll();
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alfred"));
+        assertThat(builds.get(), is(3));
+    }
+
+    @Test
+    public void testConcurrentUpdateNotOverwritten() {
+        final CompletionIndex index = new CompletionIndex();
+        final AtomicInteger builds = new AtomicInteger();
+        final Supplier<List<String>> supplier = () -> {
+            if (builds.incrementAndGet() == 1) {
+                // a player joins while the choices are built
+                index.onJoin(join("Alfred"));
+            }
+            return ImmutableList.of("Alice");
+        };
+
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alice"));
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alice"));
+        assertThat(builds.get(), is(2));
+    }
+
+    @Test
+    public void testLeavingPlayerNotRebuilt() {
+        final CompletionIndex index = new CompletionIndex();
+        final List<String> players = new ArrayList<>(ImmutableList.of("Alice", "Alfred"));
+        final Supplier<List<String>> supplier = () -> ImmutableList.copyOf(players);
+
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alfred", "Alice"));
+        // Alice is still reported as online while the event is handled
+        index.onDisconnect(disconnect("Alice"));
+        index.invalidateAll();
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alfred"));
+
+        players.remove("Alice");
+        index.invalidateAll();
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alfred"));
+        players.add("Alice");
+        index.onJoin(join("Alice"));
+        index.invalidateAll();
+        assertThat(index.complete(CompletionIndex.PLAYERS, supplier, "a"), contains("Alfred", "Alice"));
+    }
+
+    @Test
+    public void testIndependentOfDefaultLocale() {
+        final Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            final CompletionIndex.Choices choices = new CompletionIndex.Choices(ImmutableList.of("Iris", "item"));
+            assertThat(choices.startingWith("i"), contains("Iris", "item"));
+            assertThat(choices.startingWith("I"), contains("Iris", "item"));
+            assertThat(choices.without("Iris").with("ITEM").startingWith("it"), containsInAnyOrder("item", "ITEM"));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    private static ClientConnectionEvent.Join join(String name) {
+        final ClientConnectionEvent.Join event = mock(ClientConnectionEvent.Join.class);
+        final Player player = player(name);
+        when(event.getTargetEntity()).thenReturn(player);
+        return event;
+    }
+
+    private static ClientConnectionEvent.Disconnect disconnect(String name) {
+        final ClientConnectionEvent.Disconnect event = mock(ClientConnectionEvent.Disconnect.class);
+        final Player player = player(name);
+        when(event.getTargetEntity()).thenReturn(player);
+        return event;
+    }
+
+    private static Player player(String name) {
+        final Player player = mock(Player.class);
+        when(player.getName()).thenReturn(name);
+        return player;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.command.dispatcher;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.spongepowered.api.command.CommandCallable;
+import org.spongepowered.api.command.CommandException;
+import org.spongepowered.api.command.CommandMapping;
+import org.spongepowered.api.command.CommandSource;
+
+public class SimpleDispatcherTest {
+
+    private static CommandCallable callable(boolean permitted) {
+        final CommandCallable callable = mock(CommandCallable.class);
+        when(callable.testPermission(any())).thenReturn(permitted);
+        return callable;
+    }
+
+    @Test
+    public void testLookupIgnoresCase() {
+        final SimpleDispatcher dispatcher = new SimpleDispatcher();
+        final CommandMapping mapping = dispatcher.register(callable(true), "Teleport", "tp").get();
+        assertThat(dispatcher.get("TELEPORT").get(), is(mapping));
+        assertThat(dispatcher.get("tp").get(), is(mapping));
+        assertTrue(dispatcher.containsAlias("Tp"));
+        assertFalse(dispatcher.containsAlias("tele"));
+        assertThat(dispatcher.size(), is(2));
+    }
+
+    @Test
+    public void testPrefixSuggestions() throws CommandException {
+        final SimpleDispatcher dispatcher = new SimpleDispatcher();
+        dispatcher.register(callable(true), "test");
+        dispatcher.register(callable(true), "team");
+        dispatcher.register(callable(true), "te");
+        dispatcher.register(callable(false), "tea");
+        dispatcher.register(callable(true), "time");
+        dispatcher.register(callable(true), "weather");
+        final CommandSource source = mock(CommandSource.class);
+
+        assertThat(dispatcher.getSuggestions(source, "te", null), contains("te", "team", "test"));
+        assertThat(dispatcher.getSuggestions(source, "TEA", null), contains("team"));
+        assertThat(dispatcher.getSuggestions(source, "t", null), contains("te", "team", "test", "time"));
+        assertThat(dispatcher.getSuggestions(source, "x", null), empty());
+        assertThat(dispatcher.getSuggestions(source, "tests", null), empty());
+        assertThat(dispatcher.getSuggestions(source, "", null), contains("te", "team", "test", "time", "weather"));
+    }
+
+    @Test
+    public void testRemove() {
+        final SimpleDispatcher dispatcher = new SimpleDispatcher();
+        final CommandMapping test = dispatcher.register(callable(true), "test", "t").get();
+        final CommandMapping team = dispatcher.register(callable(true), "team").get();
+        final CommandMapping tea = dispatcher.register(callable(true), "tea").get();
+
+        assertThat(dispatcher.remove("TEA"), contains(tea));
+        assertFalse(dispatcher.containsAlias("tea"));
+        assertThat(dispatcher.get("team").get(), is(team));
+        assertThat(dispatcher.remove("tea"), empty());
+
+        assertThat(dispatcher.removeMapping(test).get(), is(test));
+        assertFalse(dispatcher.containsAlias("t"));
+        assertFalse(dispatcher.containsMapping(test));
+        assertThat(dispatcher.getCommands(), containsInAnyOrder(team));
+        assertThat(dispatcher.size(), is(1));
+
+        assertTrue(dispatcher.removeAll(ImmutableList.of("Team", "unknown")));
+        assertFalse(dispatcher.removeAll(ImmutableList.of("team")));
+        assertThat(dispatcher.size(), is(0));
+        assertTrue(dispatcher.getAll().isEmpty());
+    }
+
+    @Test
+    public void testManyAliases() {
+        final SimpleDispatcher dispatcher = new SimpleDispatcher();
+        for (int i = 0; i < 3000; i++) {
+            dispatcher.register(callable(true), "cmd" + i);
+        }
+        assertThat(dispatcher.size(), is(3000));
+        for (int i = 0; i < 3000; i += 7) {
+            assertTrue(dispatcher.containsAlias("CMD" + i));
+        }
+        for (int i = 0; i < 3000; i += 2) {
+            dispatcher.remove("cmd" + i);
+        }
+        assertThat(dispatcher.size(), is(1500));
+        assertThat(dispatcher.getAliases().size(), is(1500));
+        assertTrue(dispatcher.containsAlias("cmd2999"));
+        assertFalse(dispatcher.containsAlias("cmd2998"));
+    }
+
+}
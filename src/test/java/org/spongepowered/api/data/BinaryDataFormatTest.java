@@ -0,0 +1,181 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.spongepowered.api.data.persistence.InvalidDataException;
+import org.spongepowered.api.data.persistence.InvalidDataFormatException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Optional;
+
+public class BinaryDataFormatTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DataContainer createData() {
+        return DataContainer.createNew()
+                .set(of("byte"), (byte) 1)
+                .set(of("short"), (short) 2)
+                .set(of("int"), 3)
+                .set(of("long"), 4L)
+                .set(of("float"), 5.5F)
+                .set(of("double"), 6.5D)
+                .set(of("string"), "Sponge é€")
+                .set(of("bytes"), new byte[] {1, 2, 3})
+                .set(of("ints"), new int[] {4, 5, 6})
+                .set(of("longs"), new long[] {7L, 8L})
+                .set(of("list"), ImmutableList.of("a", "b"))
+                .set(of("empty"), ImmutableList.of())
+                .set(of("map"), ImmutableMap.of("key", 9))
+                .set(of("nested", "deeper", "value"), "foo")
+                .set(of("views"), ImmutableList.of(DataContainer.createNew().set(of("x"), 10)));
+    }
+
+    private static byte[] write(DataView view) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryDataFormat.INSTANCE.writeTo(output, view);
+        return output.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final DataContainer read = BinaryDataFormat.INSTANCE.readFrom(ByteBuffer.wrap(write(createData())));
+        assertEquals(Optional.of((byte) 1), read.get(of("byte")));
+        assertEquals(Optional.of((short) 2), read.get(of("short")));
+        assertEquals(Optional.of(3), read.get(of("int")));
+        assertEquals(Optional.of(4L), read.get(of("long")));
+        assertEquals(Optional.of(5.5F), read.get(of("float")));
+        assertEquals(Optional.of(6.5D), read.get(of("double")));
+        assertEquals(Optional.of("Sponge é€"), read.get(of("string")));
+        assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) read.get(of("bytes")).get());
+        assertArrayEquals(new int[] {4, 5, 6}, (int[]) read.get(of("ints")).get());
+        assertArrayEquals(new long[] {7L, 8L}, (long[]) read.get(of("longs")).get());
+        assertEquals(Optional.of(ImmutableList.of("a", "b")), read.get(of("list")));
+        assertEquals(Optional.of(ImmutableList.of()), read.get(of("empty")));
+        assertEquals(Optional.of(9), read.getInt(of("map", "key")));
+        assertEquals(Optional.of("foo"), read.getString(of("nested", "deeper", "value")));
+        final List<DataView> views = read.getViewList(of("views")).get();
+        assertEquals(1, views.size());
+        assertEquals(Optional.of(10), views.get(0).getInt(of("x")));
+        assertEquals(createData().getKeys(true), read.getKeys(true));
+    }
+
+    @Test
+    public void testLazyRead() throws IOException {
+        final FlatDataContainer read = BinaryDataFormat.INSTANCE.readFrom(ByteBuffer.wrap(write(createData())));
+        assertEquals(3, read.getInt(of("int"), 0));
+        final FlatDataView.Compound root = read.compound();
+        assertEquals(FlatDataView.Compound.LAZY, root.types[root.indexOf("ints")]);
+
+        // Nested levels are only read once they are accessed
+        final FlatDataView.Compound nested = (FlatDataView.Compound) root.objects[root.indexOf("nested")];
+        assertNotNull(nested.source);
+        assertEquals(Optional.of("foo"), read.get(of("nested", "deeper", "value")));
+        assertNull(nested.source);
+    }
+
+    @Test
+    public void testMappedBuffer() throws IOException {
+        final File file = this.folder.newFile();
+        try (OutputStream output = new FileOutputStream(file)) {
+            // Leave some room in front, the data is read from the position of
+            // the buffer onwards
+            output.write(new byte[] {42, 42});
+            BinaryDataFormat.INSTANCE.writeTo(output, createData());
+        }
+        try (RandomAccessFile random = new RandomAccessFile(file, "r"); FileChannel channel = random.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(2);
+            final DataContainer read = BinaryDataFormat.INSTANCE.readFrom(buffer);
+            assertEquals(2, buffer.position());
+            assertEquals(Optional.of("foo"), read.getString(of("nested", "deeper", "value")));
+            assertArrayEquals(new long[] {7L, 8L}, (long[]) read.get(of("longs")).get());
+            assertArrayEquals(write(createData()), write(read));
+        }
+    }
+
+    @Test
+    public void testRewrite() throws IOException {
+        final byte[] bytes = write(createData());
+        final FlatDataContainer read = BinaryDataFormat.INSTANCE.readFrom(ByteBuffer.wrap(bytes));
+        assertArrayEquals(bytes, write(read));
+        read.getInt(of("nested", "deeper", "value"), 0);
+        assertArrayEquals(bytes, write(read));
+
+        read.set(of("nested", "deeper", "value"), "bar");
+        final DataContainer again = BinaryDataFormat.INSTANCE.readFrom(ByteBuffer.wrap(write(read)));
+        assertEquals(Optional.of("bar"), again.getString(of("nested", "deeper", "value")));
+        assertEquals(Optional.of(ImmutableList.of("a", "b")), again.get(of("list")));
+        assertTrue(read.equals(again));
+    }
+
+    @Test(expected = InvalidDataFormatException.class)
+    public void testNotACompound() {
+        BinaryDataFormat.INSTANCE.readFrom(ByteBuffer.wrap(new byte[] {1, 0, 0, 1}));
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testTruncated() throws IOException {
+        final byte[] bytes = write(createData());
+        final DataContainer read = BinaryDataFormat.INSTANCE.readFrom(ByteBuffer.wrap(bytes, 0, bytes.length / 2));
+        read.getKeys(true);
+    }
+
+    @Test(expected = InvalidDataException.class)
+    public void testMixedList() throws IOException {
+        write(DataContainer.createNew().set(of("list"), ImmutableList.of("a", 1)));
+    }
+
+    @Test
+    public void testReadFromStream() throws IOException {
+        final DataContainer read = BinaryDataFormat.INSTANCE.readFrom(new ByteArrayInputStream(write(createData())));
+        assertFalse(read.isEmpty());
+        assertEquals(Optional.of(4L), read.getLong(of("long")));
+    }
+
+}
@@ -154,4 +154,47 @@ public void testEquals() {
         assertThat(query1.equals(nonEqual), is(false));
     }
 
+    /**
+     * Method: popFirst()
+     */
+    @Test
+    public void testPopFirst() {
+        DataQuery prePopped = DataQuery.of("this", "test", "query");
+        DataQuery expected = DataQuery.of("test", "query");
+        assertThat(prePopped.popFirst().equals(expected), is(true));
+        assertThat(prePopped.popFirst().hashCode() == expected.hashCode(), is(true));
+        assertThat(prePopped.popFirst().popFirst().equals(DataQuery.of("query")), is(true));
+        assertThat(prePopped.popFirst().pop().equals(DataQuery.of("test")), is(true));
+        assertThat(prePopped.popFirst().getParts().equals(expected.getParts()), is(true));
+        assertThat(prePopped.popFirst().then("more").equals(DataQuery.of("test", "query", "more")), is(true));
+        assertThat(DataQuery.of("single").popFirst().equals(DataQuery.of()), is(true));
+    }
+
+    /**
+     * Method: getPart(int index)
+     */
+    @Test
+    public void testGetPart() {
+        final DataQuery query = DataQuery.of("this", "parts", "test").popFirst();
+        assertThat(query.getPartCount(), is(2));
+        assertThat(query.getPart(0), is("parts"));
+        assertThat(query.getPart(1), is("test"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPartOutOfBounds() {
+        DataQuery.of("this", "parts", "test").pop().getPart(2);
+    }
+
+    /**
+     * Method: hashCode()
+     */
+    @Test
+    public void testHashCode() {
+        final DataQuery query = DataQuery.of("this", "parts", "test");
+        assertThat(query.hashCode() == query.getParts().hashCode(), is(true));
+        assertThat(query.hashCode() == DataQuery.of('.', "this.parts.test").hashCode(), is(true));
+        assertThat(DataQuery.of().hashCode() == DataQuery.of().getParts().hashCode(), is(true));
+    }
+
 }
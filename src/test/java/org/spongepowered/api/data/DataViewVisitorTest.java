@@ -0,0 +1,160 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+public class DataViewVisitorTest {
+
+    private static final List<String> EXPECTED = ImmutableList.of(
+            "start ",
+            "value int=1",
+            "start nested",
+            "value string=foo",
+            "start deeper",
+            "value long=2",
+            "end",
+            "end",
+            "value list=[a, b]",
+            "end");
+
+    private static DataContainer fill(DataContainer container) {
+        return container
+                .set(of("int"), 1)
+                .set(of("nested", "string"), "foo")
+                .set(of("nested", "deeper", "long"), 2L)
+                .set(of("list"), ImmutableList.of("a", "b"));
+    }
+
+    private static class RecordingVisitor implements DataViewVisitor {
+
+        final ImmutableList.Builder<String> events = ImmutableList.builder();
+
+        @Override
+        public void startView(String name) {
+            this.events.add("start " + name);
+        }
+
+        @Override
+        public void value(String key, Object value) {
+            this.events.add("value " + key + "=" + value);
+        }
+
+        @Override
+        public void endView() {
+            this.events.add("end");
+        }
+
+    }
+
+    @Test
+    public void testMemoryDataView() {
+        final RecordingVisitor visitor = new RecordingVisitor();
+        fill(new MemoryDataContainer()).accept(visitor);
+        assertEquals(EXPECTED, visitor.events.build());
+    }
+
+    @Test
+    public void testFlatDataView() {
+        final RecordingVisitor visitor = new RecordingVisitor();
+        fill(new FlatDataContainer()).accept(visitor);
+        assertEquals(EXPECTED, visitor.events.build());
+    }
+
+    @Test
+    public void testNestedView() {
+        final RecordingVisitor visitor = new RecordingVisitor();
+        fill(new MemoryDataContainer()).getView(of("nested", "deeper")).get().accept(visitor);
+        assertEquals(ImmutableList.of("start deeper", "value long=2", "end"), visitor.events.build());
+    }
+
+    @Test
+    public void testClonedArrays() {
+        final int[] array = {1, 2};
+        final DataContainer container = new MemoryDataContainer().set(of("array"), array);
+        container.accept(new RecordingVisitor() {
+            @Override
+            public void value(String key, Object value) {
+                assertNotSame(array, value);
+                assertArrayEquals(array, (int[]) value);
+            }
+        });
+    }
+
+    @Test
+    public void testBinaryStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryDataFormat.INSTANCE.writeTo(output, fill(new MemoryDataContainer()));
+        final RecordingVisitor visitor = new RecordingVisitor();
+        BinaryDataFormat.INSTANCE.readFrom(new ByteArrayInputStream(output.toByteArray()), visitor);
+        assertEquals(EXPECTED, visitor.events.build());
+    }
+
+    @Test
+    public void testBinaryPipeline() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryDataFormat.INSTANCE.writeTo(output, fill(new MemoryDataContainer())
+                .set(of("views"), ImmutableList.of(new MemoryDataContainer().set(of("x"), 3))));
+
+        // Rename a value on its way from one stream to the other
+        final ByteArrayOutputStream transformed = new ByteArrayOutputStream();
+        final DataViewVisitor writer = BinaryDataFormat.INSTANCE.createWriter(transformed);
+        BinaryDataFormat.INSTANCE.readFrom(new ByteArrayInputStream(output.toByteArray()), new DataViewVisitor() {
+            @Override
+            public void startView(String name) {
+                writer.startView(name);
+            }
+
+            @Override
+            public void value(String key, Object value) {
+                writer.value(key.equals("string") ? "renamed" : key, value);
+            }
+
+            @Override
+            public void endView() {
+                writer.endView();
+            }
+        });
+
+        final DataContainer read = BinaryDataFormat.INSTANCE.readFrom(new ByteArrayInputStream(transformed.toByteArray()));
+        assertEquals(Optional.of("foo"), read.getString(of("nested", "renamed")));
+        assertEquals(Optional.empty(), read.get(of("nested", "string")));
+        assertEquals(Optional.of(2L), read.getLong(of("nested", "deeper", "long")));
+        assertEquals(Optional.of(3), read.getViewList(of("views")).get().get(0).getInt(of("x")));
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class FlatDataTest {
+
+    @Test
+    public void testCreateView() {
+        final DataContainer container = new FlatDataContainer();
+        final DataQuery tempQuery = of("foo", "bar", "baz");
+        container.createView(tempQuery);
+        assertTrue(container.getView(tempQuery).isPresent());
+        assertEquals(tempQuery, container.getView(tempQuery).get().getCurrentPath());
+        assertEquals("baz", container.getView(tempQuery).get().getName());
+        assertEquals(of("foo", "bar"), container.getView(tempQuery).get().getParent().get().getCurrentPath());
+    }
+
+    @Test
+    public void testPrimitives() {
+        final FlatDataContainer container = new FlatDataContainer();
+        container.setInt(of("foo", "int"), 5)
+                .setLong(of("foo", "long"), 1L << 40)
+                .setDouble(of("foo", "double"), 2.5D);
+        container.set(of("foo", "boxed"), 7);
+
+        assertEquals(5, container.getInt(of("foo", "int"), -1));
+        assertEquals(1L << 40, container.getLong(of("foo", "long"), -1L));
+        assertEquals(2.5D, container.getDouble(of("foo", "double"), -1D), 0D);
+        assertEquals(7, container.getInt(of("foo", "boxed"), -1));
+        assertEquals(-1, container.getInt(of("foo", "missing"), -1));
+        assertEquals(-1, container.getInt(of("missing", "int"), -1));
+
+        assertEquals(Optional.of(5), container.get(of("foo", "int")));
+        assertEquals(Optional.of(1L << 40), container.get(of("foo", "long")));
+        assertEquals(Optional.of(2.5D), container.get(of("foo", "double")));
+        assertEquals(Optional.of(2), container.getInt(of("foo", "double")));
+    }
+
+    @Test
+    public void testByteArraySafety() {
+        final byte[] bytes = {1, 2, 3};
+        final FlatDataContainer container = new FlatDataContainer();
+        container.set(of("bytes"), bytes);
+        bytes[0] = 5;
+
+        final byte[] stored = container.getByteArray(of("bytes")).get();
+        assertArrayEquals(new byte[] {1, 2, 3}, stored);
+        stored[1] = 5;
+        assertArrayEquals(new byte[] {1, 2, 3}, container.getByteArray(of("bytes")).get());
+
+        final FlatDataContainer unsafe = new FlatDataContainer(DataView.SafetyMode.NO_DATA_CLONED);
+        unsafe.set(of("bytes"), bytes);
+        assertTrue(unsafe.getByteArray(of("bytes")).get() == bytes);
+    }
+
+    @Test
+    public void testOverwriteAndRemove() {
+        final DataContainer container = new FlatDataContainer();
+        container.set(of("foo"), "foo");
+        container.set(of("foo", "bar"), "foobar");
+        assertTrue(container.getView(of("foo")).isPresent());
+        container.set(of("foo", "bar"), 1);
+        assertEquals(Optional.of(1), container.getInt(of("foo", "bar")));
+
+        container.set(of("baz"), 1);
+        container.remove(of("foo", "bar"));
+        assertFalse(container.contains(of("foo", "bar")));
+        assertTrue(container.contains(of("foo")));
+        container.remove(of("foo"));
+        assertEquals(Sets.newHashSet(of("baz")), container.getKeys(false));
+    }
+
+    @Test
+    public void testGetKeys() {
+        final Set<DataQuery> queries = Sets.newHashSet();
+        queries.add(of("foo"));
+        queries.add(of("foo", "bar"));
+        queries.add(of("foo", "bar", "baz"));
+        queries.add(of("bar"));
+        final DataView view = new FlatDataContainer();
+        view.set(of("foo"), "foo");
+        view.set(of("foo", "bar"), "foobar");
+        view.set(of("foo", "bar", "baz"), "foobarbaz");
+        view.set(of("bar"), 1);
+
+        final Set<DataQuery> testQueries = Sets.newHashSet();
+        testQueries.add(of("foo"));
+        testQueries.add(of("bar"));
+        assertEquals(testQueries, view.getKeys(false));
+        assertTrue(view.getKeys(true).containsAll(queries));
+    }
+
+    @Test
+    public void testMatchesMemoryData() {
+        final DataContainer memory = DataContainer.createNew();
+        final DataContainer flat = new FlatDataContainer();
+        for (DataContainer container : ImmutableList.of(memory, flat)) {
+            container.set(of("foo", "bar", "foo"), "foo");
+            container.set(of("foo", "bar", "bar"), 2.0D);
+            container.set(of("foo", "baz"), 3L);
+            container.set(of("bar"), 1);
+            container.set(of("list"), ImmutableList.of(1, 2, 3));
+            final Map<String, Object> map = Maps.newLinkedHashMap();
+            map.put("key", "value");
+            map.put("number", 4);
+            container.set(of("map"), map);
+        }
+        assertEquals(memory.getValues(true), flat.getValues(true));
+        assertEquals(memory.getMap(of("map")), flat.getMap(of("map")));
+        assertEquals(memory.getIntegerList(of("list")), flat.getIntegerList(of("list")));
+
+        final DataContainer fromMemory = new FlatDataContainer().set(of("copy"), memory);
+        assertEquals(memory.getValues(true), fromMemory.getView(of("copy")).get().getValues(true));
+    }
+
+    @Test
+    public void testLists() {
+        final DataContainer container = new FlatDataContainer();
+        final DataQuery query = of("foo");
+        final List<DataView> list = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            final DataContainer internal = new FlatDataContainer();
+            internal.set(of("foo", "bar"), "foo.bar" + i);
+            internal.set(of("ints"), new int[] {0, 1, 2, 3, i});
+            list.add(internal);
+        }
+        container.set(query, list);
+        assertTrue(container.contains(query));
+        assertEquals(list, container.getViewList(query).get());
+    }
+
+    @Test
+    public void testCopy() {
+        final DataContainer container = new FlatDataContainer();
+        container.set(of("Foo"), "foo");
+        final DataContainer newContainer = container.copy();
+        assertTrue(container.equals(newContainer));
+        assertEquals(container.hashCode(), newContainer.hashCode());
+        container.set(of("Foo", "bar"), "foo.bar");
+        assertFalse(container.equals(newContainer));
+        final DataView internal = container.getView(of("Foo")).get().copy();
+        final DataContainer internalCopy = new FlatDataContainer().set(of("bar"), "foo.bar");
+        assertTrue(internal.equals(internalCopy));
+        assertNotSame(container.getView(of("Foo")).get(), internal);
+    }
+
+    @Test
+    public void testCopyOnWrite() {
+        final DataContainer container = new FlatDataContainer()
+                .set(of("Foo", "Bar"), "bar")
+                .set(of("Foo", "Baz"), 1)
+                .set(of("Qux"), 2L);
+        final DataView view = container.getView(of("Foo")).get();
+        final DataContainer snapshot = container.copy();
+
+        view.set(of("Bar"), "changed");
+        assertEquals(Optional.of("changed"), container.get(of("Foo", "Bar")));
+        assertEquals(Optional.of("bar"), snapshot.get(of("Foo", "Bar")));
+
+        snapshot.set(of("Foo", "Baz"), 3).remove(of("Qux"));
+        assertEquals(Optional.of(1), container.get(of("Foo", "Baz")));
+        assertEquals(Optional.of(2L), container.get(of("Qux")));
+        assertFalse(snapshot.contains(of("Qux")));
+
+        // Views taken before the copy still write through to their container
+        view.set(of("Bar"), "again");
+        assertEquals(Optional.of("again"), container.get(of("Foo", "Bar")));
+        assertEquals(Optional.of(3), snapshot.get(of("Foo", "Baz")));
+    }
+
+    @Test
+    public void testCopyOnWriteDetachedView() {
+        final DataContainer container = new FlatDataContainer().set(of("Foo", "Bar"), "bar");
+        final DataView view = container.getView(of("Foo")).get();
+        container.createView(of("Foo"));
+        container.copy();
+        container.set(of("Foo", "Baz"), "baz");
+
+        // The view still refers to the level it was created for
+        assertEquals(Optional.of("bar"), view.get(of("Bar")));
+        assertFalse(view.contains(of("Baz")));
+    }
+
+    @Test
+    public void testCopyOnWriteArrays() {
+        final int[] array = {1, 2, 3};
+        final DataContainer container = new FlatDataContainer(DataView.SafetyMode.CLONED_ON_SET).set(of("Foo"), array);
+        final int[] stored = (int[]) container.get(of("Foo")).get();
+        assertNotSame(array, stored);
+        assertTrue(stored == container.get(of("Foo")).get());
+
+        // Once shared with a copy, arrays are cloned before being handed out
+        final DataContainer snapshot = container.copy();
+        final int[] shared = (int[]) container.get(of("Foo")).get();
+        assertNotSame(stored, shared);
+        shared[0] = 4;
+        assertArrayEquals(array, (int[]) snapshot.get(of("Foo")).get());
+        assertArrayEquals(array, (int[]) container.get(of("Foo")).get());
+    }
+
+    @Test
+    public void testEmptyQuery() {
+        final DataContainer container = new FlatDataContainer();
+        final DataQuery query = of("");
+        assertFalse(container.contains(query));
+        container.set(query, "foo");
+        assertTrue(container.contains(query));
+        assertEquals(Optional.of("foo"), container.get(query));
+        assertEquals(Optional.of(container), container.get(of()));
+    }
+}
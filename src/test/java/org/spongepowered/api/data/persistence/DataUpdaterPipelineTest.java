@@ -0,0 +1,181 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.data.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.spongepowered.api.data.DataQuery.of;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.world.storage.ChunkDataStream;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+public class DataUpdaterPipelineTest {
+
+    private static final DataQuery STEPS = of("steps");
+    private static final DataQuery FAIL = of("fail");
+
+    private static DataContentUpdater updater(int from, int to) {
+        return new DataContentUpdater() {
+            @Override
+            public int getInputVersion() {
+                return from;
+            }
+
+            @Override
+            public int getOutputVersion() {
+                return to;
+            }
+
+            @Override
+            public DataView update(DataView content) {
+                if (content.contains(FAIL)) {
+                    throw new InvalidDataException("Cannot update");
+                }
+                final String steps = content.getString(STEPS).orElse("");
+                return content.set(STEPS, steps + from + ">" + to + ";");
+            }
+        };
+    }
+
+    private static ChunkDataStream stream(List<DataContainer> chunks) {
+        final Iterator<DataContainer> iterator = chunks.iterator();
+        return new ChunkDataStream() {
+            @Nullable
+            @Override
+            public DataContainer next() {
+                return iterator.next();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public int available() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void reset() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void testChain() {
+        final DataUpdaterPipeline pipeline = DataUpdaterPipeline.of(ImmutableList.of(
+                updater(3, 4), updater(1, 2), updater(2, 3), updater(2, 4), updater(4, 6), updater(1, 5)), 1, 4);
+        assertEquals(1, pipeline.getInputVersion());
+        assertEquals(4, pipeline.getOutputVersion());
+        assertEquals(Optional.of("1>2;2>4;"), pipeline.update(DataContainer.createNew()).getString(STEPS));
+    }
+
+    @Test
+    public void testChainAroundDeadEnd() {
+        // The longest first hop leads to a version with no further updaters
+        final DataUpdaterPipeline pipeline = DataUpdaterPipeline.of(ImmutableList.of(
+                updater(1, 3), updater(1, 2), updater(2, 4)), 1, 4);
+        assertEquals(Optional.of("1>2;2>4;"), pipeline.update(DataContainer.createNew()).getString(STEPS));
+    }
+
+    @Test
+    public void testShortestChain() {
+        final DataUpdaterPipeline pipeline = DataUpdaterPipeline.of(ImmutableList.of(
+                updater(1, 2), updater(2, 3), updater(3, 4), updater(1, 3)), 1, 4);
+        assertEquals(Optional.of("1>3;3>4;"), pipeline.update(DataContainer.createNew()).getString(STEPS));
+    }
+
+    @Test
+    public void testEmptyChain() {
+        final DataView view = DataContainer.createNew();
+        assertEquals(view, DataUpdaterPipeline.of(ImmutableList.of(), 2, 2).update(view));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompleteChain() {
+        DataUpdaterPipeline.of(ImmutableList.of(updater(1, 2), updater(3, 4)), 1, 4);
+    }
+
+    @Test
+    public void testUpdateAll() {
+        final DataUpdaterPipeline pipeline = DataUpdaterPipeline.of(ImmutableList.of(updater(1, 2), updater(2, 3)), 1, 3);
+        final List<DataContainer> chunks = IntStream.range(0, 1000)
+                .mapToObj(i -> DataContainer.createNew().set(of("index"), i))
+                .collect(Collectors.toList());
+        // This chunk cannot be updated
+        chunks.get(500).set(FAIL, true);
+
+        final Queue<DataView> updated = new ConcurrentLinkedQueue<>();
+        final DataUpdaterPipeline.Metrics metrics = pipeline.updateAll(stream(chunks), updated::add, new ForkJoinPool(4), 7).join();
+        assertEquals(999, metrics.getProcessed());
+        assertEquals(1, metrics.getFailed());
+        assertEquals(999, updated.size());
+        for (DataView view : updated) {
+            assertEquals(Optional.of("1>2;2>3;"), view.getString(STEPS));
+        }
+        // The chunks themselves are left untouched
+        assertEquals(Optional.empty(), chunks.get(0).get(STEPS));
+    }
+
+    @Test
+    public void testErrorsAreCounted() {
+        final DataUpdaterPipeline pipeline = DataUpdaterPipeline.of(ImmutableList.of(updater(1, 2)), 1, 2);
+        final List<DataContainer> chunks = IntStream.range(0, 10)
+                .mapToObj(i -> DataContainer.createNew().set(of("index"), i))
+                .collect(Collectors.toList());
+        final Queue<DataView> updated = new ConcurrentLinkedQueue<>();
+        final Consumer<DataView> sink = view -> {
+            if (view.getInt(of("index")).get() == 5) {
+                throw new StackOverflowError();
+            }
+            updated.add(view);
+        };
+        // The errors propagate to the handler of the pool
+        final ForkJoinPool pool = new ForkJoinPool(2, ForkJoinPool.defaultForkJoinWorkerThreadFactory, (thread, e) -> { }, false);
+
+        final DataUpdaterPipeline.Metrics metrics = pipeline.updateAll(stream(chunks), sink, pool, 1).join();
+        assertEquals(9, metrics.getProcessed());
+        assertEquals(1, metrics.getFailed());
+        assertEquals(9, updated.size());
+    }
+
+}
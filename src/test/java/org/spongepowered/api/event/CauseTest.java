@@ -34,6 +34,7 @@
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.EventContext;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
 
@@ -118,5 +119,49 @@ public void testListedArray() {
         assertThat(stringList.equals(fooList), is(true));
     }
 
+    @Test
+    public void testTypeQueries() {
+        final Cause cause = Cause.builder().append("foo").append(1).append(2L).append("bar").append(3).build(EventContext.empty());
+        // Repeated to query the memoized positions
+        for (int i = 0; i < 2; i++) {
+            assertThat(cause.first(Number.class), is(Optional.of(1)));
+            assertThat(cause.last(Number.class), is(Optional.of(3)));
+            assertThat(cause.first(CharSequence.class), is(Optional.of("foo")));
+            assertThat(cause.last(Comparable.class), is(Optional.of(3)));
+            assertThat(cause.first(Double.class).isPresent(), is(false));
+            assertThat(cause.containsType(Long.class), is(true));
+            assertThat(cause.containsType(Runnable.class), is(false));
+            assertThat(cause.allOf(Integer.class), is(ImmutableList.of(1, 3)));
+            assertThat(cause.noneOf(Number.class), is(ImmutableList.of("foo", "bar")));
+            assertThat(cause.allOf(Object.class), hasSize(5));
+            assertThat(cause.before(Long.class), is(Optional.of(1)));
+            assertThat(cause.after(Long.class), is(Optional.of("bar")));
+        }
+    }
+
+    @Test
+    public void testManyTypeQueries() {
+        final Cause cause = Cause.builder().append("foo").append(1).build(EventContext.empty());
+        final List<Class<?>> types = ImmutableList.of(Object.class, String.class, Integer.class, Number.class, CharSequence.class,
+                Comparable.class, Serializable.class, Long.class, Double.class, Float.class, Short.class, Byte.class, Character.class,
+                Boolean.class, Runnable.class, Iterable.class, StringBuilder.class, Enum.class);
+        for (int i = 0; i < 2; i++) {
+            for (Class<?> type : types) {
+                assertThat(cause.containsType(type), is(type.isInstance("foo") || type.isInstance(1)));
+            }
+        }
+    }
+
+    @Test
+    public void testArrayTypeQueries() {
+        final String[] strings = {"foo"};
+        final Cause cause = Cause.builder().append(strings).append(new int[0]).build(EventContext.empty());
+        assertThat(cause.first(Object[].class), is(Optional.of(strings)));
+        assertThat(cause.first(CharSequence[].class), is(Optional.of(strings)));
+        assertThat(cause.containsType(Cloneable.class), is(true));
+        assertThat(cause.containsType(Serializable.class), is(true));
+        assertThat(cause.containsType(Integer[].class), is(false));
+        assertThat(cause.allOf(Object.class), hasSize(2));
+    }
 
 }
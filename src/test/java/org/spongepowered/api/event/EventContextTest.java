@@ -0,0 +1,105 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.spongepowered.api.event.cause.EventContext;
+import org.spongepowered.api.event.cause.EventContextKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class EventContextTest {
+
+    private static final List<EventContextKey<Integer>> KEYS = new ArrayList<>();
+
+    static {
+        // Enough keys to span several words of the key set
+        for (int i = 0; i < 150; i++) {
+            KEYS.add(key("test:key" + i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventContextKey<Integer> key(String id) {
+        final EventContextKey<Integer> key = mock(EventContextKey.class);
+        when(key.getId()).thenReturn(id);
+        return key;
+    }
+
+    private static EventContext context(int... indices) {
+        final EventContext.Builder builder = EventContext.builder();
+        for (int index : indices) {
+            builder.add(KEYS.get(index), index);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testGet() {
+        final EventContext context = context(149, 3, 64, 70, 0);
+        for (int i = 0; i < KEYS.size(); i++) {
+            final boolean present = i == 0 || i == 3 || i == 64 || i == 70 || i == 149;
+            assertEquals(present, context.containsKey(KEYS.get(i)));
+            assertEquals(present ? Optional.of(i) : Optional.empty(), context.get(KEYS.get(i)));
+        }
+        assertEquals(5, context.asMap().size());
+    }
+
+    @Test
+    public void testEquality() {
+        final EventContext context = context(1, 65, 130);
+        assertEquals(context, context(130, 65, 1));
+        assertEquals(context.hashCode(), context(130, 65, 1).hashCode());
+        assertEquals(context.asMap().hashCode(), context.hashCode());
+        assertNotEquals(context, context(1, 65));
+        assertNotEquals(context(1, 65), context);
+        assertNotEquals(context, context(1, 66, 130));
+        assertNotEquals(context, EventContext.builder().add(KEYS.get(1), 1).add(KEYS.get(65), 65).add(KEYS.get(130), 0).build());
+    }
+
+    @Test
+    public void testMapRoundTrip() {
+        final Map<EventContextKey<?>, Object> map = new HashMap<>();
+        map.put(KEYS.get(100), 100);
+        map.put(KEYS.get(7), 7);
+        final EventContext context = EventContext.of(map);
+        assertEquals(map, context.asMap());
+        assertEquals(context, EventContext.builder().from(context).build());
+        assertTrue(EventContext.builder().from(context).reset().build().asMap().isEmpty());
+        assertFalse(context.toString().isEmpty());
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.cause.EventContext;
+import org.spongepowered.api.event.cause.EventContextKey;
+
+import java.util.Optional;
+
+public class SimpleCauseStackManagerTest {
+
+    private static final EventContextKey<String> FIRST = key("test:first");
+    private static final EventContextKey<String> SECOND = key("test:second");
+
+    @SuppressWarnings("unchecked")
+    private static EventContextKey<String> key(String id) {
+        final EventContextKey<String> key = mock(EventContextKey.class);
+        when(key.getId()).thenReturn(id);
+        return key;
+    }
+
+    private final SimpleCauseStackManager manager = new SimpleCauseStackManager();
+
+    @Test
+    public void testCauseOrder() {
+        this.manager.pushCause("a").pushCause("b").pushCause("b").pushCause("c");
+        assertEquals(ImmutableList.of("c", "b", "a"), this.manager.getCurrentCause().all());
+        assertEquals("c", this.manager.popCause());
+        assertEquals("b", this.manager.peekCause());
+        this.manager.popCauses(2);
+        assertEquals("a", this.manager.peekCause());
+    }
+
+    @Test
+    public void testCachedCause() {
+        this.manager.pushCause("a");
+        final Cause cause = this.manager.getCurrentCause();
+        assertSame(cause, this.manager.getCurrentCause());
+
+        // Pushing and popping the top object does not change the cause
+        this.manager.pushCause("a");
+        assertSame(cause, this.manager.getCurrentCause());
+        this.manager.popCause();
+        assertSame(cause, this.manager.getCurrentCause());
+
+        // Nor does an empty frame
+        this.manager.pushCauseFrame().close();
+        assertSame(cause, this.manager.getCurrentCause());
+
+        this.manager.pushCause("b");
+        final Cause changed = this.manager.getCurrentCause();
+        assertNotSame(cause, changed);
+        this.manager.addContext(FIRST, "value");
+        assertNotSame(changed, this.manager.getCurrentCause());
+        assertEquals(Optional.of("value"), this.manager.getCurrentCause().getContext().get(FIRST));
+    }
+
+    @Test
+    public void testEqualContextValueReplaced() {
+        final String value = "value";
+        final String equal = new String(value);
+        this.manager.pushCause("root").addContext(FIRST, value);
+        final Cause cause = this.manager.getCurrentCause();
+        this.manager.addContext(FIRST, value);
+        assertSame(cause, this.manager.getCurrentCause());
+
+        // An equal but different value replaces the cached one
+        this.manager.addContext(FIRST, equal);
+        assertSame(equal, this.manager.getCurrentContext().get(FIRST).get());
+        assertSame(equal, this.manager.getContext(FIRST).get());
+    }
+
+    @Test
+    public void testFrames() {
+        this.manager.pushCause("root").addContext(FIRST, "outer");
+        try (CauseStackManager.StackFrame frame = this.manager.pushCauseFrame()) {
+            frame.pushCause("inner").addContext(FIRST, "inner").addContext(SECOND, "second");
+            assertEquals(EventContext.of(ImmutableMap.of(FIRST, "inner", SECOND, "second")), frame.getCurrentContext());
+            assertEquals(ImmutableList.of("inner", "root"), frame.getCurrentCause().all());
+            frame.removeContext(FIRST);
+            assertFalse(this.manager.getContext(FIRST).isPresent());
+        }
+        assertEquals(Optional.of("outer"), this.manager.getContext(FIRST));
+        assertFalse(this.manager.getContext(SECOND).isPresent());
+        assertEquals(ImmutableList.of("root"), this.manager.getCurrentCause().all());
+    }
+
+    @Test
+    public void testPooledFrames() {
+        this.manager.pushCause("root");
+        final CauseStackManager.StackFrame frame = this.manager.pushCauseFrame();
+        frame.close();
+        // Closing twice is harmless, also after the frame was reused
+        frame.close();
+        final CauseStackManager.StackFrame reused = this.manager.pushCauseFrame();
+        this.manager.pushCause("reused");
+        frame.close();
+        assertEquals(ImmutableList.of("reused", "root"), this.manager.getCurrentCause().all());
+        reused.close();
+        assertEquals(ImmutableList.of("root"), this.manager.getCurrentCause().all());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStaleFrame() {
+        final CauseStackManager.StackFrame frame = this.manager.pushCauseFrame();
+        frame.close();
+        this.manager.pushCauseFrame();
+        frame.pushCause("stale");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPopStaleFrame() {
+        final CauseStackManager.StackFrame frame = this.manager.pushCauseFrame();
+        this.manager.popCauseFrame(frame);
+        this.manager.pushCauseFrame();
+        this.manager.popCauseFrame(frame);
+    }
+
+    @Test
+    public void testPopOuterFrame() {
+        this.manager.pushCause("root");
+        final CauseStackManager.StackFrame outer = this.manager.pushCauseFrame();
+        this.manager.pushCause("outer");
+        final CauseStackManager.StackFrame inner = this.manager.pushCauseFrame();
+        this.manager.pushCause("inner").addContext(FIRST, "inner");
+        this.manager.popCauseFrame(outer);
+        inner.close();
+        assertEquals(ImmutableList.of("root"), this.manager.getCurrentCause().all());
+        assertTrue(this.manager.getCurrentContext().asMap().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPopBelowFrame() {
+        this.manager.pushCause("root");
+        this.manager.pushCauseFrame();
+        this.manager.popCause();
+    }
+
+    @Test
+    public void testContext() {
+        final EventContext context = EventContext.builder().add(SECOND, "b").add(FIRST, "a").build();
+        assertEquals(EventContext.of(ImmutableMap.of(FIRST, "a", SECOND, "b")), context);
+        assertEquals(ImmutableMap.of(FIRST, "a", SECOND, "b"), context.asMap());
+        assertEquals(context.asMap().hashCode(), context.hashCode());
+        assertTrue(context.containsKey(FIRST));
+        assertFalse(EventContext.builder().add(FIRST, "a").build().containsKey(SECOND));
+        assertEquals(EventContext.empty(), EventContext.builder().build());
+        assertFalse(context.equals(EventContext.builder().add(FIRST, "a").build()));
+        assertFalse(EventContext.builder().add(FIRST, "a").build().equals(context));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateContext() {
+        EventContext.builder().add(FIRST, "a").add(FIRST, "b");
+    }
+
+}
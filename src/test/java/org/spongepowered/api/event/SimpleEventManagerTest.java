@@ -0,0 +1,368 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.cause.EventContext;
+import org.spongepowered.api.event.filter.IsCancelled;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.api.util.Tristate;
+import org.spongepowered.api.util.generator.event.ListenerClassGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class SimpleEventManagerTest {
+
+    private static final Cause CAUSE = Cause.of(EventContext.empty(), "test");
+
+    private final Object plugin = new Object();
+    private final List<String> calls = new ArrayList<>();
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(task -> new Thread(task, "main"));
+    private final ExecutorService asyncExecutor = Executors.newFixedThreadPool(2, task -> new Thread(task, "worker"));
+    private Logger logger;
+    private SimpleEventManager eventManager;
+
+    @Before
+    public void setUp() {
+        final PluginManager pluginManager = mock(PluginManager.class);
+        PluginContainer container = mock(PluginContainer.class);
+        this.logger = mock(Logger.class);
+        when(container.getId()).thenReturn("test");
+        when(container.getLogger()).thenReturn(this.logger);
+        when(pluginManager.fromInstance(this.plugin)).thenReturn(Optional.of(container));
+        this.eventManager = new SimpleEventManager(pluginManager, this.syncExecutor, this.asyncExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        this.syncExecutor.shutdownNow();
+        this.asyncExecutor.shutdownNow();
+    }
+
+    private EventListener<Event> record(String name) {
+        return event -> this.calls.add(name);
+    }
+
+    @Test
+    public void testOrdering() {
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.LAST, record("last"));
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.DEFAULT, record("default1"));
+        this.eventManager.registerListener(this.plugin, Event.class, Order.PRE, record("pre"));
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.DEFAULT, record("default2"));
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.POST, true, record("before"));
+        this.eventManager.registerListener(this.plugin, OtherEvent.class, Order.PRE, record("other"));
+
+        this.eventManager.post(new TestEvent());
+        assertEquals(ImmutableList.of("before", "pre", "default1", "default2", "last"), this.calls);
+    }
+
+    @Test
+    public void testRebuild() {
+        final EventListener<Event> first = record("first");
+        this.eventManager.registerListener(this.plugin, TestEvent.class, first);
+        this.eventManager.post(new TestEvent());
+        this.eventManager.registerListener(this.plugin, Event.class, record("second"));
+        this.eventManager.post(new TestEvent());
+        this.eventManager.unregisterListeners(first);
+        this.eventManager.post(new TestEvent());
+        this.eventManager.unregisterPluginListeners(this.plugin);
+        this.eventManager.post(new TestEvent());
+        assertEquals(ImmutableList.of("first", "first", "second", "second"), this.calls);
+    }
+
+    @Test
+    public void testErrorIsolation() {
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.EARLY, event -> {
+            throw new IllegalStateException("expected");
+        });
+        this.eventManager.registerListener(this.plugin, TestEvent.class, record("after"));
+
+        this.eventManager.post(new TestEvent());
+        assertEquals(ImmutableList.of("after"), this.calls);
+        verify(this.logger).error(anyString(), any(), any(), any(IllegalStateException.class));
+    }
+
+    @Test
+    public void testAnnotatedListeners() {
+        final Handler handler = new Handler();
+        this.eventManager.registerListeners(this.plugin, handler);
+
+        assertTrue(this.eventManager.post(new OtherEvent()));
+        assertFalse(this.eventManager.post(new TestEvent()));
+        // Cancelled events are not passed to listeners without @IsCancelled
+        assertEquals(ImmutableList.of("cancel", "any"), handler.calls);
+
+        this.eventManager.unregisterListeners(handler);
+        assertFalse(this.eventManager.post(new OtherEvent()));
+        assertEquals(2, handler.calls.size());
+    }
+
+    @Test
+    public void testGenericListener() {
+        this.eventManager.registerListener(this.plugin, new TypeToken<TestGenericEvent<String>>() {}, record("string"));
+        this.eventManager.registerListener(this.plugin, new TypeToken<TestGenericEvent<Number>>() {}, record("number"));
+
+        this.eventManager.post(new TestGenericEvent<>(TypeToken.of(String.class)));
+        this.eventManager.post(new TestGenericEvent<>(TypeToken.of(Integer.class)));
+        assertEquals(ImmutableList.of("string", "number"), this.calls);
+    }
+
+    @Test
+    public void testManyListeners() {
+        final int count = ListenerClassGenerator.MAX_UNROLLED_LISTENERS + 10;
+        for (int i = 0; i < count; i++) {
+            this.eventManager.registerListener(this.plugin, TestEvent.class, record(Integer.toString(i)));
+        }
+        this.eventManager.post(new TestEvent());
+        assertEquals(count, this.calls.size());
+        assertEquals(Integer.toString(count - 1), this.calls.get(count - 1));
+    }
+
+    @Test
+    public void testHasListeners() {
+        assertFalse(this.eventManager.hasListeners(TestEvent.class));
+        assertFalse(this.eventManager.hasListeners(OtherEvent.class));
+
+        final EventListener<Event> listener = record("other");
+        this.eventManager.registerListener(this.plugin, OtherEvent.class, listener);
+        // A TestEvent may be an OtherEvent
+        assertTrue(this.eventManager.hasListeners(TestEvent.class));
+        assertTrue(this.eventManager.hasListeners(OtherEvent.class));
+        assertFalse(this.eventManager.hasListeners(TestGenericEvent.class));
+
+        this.eventManager.unregisterListeners(listener);
+        assertFalse(this.eventManager.hasListeners(TestEvent.class));
+        assertFalse(this.eventManager.hasListeners(OtherEvent.class));
+    }
+
+    @Test
+    public void testLazyPost() {
+        final List<String> created = new ArrayList<>();
+        final Supplier<OtherEvent> factory = () -> {
+            created.add("created");
+            final OtherEvent event = new OtherEvent();
+            event.setCancelled(true);
+            return event;
+        };
+        assertFalse(this.eventManager.post(OtherEvent.class, factory));
+        assertTrue(created.isEmpty());
+
+        this.eventManager.registerListener(this.plugin, TestEvent.class, record("test"));
+        assertTrue(this.eventManager.post(OtherEvent.class, factory));
+        assertEquals(ImmutableList.of("created"), created);
+        assertEquals(ImmutableList.of("test"), this.calls);
+    }
+
+    @Test
+    public void testPostAsync() throws Exception {
+        final AsyncHandler handler = new AsyncHandler();
+        this.eventManager.registerListeners(this.plugin, handler);
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.LATE, event -> handler.record("late"));
+
+        assertTrue(this.eventManager.postAsync(new OtherEvent()).get(10, TimeUnit.SECONDS));
+        assertEquals(ImmutableList.of("pre@worker", "first@main", "early@worker", "default@worker", "late@main", "post@worker"),
+                handler.calls);
+    }
+
+    @Test
+    public void testPostAsyncWithoutListeners() throws Exception {
+        assertFalse(this.eventManager.postAsync(new TestEvent()).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testListenerMetrics() {
+        this.eventManager.registerListener(this.plugin, TestEvent.class, Order.EARLY, event -> ((OtherEvent) event).setCancelled(true));
+        this.eventManager.registerListener(this.plugin, OtherEvent.class, record("other"));
+        this.eventManager.registerListener(this.plugin, TestGenericEvent.class, record("generic"));
+
+        this.eventManager.post(new OtherEvent());
+        this.eventManager.post(new OtherEvent());
+
+        assertEquals(3, this.eventManager.getListenerMetrics().size());
+        assertEquals(3, this.eventManager.getPluginListenerMetrics(this.plugin).size());
+        final List<ListenerMetrics> metrics = new ArrayList<>(this.eventManager.getListenerMetrics(OtherEvent.class));
+        assertEquals(2, metrics.size());
+        final ListenerMetrics cancelling = metrics.get(0);
+        assertEquals(Order.EARLY, cancelling.getOrder());
+        assertEquals(TestEvent.class, cancelling.getEventClass());
+        assertEquals(2, cancelling.getInvocationCount());
+        assertEquals(2, cancelling.getCancellationCount());
+        assertEquals(1.0D, cancelling.getCancellationRate(), 0);
+        assertTrue(cancelling.getMaxNanos() <= cancelling.getTotalNanos());
+        assertEquals(2, metrics.get(1).getInvocationCount());
+        assertEquals(0, metrics.get(1).getCancellationCount());
+
+        this.eventManager.resetListenerMetrics();
+        assertEquals(0, cancelling.getInvocationCount());
+        assertEquals(0, cancelling.getTotalNanos());
+        assertEquals(0, cancelling.getMaxNanos());
+    }
+
+    @Test
+    public void testListenerMetricsDisabled() throws Exception {
+        this.eventManager.registerListener(this.plugin, OtherEvent.class, record("other"));
+        this.eventManager.post(new OtherEvent());
+        final ListenerMetrics metrics = this.eventManager.getListenerMetrics().iterator().next();
+        assertEquals(1, metrics.getInvocationCount());
+
+        this.eventManager.setListenerMetricsEnabled(false);
+        this.eventManager.post(new OtherEvent());
+        this.eventManager.postAsync(new OtherEvent()).get(10, TimeUnit.SECONDS);
+        assertEquals(1, metrics.getInvocationCount());
+
+        this.eventManager.setListenerMetricsEnabled(true);
+        this.eventManager.post(new OtherEvent());
+        assertEquals(2, metrics.getInvocationCount());
+    }
+
+    public static class TestEvent implements Event {
+
+        @Override
+        public Cause getCause() {
+            return CAUSE;
+        }
+
+    }
+
+    public static class OtherEvent extends TestEvent implements Cancellable {
+
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancel) {
+            this.cancelled = cancel;
+        }
+
+    }
+
+    public static class TestGenericEvent<T> implements GenericEvent<T> {
+
+        private final TypeToken<T> type;
+
+        TestGenericEvent(TypeToken<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public TypeToken<T> getGenericType() {
+            return this.type;
+        }
+
+        @Override
+        public Cause getCause() {
+            return CAUSE;
+        }
+
+    }
+
+    public static class AsyncHandler {
+
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+        void record(String name) {
+            this.calls.add(name + "@" + Thread.currentThread().getName());
+        }
+
+        @Listener(order = Order.PRE, async = true)
+        public void onPre(TestEvent event) {
+            record("pre");
+        }
+
+        @Listener(order = Order.FIRST)
+        public void onFirst(OtherEvent event) {
+            record("first");
+        }
+
+        @Listener(order = Order.EARLY, async = true)
+        public void onEarly(TestEvent event) {
+            record("early");
+            ((OtherEvent) event).setCancelled(true);
+        }
+
+        @Listener(async = true)
+        @IsCancelled
+        public void onDefault(TestEvent event) {
+            record("default");
+        }
+
+        @Listener(order = Order.POST, async = true)
+        @IsCancelled(Tristate.UNDEFINED)
+        public void onPost(TestEvent event) {
+            record("post");
+        }
+
+    }
+
+    public static class Handler {
+
+        final List<String> calls = new ArrayList<>();
+
+        @Listener(order = Order.LATE)
+        public void onAny(TestEvent event) {
+            this.calls.add("any");
+        }
+
+        @Listener(order = Order.FIRST)
+        public void onCancellable(OtherEvent event) {
+            this.calls.add("cancel");
+            event.setCancelled(true);
+        }
+
+        @Listener
+        public void notAListener(TestEvent event, String unannotated) {
+            this.calls.add("invalid");
+        }
+
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event.block;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.data.Transaction;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+
+import java.util.BitSet;
+import java.util.List;
+
+public class BlockChangeBatchTest {
+
+    private final BlockState air = mock(BlockState.class);
+    private final BlockState stone = mock(BlockState.class);
+
+    private BlockChangeBatch batch(int size) {
+        final int[] positions = new int[size * 3];
+        final int[] originals = new int[size];
+        final int[] finals = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i * 3] = i;
+            positions[i * 3 + 1] = 64;
+            positions[i * 3 + 2] = -i;
+            originals[i] = 1;
+        }
+        return new BlockChangeBatch(positions, ImmutableList.of(this.air, this.stone), originals, finals);
+    }
+
+    @Test
+    public void testAccess() {
+        final BlockChangeBatch batch = batch(10);
+        assertEquals(10, batch.size());
+        assertEquals(new Vector3i(3, 64, -3), batch.getPosition(3));
+        assertEquals(5, batch.getX(5));
+        assertEquals(64, batch.getY(5));
+        assertEquals(-5, batch.getZ(5));
+        assertSame(this.stone, batch.getOriginal(2));
+        assertSame(this.air, batch.getFinal(2));
+        assertEquals(10, batch.getValidCount());
+    }
+
+    @Test
+    public void testBulkValidity() {
+        final BlockChangeBatch batch = batch(100);
+        final BitSet invalid = new BitSet();
+        final int[] positions = batch.getPositions();
+        for (int i = 0; i < batch.size(); i++) {
+            if (positions[i * 3] % 2 == 0) {
+                invalid.set(i);
+            }
+        }
+        batch.invalidate(invalid);
+        assertEquals(50, batch.getValidCount());
+        assertFalse(batch.isValid(0));
+        assertTrue(batch.isValid(1));
+
+        final BitSet valid = new BitSet();
+        valid.set(0);
+        valid.set(500);
+        batch.setValid(valid);
+        assertEquals(1, batch.getValidCount());
+        assertTrue(batch.isValid(0));
+
+        batch.setValid(5, true);
+        batch.getValid().clear();
+        assertEquals(2, batch.getValidCount());
+        batch.invalidateAll();
+        assertEquals(0, batch.getValidCount());
+    }
+
+    @Test
+    public void testTransactions() {
+        final World world = mock(World.class);
+        final BlockSnapshot snapshot = mock(BlockSnapshot.class);
+        when(this.air.snapshotFor(any())).thenReturn(snapshot);
+        when(this.stone.snapshotFor(any())).thenReturn(snapshot);
+        final BlockChangeBatch batch = batch(10);
+        batch.setValid(3, false);
+
+        final List<Transaction<BlockSnapshot>> transactions = batch.getTransactions(world);
+        assertEquals(10, transactions.size());
+        assertFalse(transactions.get(3).isValid());
+        assertSame(transactions.get(3), transactions.get(3));
+        verify(this.stone, times(1)).snapshotFor(new Location<>(world, 3, 64, -3));
+
+        transactions.get(4).setValid(false);
+        assertFalse(batch.isValid(4));
+        assertEquals(8, batch.getValidCount());
+        batch.setValid(3, true);
+        assertTrue(transactions.get(3).isValid());
+        batch.invalidateAll();
+        assertFalse(transactions.get(3).isValid());
+        assertEquals(0, batch.getValidCount());
+    }
+
+    @Test
+    public void testFilterCreatesTransactionsLazily() {
+        final World world = mock(World.class);
+        final BlockSnapshot snapshot = mock(BlockSnapshot.class);
+        when(this.air.snapshotFor(any())).thenReturn(snapshot);
+        when(this.stone.snapshotFor(any())).thenReturn(snapshot);
+        final BlockChangeBatch batch = batch(100);
+        final ChangeBlockEvent.Batch event = mock(ChangeBlockEvent.Batch.class, CALLS_REAL_METHODS);
+        doReturn(batch).when(event).getChanges();
+        doReturn(world).when(event).getTargetWorld();
+
+        final List<Transaction<BlockSnapshot>> invalidated = event.filter(location -> location.getBlockX() % 2 == 0);
+        assertEquals(50, invalidated.size());
+        assertEquals(50, batch.getValidCount());
+        verify(this.stone, never()).snapshotFor(any());
+
+        assertFalse(invalidated.get(1).isValid());
+        verify(this.stone, times(1)).snapshotFor(new Location<>(world, 3, 64, -3));
+        assertSame(invalidated.get(1), event.getTransactions().get(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPaletteIndex() {
+        new BlockChangeBatch(new int[3], ImmutableList.of(this.air), new int[] {1}, new int[] {0});
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        batch(2).getX(2);
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.event.cause;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventContextKeyIndexTest {
+
+    @SuppressWarnings("unchecked")
+    private static EventContextKey<String> key(String id) {
+        final EventContextKey<String> key = mock(EventContextKey.class);
+        when(key.getId()).thenReturn(id);
+        return key;
+    }
+
+    @Test
+    public void testQueriesDoNotRegister() {
+        final EventContext context = EventContext.builder().add(key("test:present"), "value").build();
+        final int size = EventContextKeyIndex.size();
+        for (int i = 0; i < 100; i++) {
+            final EventContextKey<String> unknown = key("test:unknown" + i);
+            assertFalse(context.containsKey(unknown));
+            assertEquals(-1, EventContextKeyIndex.find(unknown));
+        }
+        assertEquals(size, EventContextKeyIndex.size());
+    }
+
+    @Test
+    public void testIndices() {
+        final List<EventContextKey<String>> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add(key("test:indexed" + i));
+        }
+        final List<Integer> indices = new ArrayList<>();
+        for (EventContextKey<String> key : keys) {
+            indices.add(EventContextKeyIndex.indexOf(key));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals((int) indices.get(i), EventContextKeyIndex.find(keys.get(i)));
+            assertEquals(keys.get(i), EventContextKeyIndex.keyAt(indices.get(i)));
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.permission;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.spongepowered.api.util.Tristate;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class CompiledNodeTreeTest {
+
+    private static Map<String, Boolean> testPermissions() {
+        final Map<String, Boolean> testPermissions = new HashMap<>();
+        testPermissions.put("generate.rainbow", true);
+        testPermissions.put("generate.sunset", false);
+        testPermissions.put("generate", true);
+        testPermissions.put("generate.thunderstorm.explosive", false);
+        testPermissions.put("Weather.Rain", true);
+        return testPermissions;
+    }
+
+    @Test
+    public void testMatchesNodeTree() {
+        final NodeTree tree = NodeTree.of(testPermissions());
+        final CompiledNodeTree compiled = tree.compile();
+
+        final String[] nodes = {
+            "generate", "generate.rainbow", "generate.rainbow.double", "generate.sunset", "generate.sunset.east",
+            "generate.thunderstorm", "generate.thunderstorm.explosive", "generate.", "random.perm", "", "weather", "weather.rain",
+            "WEATHER.RAIN.heavy", "generate..rainbow"
+        };
+        for (String node : nodes) {
+            assertEquals(node, tree.get(node), compiled.get(node));
+            // Second lookup is served from the cache
+            assertEquals(node, tree.get(node), compiled.get(node));
+        }
+    }
+
+    @Test
+    public void testMatchesNodeTreeFolding() {
+        final Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            final Map<String, Boolean> permissions = new HashMap<>();
+            permissions.put("\u0130tem.use", true);
+            permissions.put("Info.View", false);
+            final NodeTree tree = NodeTree.of(permissions);
+            final CompiledNodeTree compiled = tree.compile();
+
+            final String[] nodes = {"item.use", "\u0130TEM.USE", "ITEM.use", "info.view", "INFO.VIEW", "\u0131nfo.view"};
+            for (String node : nodes) {
+                assertEquals(node, tree.get(node), compiled.get(node));
+            }
+            assertEquals(Tristate.TRUE, compiled.get("ITEM.USE"));
+            assertEquals(Tristate.FALSE, compiled.get("INFO.VIEW"));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        final CompiledNodeTree compiled = CompiledNodeTree.of(testPermissions());
+
+        assertEquals(Tristate.TRUE, compiled.get("GENERATE.Rainbow"));
+        assertEquals(Tristate.FALSE, compiled.get("Generate.SUNSET.east"));
+        assertEquals(Tristate.TRUE, compiled.get("weather.rain"));
+        assertEquals(Tristate.UNDEFINED, compiled.get("weather"));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final NodeTree tree = NodeTree.of(testPermissions());
+        final CompiledNodeTree compiled = tree.compile();
+        tree.withValue("generate.rainbow", Tristate.FALSE);
+
+        assertEquals(Tristate.TRUE, compiled.get("generate.rainbow"));
+        assertEquals(Tristate.FALSE, tree.withValue("generate.rainbow", Tristate.FALSE).compile().get("generate.rainbow"));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.permission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.service.context.Context;
+import org.spongepowered.api.util.Tristate;
+
+import java.util.Optional;
+import java.util.Set;
+
+public class MemorySubjectDataTest {
+
+    private static final Set<Context> WORLD = ImmutableSet.of(new Context(Context.WORLD_KEY, "world"));
+
+    private MemorySubjectData data;
+
+    @Before
+    public void initData() {
+        final PermissionService service = mock(PermissionService.class);
+        when(service.newSubjectReference(anyString(), anyString())).thenAnswer(invocation -> mock(SubjectReference.class));
+        this.data = new MemorySubjectData(service);
+    }
+
+    @Test
+    public void testPermissionCache() {
+        this.data.setPermission(WORLD, "generate.rainbow", Tristate.TRUE);
+
+        assertEquals(Tristate.TRUE, this.data.getPermissionValue(WORLD, "generate.rainbow"));
+        assertEquals(1, this.data.getCacheMisses());
+        assertEquals(Tristate.TRUE, this.data.getPermissionValue(WORLD, "generate.rainbow.double"));
+        assertEquals(Tristate.UNDEFINED, this.data.getPermissionValue(WORLD, "generate"));
+        assertEquals(1, this.data.getCacheMisses());
+        assertEquals(2, this.data.getCacheHits());
+
+        final long version = this.data.getVersion();
+        this.data.setPermission(WORLD, "generate.rainbow", Tristate.FALSE);
+        assertTrue(this.data.getVersion() > version);
+        assertEquals(Tristate.FALSE, this.data.getPermissionValue(WORLD, "generate.rainbow"));
+        assertEquals(2, this.data.getCacheMisses());
+    }
+
+    @Test
+    public void testUnchangedDataKeepsCache() {
+        this.data.setPermission(WORLD, "generate.rainbow", Tristate.TRUE);
+        this.data.getPermissionValue(WORLD, "generate.rainbow");
+
+        final long version = this.data.getVersion();
+        this.data.setPermission(WORLD, "generate.rainbow", Tristate.TRUE);
+        this.data.clearParents(WORLD);
+        assertEquals(version, this.data.getVersion());
+        this.data.getPermissionValue(WORLD, "generate.rainbow");
+        assertEquals(1, this.data.getCacheMisses());
+    }
+
+    @Test
+    public void testParentsAndOptions() {
+        final SubjectReference parent = mock(SubjectReference.class);
+        when(parent.getCollectionIdentifier()).thenReturn(PermissionService.SUBJECTS_GROUP);
+        when(parent.getSubjectIdentifier()).thenReturn("admin");
+
+        assertTrue(this.data.getParents(WORLD).isEmpty());
+        this.data.addParent(WORLD, parent);
+        assertEquals(1, this.data.getParents(WORLD).size());
+        assertEquals(this.data.getParents(WORLD), this.data.getParents(WORLD));
+
+        assertEquals(Optional.empty(), this.data.getOption(WORLD, "prefix"));
+        this.data.setOption(WORLD, "prefix", "[Admin]");
+        assertEquals(Optional.of("[Admin]"), this.data.getOption(WORLD, "prefix"));
+        this.data.setOption(WORLD, "prefix", null);
+        assertEquals(Optional.empty(), this.data.getOption(WORLD, "prefix"));
+    }
+
+    @Test
+    public void testOptionKeysIgnoreCase() {
+        this.data.setOption(WORLD, "Prefix", "[Admin]");
+        assertEquals(Optional.of("[Admin]"), this.data.getOption(WORLD, "Prefix"));
+        assertEquals(Optional.of("[Admin]"), this.data.getOption(WORLD, "prefix"));
+        this.data.setOption(WORLD, "SUFFIX", "!");
+        assertEquals(Optional.of("!"), this.data.getOption(WORLD, "suffix"));
+        this.data.setOption(WORLD, "PREFIX", null);
+        assertEquals(Optional.empty(), this.data.getOption(WORLD, "Prefix"));
+    }
+
+    @Test
+    public void testResolvedCacheBounded() {
+        this.data.getPermissionValue(WORLD, "generate.rainbow");
+        for (int i = 0; i < MemorySubjectData.MAX_RESOLVED; i++) {
+            this.data.getPermissionValue(ImmutableSet.of(new Context(Context.WORLD_KEY, "world" + i)), "generate.rainbow");
+        }
+        assertEquals(MemorySubjectData.MAX_RESOLVED + 1, this.data.getCacheMisses());
+        // the first context set was dropped to bound the cache
+        this.data.getPermissionValue(WORLD, "generate.rainbow");
+        assertEquals(MemorySubjectData.MAX_RESOLVED + 2, this.data.getCacheMisses());
+    }
+}
@@ -62,6 +62,21 @@ public void testWithValue() throws Exception {
         assertEquals(Tristate.TRUE, newTree.get("generate.thunderstorm.explosive"));
     }
 
+    @Test
+    public void testWithValueKeepsPathValues() throws Exception {
+        final Map<String, Boolean> testPermissions = new HashMap<>();
+        testPermissions.put("generate", true);
+        testPermissions.put("generate.thunderstorm", false);
+
+        NodeTree oldTree = NodeTree.of(testPermissions);
+        NodeTree newTree = oldTree.withValue("generate.thunderstorm.explosive", Tristate.TRUE);
+
+        // Setting a child must not change the values of its parents
+        assertEquals(Tristate.TRUE, newTree.get("generate"));
+        assertEquals(Tristate.FALSE, newTree.get("generate.thunderstorm"));
+        assertEquals(Tristate.TRUE, newTree.get("generate.thunderstorm.explosive"));
+    }
+
     @Test
     public void testWithAll() throws Exception {
         final Map<String, Boolean> testPermissions = new HashMap<>();
@@ -83,7 +98,12 @@ public void testWithAll() throws Exception {
         assertEquals(Tristate.TRUE, newTree.get("generate.sunset.red"));
 
         assertEquals(Tristate.FALSE, oldTree.get("generate.thunderstorm.explosive"));
-        assertEquals(Tristate.UNDEFINED, newTree.get("generate.thunderstorm.explosive"));
+        // The explicit value is removed, so the value of "generate" is inherited.
+        // This used to be UNDEFINED only because withValue reset the values of
+        // every node on the edited path, see testWithValueKeepsPathValues
+        assertEquals(Tristate.TRUE, newTree.get("generate.thunderstorm.explosive"));
+        assertEquals(Tristate.TRUE, newTree.get("generate"));
+        assertEquals(Tristate.FALSE, newTree.get("generate.sunset"));
 
         assertEquals(Tristate.UNDEFINED, oldTree.get("something.new"));
         assertEquals(Tristate.FALSE, newTree.get("something.new"));
@@ -107,4 +127,47 @@ public void testCreateFromValues() throws Exception {
         assertEquals(Tristate.FALSE, nodes.get("generate.thunderstorm.explosive"));
         assertEquals(Tristate.UNDEFINED, nodes.get("random.perm"));
     }
+
+    @Test
+    public void testHashCollisions() throws Exception {
+        // "an" and "c0" share the same hash code
+        final Map<String, Boolean> testPermissions = new HashMap<>();
+        testPermissions.put("collide.an", true);
+        testPermissions.put("collide.c0", false);
+        testPermissions.put("collide.anc0", true);
+        testPermissions.put("collide.c0an", false);
+
+        NodeTree oldTree = NodeTree.of(testPermissions);
+        assertEquals(testPermissions, oldTree.asMap());
+        assertEquals(Tristate.TRUE, oldTree.get("collide.an"));
+        assertEquals(Tristate.FALSE, oldTree.get("collide.c0"));
+        assertEquals(Tristate.TRUE, oldTree.get("collide.anc0"));
+        assertEquals(Tristate.FALSE, oldTree.get("collide.c0an"));
+
+        NodeTree newTree = oldTree.withValue("collide.c0c0", Tristate.TRUE).withValue("collide.an", Tristate.FALSE);
+        assertEquals(Tristate.TRUE, oldTree.get("collide.an"));
+        assertEquals(Tristate.UNDEFINED, oldTree.get("collide.c0c0"));
+        assertEquals(Tristate.FALSE, newTree.get("collide.an"));
+        assertEquals(Tristate.TRUE, newTree.get("collide.c0c0"));
+        assertEquals(Tristate.FALSE, newTree.get("collide.c0"));
+    }
+
+    @Test
+    public void testLargeWithAll() throws Exception {
+        final Map<String, Boolean> testPermissions = new HashMap<>();
+        final Map<String, Tristate> newPermissions = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            testPermissions.put("plugin.node" + i, i % 2 == 0);
+            newPermissions.put("plugin.node" + i, i % 3 == 0 ? Tristate.UNDEFINED : Tristate.TRUE);
+        }
+
+        NodeTree oldTree = NodeTree.of(testPermissions);
+        NodeTree newTree = oldTree.withAll(newPermissions);
+
+        assertEquals(testPermissions, oldTree.asMap());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Tristate.fromBoolean(i % 2 == 0), oldTree.get("plugin.node" + i));
+            assertEquals(i % 3 == 0 ? Tristate.UNDEFINED : Tristate.TRUE, newTree.get("plugin.node" + i));
+        }
+    }
 }
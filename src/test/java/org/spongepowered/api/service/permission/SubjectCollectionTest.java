@@ -0,0 +1,185 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.service.permission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.service.context.Context;
+import org.spongepowered.api.util.Tristate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+public class SubjectCollectionTest {
+
+    private static final Set<Context> GLOBAL = ImmutableSet.of();
+    private static final String PERMISSION = "generate.rainbow";
+
+    private PermissionService service;
+    private SubjectCollection collection;
+    private final Map<String, Subject> subjects = new HashMap<>();
+
+    @Before
+    public void initCollection() {
+        this.service = mock(PermissionService.class);
+        when(this.service.newSubjectReference(anyString(), anyString())).thenAnswer(invocation -> mock(SubjectReference.class));
+        this.collection = mock(SubjectCollection.class, CALLS_REAL_METHODS);
+        doReturn("users").when(this.collection).getIdentifier();
+        doAnswer(invocation -> CompletableFuture.completedFuture(ImmutableSet.copyOf(this.subjects.keySet())))
+                .when(this.collection).getAllIdentifiers();
+        doAnswer(invocation -> {
+            final Map<String, Subject> loaded = new HashMap<>();
+            for (String identifier : invocation.<Set<String>>getArgument(0)) {
+                final Subject subject = this.subjects.get(identifier);
+                if (subject != null) {
+                    loaded.put(identifier, subject);
+                }
+            }
+            return CompletableFuture.completedFuture(loaded);
+        }).when(this.collection).loadSubjects(any());
+    }
+
+    private Subject subject(String collection, String identifier, Tristate value) {
+        final MemorySubjectData data = new MemorySubjectData(this.service);
+        data.setPermission(GLOBAL, PERMISSION, value);
+        final Subject subject = mock(Subject.class);
+        final SubjectReference reference = mock(SubjectReference.class);
+        when(reference.getCollectionIdentifier()).thenReturn(collection);
+        when(reference.getSubjectIdentifier()).thenReturn(identifier);
+        when(reference.resolve()).thenReturn(CompletableFuture.completedFuture(subject));
+        when(subject.getIdentifier()).thenReturn(identifier);
+        when(subject.asSubjectReference()).thenReturn(reference);
+        when(subject.getSubjectData()).thenReturn(data);
+        when(subject.getPermissionValue(any(), anyString()))
+                .thenAnswer(invocation -> data.getPermissionValue(invocation.getArgument(0), invocation.getArgument(1)));
+        if (collection.equals("users")) {
+            this.subjects.put(identifier, subject);
+        }
+        return subject;
+    }
+
+    @Test
+    public void testPermissionValues() {
+        final SubjectReference alice = subject("users", "alice", Tristate.TRUE).asSubjectReference();
+        final SubjectReference bob = subject("users", "bob", Tristate.UNDEFINED).asSubjectReference();
+        final SubjectReference admins = subject("groups", "admins", Tristate.FALSE).asSubjectReference();
+
+        final Map<SubjectReference, Tristate> values = this.collection.getPermissionValues(GLOBAL, PERMISSION,
+                ImmutableList.of(alice, admins, bob, alice)).join();
+        assertEquals(ImmutableMap.of(alice, Tristate.TRUE, admins, Tristate.FALSE, bob, Tristate.UNDEFINED), values);
+        // the subjects of this collection are loaded at once, others are resolved
+        verify(this.collection).loadSubjects(ImmutableSet.of("alice", "bob"));
+        verify(alice, never()).resolve();
+        verify(admins).resolve();
+    }
+
+    @Test
+    public void testPermissionValuesOfSubjectsNotLoaded() {
+        final SubjectReference alice = subject("users", "alice", Tristate.TRUE).asSubjectReference();
+        this.subjects.clear();
+
+        final Map<SubjectReference, Tristate> values = this.collection.getPermissionValues(GLOBAL, PERMISSION, ImmutableList.of(alice)).join();
+        assertEquals(ImmutableMap.of(alice, Tristate.TRUE), values);
+        verify(alice).resolve();
+    }
+
+    @Test
+    public void testPermissionValuesFailure() {
+        final SubjectReference alice = subject("users", "alice", Tristate.TRUE).asSubjectReference();
+        final SubjectReference admins = subject("groups", "admins", Tristate.FALSE).asSubjectReference();
+        final IllegalStateException exception = new IllegalStateException();
+        final CompletableFuture<Subject> failed = new CompletableFuture<>();
+        failed.completeExceptionally(exception);
+        when(admins.resolve()).thenReturn(failed);
+
+        try {
+            this.collection.getPermissionValues(GLOBAL, PERMISSION, ImmutableList.of(alice, admins)).join();
+            fail();
+        } catch (CompletionException e) {
+            assertSame(exception, e.getCause());
+        }
+    }
+
+    @Test
+    public void testAllWithPermission() {
+        final SubjectReference alice = subject("users", "alice", Tristate.TRUE).asSubjectReference();
+        subject("users", "bob", Tristate.UNDEFINED);
+        final SubjectReference carol = subject("users", "carol", Tristate.FALSE).asSubjectReference();
+
+        final Map<SubjectReference, Boolean> values = this.collection.getAllWithPermission(GLOBAL, PERMISSION, ForkJoinPool.commonPool()).join();
+        assertEquals(ImmutableMap.of(alice, true, carol, false), values);
+        verify(this.collection).suggestUnload("bob");
+    }
+
+    @Test
+    public void testAllWithPermissionLoadsInBatches() {
+        final int count = SubjectCollection.LOAD_BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            subject("users", "user" + i, Tristate.TRUE);
+        }
+
+        final Map<SubjectReference, Boolean> values = this.collection.getAllWithPermission(GLOBAL, PERMISSION, ForkJoinPool.commonPool()).join();
+        assertEquals(count, values.size());
+        verify(this.collection, times(3)).loadSubjects(any());
+    }
+
+    @Test
+    public void testAllWithPermissionFailure() {
+        subject("users", "alice", Tristate.TRUE);
+        final IllegalStateException exception = new IllegalStateException();
+        final CompletableFuture<Map<String, Subject>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(exception);
+        doReturn(failed).when(this.collection).loadSubjects(any());
+
+        try {
+            this.collection.getAllWithPermission(GLOBAL, PERMISSION, ForkJoinPool.commonPool()).join();
+            fail();
+        } catch (CompletionException e) {
+            assertSame(exception, e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.text;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.text.format.TextColor;
+import org.spongepowered.api.text.format.TextColors;
+import org.spongepowered.api.text.format.TextStyle;
+import org.spongepowered.api.text.format.TextStyles;
+import org.spongepowered.api.util.test.TestHooks;
+
+public class TextTemplateTest {
+
+    private TextTemplate template;
+
+    @Before
+    public void initialize() throws Exception {
+        TestPlainTextSerializer.inject();
+        TestHooks.mockFields(TextColors.class, TextColor.class);
+        TestHooks.mockFields(TextStyles.class, TextStyle.class);
+        this.template = TextTemplate.of("Welcome ", TextTemplate.arg("player").color(TextColors.RED), " to ",
+                TextTemplate.arg("world").optional().defaultValue(Text.of("the server")), "! Enjoy, ", TextTemplate.arg("player"), ".");
+    }
+
+    @Test
+    public void testSlots() {
+        final TextTemplate.RenderPlan plan = this.template.compile();
+        assertSame(plan, this.template.compile());
+        assertThat(plan.getSlots(), contains("player", "world"));
+        assertThat(plan.getSlot("world"), is(1));
+        assertThat(plan.getSlot("unknown"), is(-1));
+    }
+
+    @Test
+    public void testApply() {
+        final Text text = this.template.apply(ImmutableMap.of("player", "Spongie")).build();
+        assertThat(text.toPlain(), is("Welcome Spongie to the server! Enjoy, Spongie."));
+        assertThat(text.getChildren().get(0).getColor(), is(TextColors.RED));
+        assertThat(this.template.compile().apply("Spongie", Text.of("Lobby")).build().toPlain(),
+                is("Welcome Spongie to Lobby! Enjoy, Spongie."));
+    }
+
+    @Test
+    public void testApplyMatchesBySlot() {
+        final TextTemplate.RenderPlan plan = this.template.compile();
+        assertThat(plan.apply("Spongie", null).build(), is(this.template.apply(ImmutableMap.of("player", "Spongie")).build()));
+    }
+
+    @Test
+    public void testLeadingArgument() {
+        final TextTemplate template = TextTemplate.of(TextTemplate.arg("name"), ": ", Text.of("hi"));
+        assertThat(template.compile().apply("Spongie").build().toPlain(), is("Spongie: hi"));
+        assertThat(TextTemplate.of().apply().build().toPlain(), is(""));
+    }
+
+    @Test(expected = TextTemplateArgumentException.class)
+    public void testMissingRequiredArgument() {
+        this.template.compile().apply();
+    }
+
+}
@@ -26,17 +26,26 @@
 
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.spongepowered.api.text.action.TextActions.insertText;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.spongepowered.api.scoreboard.Score;
 import org.spongepowered.api.text.format.TextColor;
 import org.spongepowered.api.text.format.TextColors;
 import org.spongepowered.api.text.format.TextStyle;
 import org.spongepowered.api.text.format.TextStyles;
+import org.spongepowered.api.text.serializer.TextSerializer;
+import org.spongepowered.api.text.serializer.TextSerializers;
 import org.spongepowered.api.util.test.TestHooks;
 
 public class TextTest {
@@ -48,6 +57,35 @@ public void initialize() throws Exception {
         TestHooks.mockFields(TextStyles.class, TextStyle.class);
     }
 
+    @Test
+    public void testPlainIsCached() {
+        final Text text = Text.of("Hello ", TextColors.RED, "World");
+        assertThat(text.toPlain(), is("Hello World"));
+        assertSame(text.toPlain(), text.toPlain());
+    }
+
+    @Test
+    public void testScoreIsNotCached() {
+        final Score score = mock(Score.class);
+        when(score.getScore()).thenReturn(1, 2);
+        final Text text = Text.of("Score: ", Text.of(score));
+        assertThat(text.toPlain(), is("Score: 1"));
+        assertThat(text.toPlain(), is("Score: 2"));
+    }
+
+    @Test
+    public void testJsonIsCached() throws Exception {
+        final TextSerializer json = mock(TextSerializer.class);
+        when(json.serialize(any(Text.class))).thenReturn("{\"text\":\"Hello\"}");
+        TestHooks.setCatalogElement(TextSerializers.class, "JSON", json);
+
+        final Text text = Text.of("Hello");
+        for (int i = 0; i < 10; i++) {
+            assertThat(text.toJson(), is("{\"text\":\"Hello\"}"));
+        }
+        verify(json, times(1)).serialize(text);
+    }
+
     @Test
     public void testTextOf() {
         Text text = Text.of(TextColors.RED, "Red");
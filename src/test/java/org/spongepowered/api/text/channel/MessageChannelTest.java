@@ -0,0 +1,141 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.text.channel;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.channel.type.FixedMessageChannel;
+import org.spongepowered.api.text.chat.ChatType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+public class MessageChannelTest {
+
+    @Test
+    public void testIdentityDetection() {
+        assertTrue(IdentityTransforms.isIdentity(MessageChannel.TO_NONE));
+        assertTrue(IdentityTransforms.isIdentity(new FixedMessageChannel()));
+        assertFalse(IdentityTransforms.isIdentity(new PrefixChannel(new ArrayList<>())));
+    }
+
+    @Test
+    public void testSendSharesOriginal() {
+        final Text message = Text.of("Hello");
+        final ChatType type = mock(ChatType.class);
+        final MessageReceiver receiver = mock(MessageReceiver.class);
+        final ChatReceiver chatReceiver = mock(ChatReceiver.class);
+        new FixedMessageChannel(receiver, chatReceiver).send(null, message, type);
+        verify(receiver).sendMessage(message);
+        verify(chatReceiver).sendMessage(type, message);
+    }
+
+    @Test
+    public void testSendTransforms() {
+        final List<MessageReceiver> members = new ArrayList<>();
+        final MessageReceiver receiver = mock(MessageReceiver.class);
+        members.add(receiver);
+        new PrefixChannel(members).send(null, Text.of("Hello"), mock(ChatType.class));
+        verify(receiver).sendMessage(Text.of("> ", Text.of("Hello")));
+    }
+
+    @Test
+    public void testSendRendersOncePerLocale() {
+        final Text message = Text.of("Hello");
+        final ChatType type = mock(ChatType.class);
+        final List<Locale> rendered = new ArrayList<>();
+        final LocalizedMessageReceiver english1 = localized(Locale.ENGLISH, rendered);
+        final LocalizedMessageReceiver english2 = localized(Locale.ENGLISH, rendered);
+        final LocalizedMessageReceiver german = localized(Locale.GERMAN, rendered);
+        new FixedMessageChannel(english1, english2, german).send(null, message, type);
+        assertThat(rendered, containsInAnyOrder(Locale.ENGLISH, Locale.GERMAN));
+        verify(english1).sendRenderedMessage("Hello@en");
+        verify(english2).sendRenderedMessage("Hello@en");
+        verify(german).sendRenderedMessage("Hello@de");
+
+        // Renderings are not reused for the next broadcast
+        new FixedMessageChannel(english1).send(null, message, type);
+        assertThat(rendered, hasSize(3));
+    }
+
+    @Test
+    public void testTransformedMessageIsNotRendered() {
+        final List<MessageReceiver> members = new ArrayList<>();
+        final List<Locale> rendered = new ArrayList<>();
+        members.add(localized(Locale.ENGLISH, rendered));
+        new PrefixChannel(members).send(null, Text.of("Hello"), mock(ChatType.class));
+        verify(members.get(0)).sendMessage(Text.of("> ", Text.of("Hello")));
+        assertThat(rendered, empty());
+    }
+
+    private static LocalizedMessageReceiver localized(Locale locale, List<Locale> rendered) {
+        final LocalizedMessageReceiver receiver = mock(LocalizedMessageReceiver.class);
+        when(receiver.getLocale()).thenReturn(locale);
+        when(receiver.renderMessage(any(ChatType.class), any(Text.class), any(Locale.class))).thenAnswer(invocation -> {
+            rendered.add(locale);
+            return "Hello@" + invocation.getArguments()[2];
+        });
+        return receiver;
+    }
+
+    private interface ChatReceiver extends MessageReceiver, ChatTypeMessageReceiver {
+    }
+
+    private static final class PrefixChannel implements MessageChannel {
+
+        private final List<MessageReceiver> members;
+
+        PrefixChannel(List<MessageReceiver> members) {
+            this.members = members;
+        }
+
+        @Override
+        public Optional<Text> transformMessage(@Nullable Object sender, MessageReceiver recipient, Text original, ChatType type) {
+            return Optional.of(Text.of("> ", original));
+        }
+
+        @Override
+        public List<MessageReceiver> getMembers() {
+            return this.members;
+        }
+
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * This file is part of SpongeAPI, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.api.util.generator.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.cause.EventContext;
+import org.spongepowered.api.event.filter.Getter;
+import org.spongepowered.api.event.filter.IsCancelled;
+import org.spongepowered.api.event.filter.cause.All;
+import org.spongepowered.api.event.filter.cause.Before;
+import org.spongepowered.api.event.filter.cause.First;
+import org.spongepowered.api.event.filter.cause.Root;
+import org.spongepowered.api.event.filter.type.Exclude;
+import org.spongepowered.api.event.filter.type.Include;
+import org.spongepowered.api.util.Tristate;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public class ListenerFilterCompilerTest {
+
+    private final ListenerFilterCompiler compiler = new ListenerFilterCompiler(new ListenerClassGenerator());
+    private final Handler handler = new Handler();
+
+    private EventListener<Event> compile(String name) throws Exception {
+        for (Method method : Handler.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return this.compiler.compile(this.handler, method);
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    private static TestEvent event(Object... causes) {
+        return new TestEvent(Cause.of(EventContext.empty(), Arrays.asList(causes)), Optional.empty());
+    }
+
+    @Test
+    public void testFirst() throws Exception {
+        final EventListener<Event> listener = compile("onFirst");
+        listener.handle(event(1, "a", "b"));
+        listener.handle(event(1, 2));
+        assertEquals(ImmutableList.of("first a"), this.handler.calls);
+    }
+
+    @Test
+    public void testTypeFilter() throws Exception {
+        final EventListener<Event> listener = compile("onFirstNumber");
+        listener.handle(event("a", 1));
+        listener.handle(event("a", 1.5D));
+        assertEquals(ImmutableList.of("number 1"), this.handler.calls);
+    }
+
+    @Test
+    public void testMultipleParameters() throws Exception {
+        final EventListener<Event> listener = compile("onMultiple");
+        listener.handle(event("root", 1, "b"));
+        // Before(Integer) is the root, which is a String, but the root is not an Integer
+        listener.handle(event(1, "b"));
+        listener.handle(new TestEvent(Cause.of(EventContext.empty(), Arrays.asList("r", 2)), Optional.of("value")));
+        assertEquals(ImmutableList.of("multiple root root [1] absent", "multiple r r [2] value"), this.handler.calls);
+    }
+
+    @Test
+    public void testGetter() throws Exception {
+        final EventListener<Event> listener = compile("onValue");
+        listener.handle(event("a"));
+        listener.handle(new TestEvent(Cause.of(EventContext.empty(), "a"), Optional.of("present")));
+        assertEquals(ImmutableList.of("value present"), this.handler.calls);
+    }
+
+    @Test
+    public void testCancelled() throws Exception {
+        final EventListener<Event> uncancelled = compile("onUncancelled");
+        final EventListener<Event> cancelled = compile("onCancelled");
+        final EventListener<Event> any = compile("onAny");
+        final TestEvent event = event("a");
+        uncancelled.handle(event);
+        cancelled.handle(event);
+        any.handle(event);
+        event.setCancelled(true);
+        uncancelled.handle(event);
+        cancelled.handle(event);
+        any.handle(event);
+        assertEquals(ImmutableList.of("uncancelled a", "any", "cancelled", "any"), this.handler.calls);
+    }
+
+    @Test
+    public void testCompileTypeFilter() throws Exception {
+        final Predicate<Class<?>> include = ListenerFilterCompiler.compileTypeFilter(Handler.class.getMethod("onIncluded", Event.class));
+        assertTrue(include.test(TestEvent.class));
+        assertTrue(include.test(SubEvent.class));
+        assertFalse(include.test(Event.class));
+
+        final Predicate<Class<?>> exclude = ListenerFilterCompiler.compileTypeFilter(Handler.class.getMethod("onExcluded", Event.class));
+        assertTrue(exclude.test(TestEvent.class));
+        assertFalse(exclude.test(SubEvent.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnannotatedParameter() throws Exception {
+        compile("onInvalid");
+    }
+
+    public static class TestEvent implements Event, Cancellable {
+
+        private final Cause cause;
+        private final Optional<String> value;
+        private boolean cancelled;
+
+        TestEvent(Cause cause, Optional<String> value) {
+            this.cause = cause;
+            this.value = value;
+        }
+
+        public Optional<String> getValue() {
+            return this.value;
+        }
+
+        @Override
+        public Cause getCause() {
+            return this.cause;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancel) {
+            this.cancelled = cancel;
+        }
+
+    }
+
+    public static class SubEvent extends TestEvent {
+
+        SubEvent(Cause cause) {
+            super(cause, Optional.empty());
+        }
+
+    }
+
+    public static class Handler {
+
+        final List<String> calls = new ArrayList<>();
+
+        @Listener
+        public void onFirst(TestEvent event, @First String first) {
+            this.calls.add("first " + first);
+        }
+
+        @Listener
+        public void onFirstNumber(TestEvent event, @First(typeFilter = Integer.class) Number number) {
+            this.calls.add("number " + number);
+        }
+
+        @Listener
+        public void onMultiple(TestEvent event, @Root String root, @Before(Integer.class) String before, @All Integer[] all,
+                @Getter("getValue") Optional<String> value) {
+            this.calls.add("multiple " + root + " " + before + " " + Arrays.toString(all) + " " + value.orElse("absent"));
+        }
+
+        @Listener
+        public void onValue(TestEvent event, @Getter("getValue") String value) {
+            this.calls.add("value " + value);
+        }
+
+        @Listener
+        public void onUncancelled(TestEvent event, @First String first) {
+            this.calls.add("uncancelled " + first);
+        }
+
+        @Listener
+        @IsCancelled
+        public void onCancelled(TestEvent event) {
+            this.calls.add("cancelled");
+        }
+
+        @Listener
+        @IsCancelled(Tristate.UNDEFINED)
+        public void onAny(TestEvent event) {
+            this.calls.add("any");
+        }
+
+        @Listener
+        @Include(TestEvent.class)
+        public void onIncluded(Event event) {
+        }
+
+        @Listener
+        @Exclude(SubEvent.class)
+        public void onExcluded(Event event) {
+        }
+
+        @Listener
+        public void onInvalid(TestEvent event, String unannotated) {
+        }
+
+    }
+
+}